@@ -0,0 +1,212 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.benchmarks.codegen;
+
+import com.speedment.fika.codegen.internal.util.Formatting;
+import com.speedment.fika.codegen.internal.util.TextUtil;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import static java.util.stream.Collectors.toList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the text primitives in {@link Formatting} and {@link TextUtil} 
+ * with the regex and boxing based implementations they replaced. The 
+ * previous implementations are kept as private copies in this class.
+ * 
+ * @author Emil Forslund
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormattingBenchmark {
+    
+    private static final Pattern WORDS = Pattern.compile("[\\s]+");
+    
+    private String name;
+    private String code;
+    private String text;
+    
+    @Setup
+    public void setup() {
+        name = "firstName";
+        
+        final StringBuilder codeBuilder = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            codeBuilder.append("this.field").append(i)
+                .append(" = requireNonNull(field").append(i).append(");\n");
+        }
+        code = codeBuilder.toString();
+        
+        final StringBuilder textBuilder = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            textBuilder.append("Returns the value of the field with the ")
+                .append("specified name, or an empty optional if it is not set. ");
+        }
+        text = textBuilder.toString();
+    }
+    
+    @Benchmark
+    public String ucfirst() {
+        return Formatting.ucfirst(name);
+    }
+    
+    @Benchmark
+    public String ucfirstLegacy() {
+        return LegacyFormatting.ucfirst(name);
+    }
+    
+    @Benchmark
+    public String repeat() {
+        return Formatting.repeat("\t", 4);
+    }
+    
+    @Benchmark
+    public String repeatLegacy() {
+        return LegacyFormatting.repeat("\t", 4);
+    }
+    
+    @Benchmark
+    public String indent() {
+        return Formatting.indent(code, 3);
+    }
+    
+    @Benchmark
+    public String indentLegacy() {
+        return LegacyFormatting.indent(code, 3);
+    }
+    
+    @Benchmark
+    public String formatTextBox() {
+        return TextUtil.formatTextBox(text, 74);
+    }
+    
+    @Benchmark
+    public String formatTextBoxLegacy() {
+        return LegacyFormatting.formatTextBox(text, 74, WORDS, Collections.emptySet());
+    }
+    
+    @Benchmark
+    public String alignCenter() {
+        return TextUtil.alignCenter(name, 32);
+    }
+    
+    @Benchmark
+    public String alignCenterLegacy() {
+        return LegacyFormatting.alignCenter(name, 32, ' ');
+    }
+    
+    /**
+     * The implementations that were used before the text primitives were
+     * rewritten.
+     */
+    private static final class LegacyFormatting {
+        
+        static String ucfirst(String input) {
+            return withFirst(input, (first) -> String.valueOf(Character.toUpperCase(first)));
+        }
+        
+        static String withFirst(String input, Function<Character, String> callback) {
+            if (input == null) {
+                return null;
+            } else if (input.length() == 0) {
+                return "";
+            } else {
+                return String.join("",
+                    callback.apply(input.charAt(0)),
+                    input.subSequence(1, input.length())
+                );
+            }
+        }
+        
+        static String repeat(String str, int count) {
+            final StringBuilder result = new StringBuilder();
+            
+            for (int i = 0; i < count; i++) {
+                result.append(str);
+            }
+            
+            return result.toString();
+        }
+        
+        static String indent(String text) {
+            return "\t" + text.replaceAll("\\r?\\n", "\n\t");
+        }
+        
+        static String indent(String text, int steps) {
+            switch (steps) {
+                case 0  : return text;
+                case 1  : return indent(text);
+                default : return indent(indent(text, steps - 1));
+            }
+        }
+        
+        static String formatTextBox(String text, int width, Pattern splitter, Set<String> singleRowers) {
+            final StringBuilder sb = new StringBuilder();
+            final AtomicInteger col = new AtomicInteger();
+            final List<String> words = splitter.splitAsStream(text).collect(toList());
+            for (final String w : words) {
+                final int wordLen = w.length();
+                if (singleRowers.contains(w)) {
+                    sb.append("\n");
+                    sb.append(w);
+                    sb.append("\n");
+                    col.set(0);
+                } else {
+                    if (col.get() + wordLen >= width) {
+                        sb.append("\n");
+                        col.set(0);
+                    } else if (col.get() > 0) {
+                        sb.append(" ");
+                        col.incrementAndGet();
+                    }
+                    sb.append(w);
+                    col.getAndAdd(wordLen);
+                }
+            }
+            return sb.toString();
+        }
+        
+        static String alignCenter(String substring, int totalWidth, char fill) {
+            if (substring.length() > totalWidth) {
+                return substring.substring(0, totalWidth);
+            } else {
+                final double padding = (totalWidth - substring.length()) / 2d;
+                final int left  = (int) Math.floor(padding);
+                final int right = (int) Math.ceil(padding);
+                return repeat("" + fill, left) + substring + repeat("" + fill, right);
+            }
+        }
+    }
+}
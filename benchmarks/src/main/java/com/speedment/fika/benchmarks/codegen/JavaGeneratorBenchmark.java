@@ -0,0 +1,100 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.benchmarks.codegen;
+
+import com.speedment.fika.codegen.Generator;
+import com.speedment.fika.codegen.RenderSink;
+import com.speedment.fika.codegen.SyntheticFile;
+import com.speedment.fika.codegen.internal.java.JavaGenerator;
+import com.speedment.fika.codegen.model.File;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how long it takes for the {@link JavaGenerator} to render large 
+ * synthetic {@link File} models. The models are built by the same 
+ * {@link SyntheticFile} that the scaling tests of the code generator use.
+ * 
+ * @author Emil Forslund
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JavaGeneratorBenchmark {
+    
+    /**
+     * The number of classes in the file.
+     */
+    @Param({"1", "10"})
+    private int classes;
+    
+    /**
+     * The number of fields in every class. Every field gets a getter and a
+     * setter.
+     */
+    @Param({"10", "100"})
+    private int fields;
+    
+    /**
+     * Whether the generator should memoize the rendering of immutable models.
+     */
+    @Param({"false", "true"})
+    private boolean memo;
+    
+    private Generator generator;
+    private File file;
+    
+    @Setup
+    public void setup() {
+        generator = new JavaGenerator().setMemoEnabled(memo);
+        file      = new SyntheticFile()
+            .classes(classes)
+            .fields(fields)
+            .methods(0)
+            .build();
+    }
+    
+    @Benchmark
+    public String render() {
+        return generator.on(file).get();
+    }
+    
+    @Benchmark
+    public StringBuilder renderToSink() {
+        final StringBuilder str = new StringBuilder();
+        generator.render(file, RenderSink.of(str));
+        return str;
+    }
+    
+    @Benchmark
+    public File copy() {
+        return file.copy();
+    }
+}
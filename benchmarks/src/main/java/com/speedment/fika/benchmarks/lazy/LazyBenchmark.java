@@ -0,0 +1,139 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.benchmarks.lazy;
+
+import com.speedment.fika.lazy.Lazy;
+import com.speedment.fika.lazy.LazyInt;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the cost of reading {@link Lazy} and {@link LazyInt} values, both
+ * when several threads race to compute the value the first time and when the
+ * value has already been computed.
+ * 
+ * @author Emil Forslund
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LazyBenchmark {
+    
+    private final static int INSTANCES = 1024;
+    private final static Supplier<String> SUPPLIER = () -> "value";
+    private final static IntSupplier INT_SUPPLIER = () -> 42;
+    
+    /**
+     * Values that have already been computed.
+     */
+    @State(Scope.Benchmark)
+    public static class Computed {
+        
+        private Lazy<String> lazy;
+        private LazyInt lazyInt;
+        
+        @Setup
+        public void setup() {
+            lazy    = Lazy.create();
+            lazyInt = LazyInt.create();
+            lazy.getOrCompute(SUPPLIER);
+            lazyInt.getOrCompute(INT_SUPPLIER);
+        }
+    }
+    
+    /**
+     * Values that have not been computed yet. New instances are created 
+     * before every invocation so that every thread in the group races for 
+     * the first access of the same instances.
+     */
+    @State(Scope.Group)
+    public static class Fresh {
+        
+        private List<Lazy<String>> lazies;
+        private LazyInt[] lazyInts;
+        
+        @Setup(Level.Iteration)
+        public void setup() {
+            lazies   = new ArrayList<>(INSTANCES);
+            lazyInts = new LazyInt[INSTANCES];
+            
+            for (int i = 0; i < INSTANCES; i++) {
+                lazies.add(Lazy.create());
+                lazyInts[i] = LazyInt.create();
+            }
+        }
+    }
+    
+    @Benchmark
+    @Threads(4)
+    public String steadyStateRead(Computed state) {
+        return state.lazy.getOrCompute(SUPPLIER);
+    }
+    
+    @Benchmark
+    @Threads(4)
+    public int steadyStateReadInt(Computed state) {
+        return state.lazyInt.getOrCompute(INT_SUPPLIER);
+    }
+    
+    @Benchmark
+    @Group("contendedFirstAccess")
+    @GroupThreads(4)
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Measurement(iterations = 50)
+    @Warmup(iterations = 10)
+    @OperationsPerInvocation(INSTANCES)
+    public void contendedFirstAccess(Fresh state, Blackhole bh) {
+        for (final Lazy<String> lazy : state.lazies) {
+            bh.consume(lazy.getOrCompute(SUPPLIER));
+        }
+    }
+    
+    @Benchmark
+    @Group("contendedFirstAccessInt")
+    @GroupThreads(4)
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Measurement(iterations = 50)
+    @Warmup(iterations = 10)
+    @OperationsPerInvocation(INSTANCES)
+    public void contendedFirstAccessInt(Fresh state, Blackhole bh) {
+        for (final LazyInt lazy : state.lazyInts) {
+            bh.consume(lazy.getOrCompute(INT_SUPPLIER));
+        }
+    }
+}
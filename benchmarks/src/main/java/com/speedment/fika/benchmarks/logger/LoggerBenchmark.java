@@ -0,0 +1,98 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.benchmarks.logger;
+
+import com.speedment.fika.logger.Level;
+import com.speedment.fika.logger.Logger;
+import com.speedment.fika.logger.internal.AbstractLogger;
+import com.speedment.fika.logger.internal.formatter.StandardFormatters;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of an {@link AbstractLogger} for messages that are
+ * on an enabled level and for messages that are filtered out.
+ * 
+ * @author Emil Forslund
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggerBenchmark {
+    
+    private CountingLogger logger;
+    
+    @Setup
+    public void setup() {
+        logger = new CountingLogger();
+        logger.setLevel(Level.INFO);
+    }
+    
+    @Benchmark
+    public long enabled() {
+        logger.info("A message without arguments.");
+        return logger.length;
+    }
+    
+    @Benchmark
+    public long enabledWithArguments() {
+        logger.info("A message with arguments %s and %d.", "text", 42);
+        return logger.length;
+    }
+    
+    @Benchmark
+    public long disabled() {
+        logger.debug("A message without arguments.");
+        return logger.length;
+    }
+    
+    @Benchmark
+    public long disabledWithArguments() {
+        logger.debug("A message with arguments %s and %d.", "text", 42);
+        return logger.length;
+    }
+    
+    /**
+     * A {@link Logger} that only counts the characters of the output so that
+     * the cost of the console is not included in the measurement.
+     */
+    private final static class CountingLogger extends AbstractLogger {
+        
+        private long length;
+        
+        private CountingLogger() {
+            super("benchmark", StandardFormatters.PLAIN_FORMATTER);
+        }
+
+        @Override
+        protected void output(String message) {
+            length += message.length();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.benchmarks.mapstream;
+
+import com.speedment.fika.mapstream.MapStream;
+import java.util.AbstractMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import static java.util.stream.Collectors.toMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link MapStream} pipelines with the equivalent pipelines written
+ * using a raw {@code Stream<Map.Entry>}.
+ * 
+ * @author Emil Forslund
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapStreamBenchmark {
+    
+    @Param({"100", "10000"})
+    private int size;
+    
+    private Map<String, Integer> map;
+    
+    @Setup
+    public void setup() {
+        map = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            map.put("key" + i, i);
+        }
+    }
+    
+    @Benchmark
+    public Map<String, Integer> filterMapToMap() {
+        return MapStream.of(map)
+            .filterValue(v -> v % 2 == 0)
+            .mapValue(v -> v * 2)
+            .toMap();
+    }
+    
+    @Benchmark
+    public Map<String, Integer> filterMapToMapRaw() {
+        return map.entrySet().stream()
+            .filter(e -> e.getValue() % 2 == 0)
+            .collect(toMap(Map.Entry::getKey, e -> e.getValue() * 2));
+    }
+    
+    @Benchmark
+    public long flipAndCount() {
+        return MapStream.flip(MapStream.of(map))
+            .filterKey(k -> k > size / 2)
+            .count();
+    }
+    
+    @Benchmark
+    public long flipAndCountRaw() {
+        return map.entrySet().stream()
+            .map(e -> new AbstractMap.SimpleImmutableEntry<>(e.getValue(), e.getKey()))
+            .filter(e -> e.getKey() > size / 2)
+            .count();
+    }
+    
+    @Benchmark
+    public int sumValues() {
+        return MapStream.of(map)
+            .mapToInt((k, v) -> v)
+            .sum();
+    }
+    
+    @Benchmark
+    public int sumValuesRaw() {
+        return map.entrySet().stream()
+            .mapToInt(Map.Entry::getValue)
+            .sum();
+    }
+}
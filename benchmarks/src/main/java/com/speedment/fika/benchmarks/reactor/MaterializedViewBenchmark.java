@@ -0,0 +1,130 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.benchmarks.reactor;
+
+import com.speedment.field.ComparableField;
+import com.speedment.fika.reactor.MaterializedView;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how fast a {@link MaterializedView} can ingest batches of events.
+ * The events refer to a limited number of distinct keys so that most of them
+ * are merged with an existing entity.
+ * 
+ * @author Emil Forslund
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MaterializedViewBenchmark {
+    
+    private final static int BATCH_SIZE = 1000;
+    
+    @Param({"10", "1000"})
+    private int keys;
+    
+    private List<Event> batch;
+    private MaterializedView<Event, Integer> view;
+    
+    @Setup
+    public void setupBatch() {
+        batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(new Event(i % keys, i));
+        }
+    }
+    
+    @Setup(Level.Iteration)
+    public void setupView() {
+        view = new MaterializedView<>(field(Event::getId));
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public MaterializedView<Event, Integer> accept() {
+        view.accept(batch);
+        return view;
+    }
+    
+    /**
+     * Creates a {@link ComparableField} that only supports the 
+     * {@code get(entity)}-method, which is the only method used by the view.
+     * 
+     * @param getter  the getter to use
+     * @return        the field
+     */
+    @SuppressWarnings("unchecked")
+    private static ComparableField<Event, ?, Integer> field(Function<Event, Integer> getter) {
+        return (ComparableField<Event, ?, Integer>) Proxy.newProxyInstance(
+            MaterializedViewBenchmark.class.getClassLoader(),
+            new Class<?>[] {ComparableField.class},
+            (proxy, method, args) -> {
+                if ("get".equals(method.getName()) 
+                &&  args != null && args.length == 1) {
+                    return getter.apply((Event) args[0]);
+                } else {
+                    throw new UnsupportedOperationException(
+                        "Method '" + method.getName() + "' is not supported " + 
+                        "by the benchmark field."
+                    );
+                }
+            }
+        );
+    }
+    
+    /**
+     * A minimal event entity.
+     */
+    public final static class Event {
+        
+        private final int id;
+        private final long version;
+
+        private Event(int id, long version) {
+            this.id      = id;
+            this.version = version;
+        }
+
+        public Integer getId() {
+            return id;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.benchmarks.restup;
+
+import com.speedment.fika.restup.Response;
+import com.speedment.fika.restup.Rest;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the round trip of requests sent with the {@link Rest} client to a
+ * stub HTTP server on the loopback interface. The stub does no work, so the
+ * result is dominated by the overhead of the client.
+ * 
+ * @author Emil Forslund
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RestBenchmark {
+    
+    private final static byte[] PONG = "{\"status\":\"ok\"}"
+        .getBytes(StandardCharsets.UTF_8);
+    
+    private HttpServer server;
+    private ExecutorService executor;
+    private Rest rest;
+    private String payload;
+    
+    @Setup
+    public void setup() throws IOException {
+        executor = Executors.newFixedThreadPool(4);
+        server   = HttpServer.create(
+            new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0
+        );
+        
+        server.createContext("/ping", exchange -> respond(exchange, PONG));
+        server.createContext("/echo", exchange -> 
+            respond(exchange, readAll(exchange.getRequestBody()))
+        );
+        
+        server.setExecutor(executor);
+        server.start();
+        
+        rest = Rest.connect(
+            server.getAddress().getHostString(),
+            server.getAddress().getPort()
+        );
+        
+        final StringBuilder str = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            str.append("{\"id\":").append(i).append(",\"name\":\"row").append(i).append("\"}");
+        }
+        
+        payload = str.toString();
+    }
+    
+    @TearDown
+    public void tearDown() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+    
+    @Benchmark
+    public Response get() {
+        return rest.get("ping").join();
+    }
+    
+    @Benchmark
+    public Response post() {
+        return rest.post("echo", payload).join();
+    }
+    
+    private static void respond(HttpExchange exchange, byte[] body) throws IOException {
+        exchange.sendResponseHeaders(200, body.length);
+        try (final OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+    
+    private static byte[] readAll(InputStream in) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[4096];
+        
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        
+        return out.toByteArray();
+    }
+}
@@ -97,4 +97,38 @@ public interface DependencyManager {
      * @return  the package
      */
     Optional<String> getCurrentPackage();
+    
+    /**
+     * Returns a counter that is increased every time the state of this 
+     * manager changes, for an example when a dependency is loaded or the
+     * current package is set. Results that depend on the state of the manager
+     * may be reused as long as the counter has not changed.
+     * <p>
+     * The default implementation returns <code>-1</code>, meaning that 
+     * changes are not tracked and that no results can be reused.
+     * 
+     * @return  the number of modifications, or a negative value if unknown
+     * @since   2.4
+     */
+    default long getModificationCount() {
+        return -1;
+    }
+    
+    /**
+     * Creates a new {@code DependencyManager} with the same configuration as
+     * this one, for an example the same ignore list, but without any loaded 
+     * dependencies or current package. The new instance is completely 
+     * independent of this one and can be used in another thread.
+     * <p>
+     * The default implementation throws an 
+     * {@link UnsupportedOperationException}.
+     * 
+     * @return  the new dependency manager
+     * @since   2.4
+     */
+    default DependencyManager fork() {
+        throw new UnsupportedOperationException(
+            getClass().getName() + " does not support forking."
+        );
+    }
 }
\ No newline at end of file
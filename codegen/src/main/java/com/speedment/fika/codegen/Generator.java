@@ -17,8 +17,13 @@
 package com.speedment.fika.codegen;
 
 import java.util.Collection;
+import java.util.List;
+import static java.util.Objects.requireNonNull;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.stream.Stream;
+import static java.util.stream.Collectors.toList;
 
 /**
  * A hook to the generator that can be passed to various stages in the pipeline.
@@ -175,6 +180,25 @@ public interface Generator {
         return metaOn(model).map(Meta::getResult).findAny();
     }
 
+    /**
+     * Locates the {@link Transform} that corresponds to the specified model
+     * and uses it to write code into the specified {@link RenderSink}. If the
+     * transform is a {@link StreamingTransform}, it will write directly into
+     * the sink without building an intermediate string. If no view is 
+     * associated with the model type, nothing is written and 
+     * <code>false</code> is returned.
+     * 
+     * @param model  the model
+     * @param sink   the sink to write to
+     * @return       <code>true</code> if anything was rendered
+     */
+    default boolean render(Object model, RenderSink sink) {
+        requireNonNull(sink);
+        final Optional<String> result = on(model);
+        result.ifPresent(sink::write);
+        return result.isPresent();
+    }
+
     /**
      * Renders all the specified models into a stream of strings.
      *
@@ -186,6 +210,62 @@ public interface Generator {
         return metaOn(models).map(Meta::getResult);
     }
     
+    /**
+     * Creates a new generator that shares the installed transforms with this
+     * one but has its own {@link RenderStack} and {@link DependencyManager}.
+     * The new generator can be used in another thread at the same time as 
+     * this one.
+     * <p>
+     * The default implementation throws an 
+     * {@link UnsupportedOperationException}.
+     * 
+     * @return  the new generator
+     * @since   2.4
+     * 
+     * @see DependencyManager#fork()
+     */
+    default Generator fork() {
+        throw new UnsupportedOperationException(
+            getClass().getName() + " does not support forking."
+        );
+    }
+    
+    /**
+     * Renders all the specified models in parallel using the specified 
+     * {@link Executor}. Every model is rendered by a separate 
+     * {@link #fork() fork} of this generator so that no render or dependency
+     * state is shared between the tasks. The results are returned in the same
+     * order as the models in the collection, regardless of the order in which
+     * the tasks complete.
+     * <p>
+     * If any of the models fail to render, the returned future completes
+     * exceptionally.
+     * 
+     * @param <M>       the model type
+     * @param models    the models to generate, typically files
+     * @param executor  the executor to run the tasks in
+     * @return          future list of generated text, in the input order
+     * @since           2.4
+     */
+    default <M> CompletableFuture<List<Optional<String>>> onAll(Collection<M> models, Executor executor) {
+        requireNonNull(models);
+        requireNonNull(executor);
+        
+        final List<CompletableFuture<Optional<String>>> futures = models.stream()
+            .map(model -> CompletableFuture.supplyAsync(
+                () -> fork().on(model), executor
+            ))
+            .collect(toList());
+        
+        return CompletableFuture.allOf(
+                futures.toArray(new CompletableFuture<?>[futures.size()])
+            )
+            .thenApply(v -> futures.stream()
+                .map(CompletableFuture::join)
+                .collect(toList())
+            );
+    }
+    
     /**
      * Transforms the specified model using the specified {@link Transform} from 
      * the specified {@link TransformFactory}.
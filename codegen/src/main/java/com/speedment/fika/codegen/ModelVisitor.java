@@ -0,0 +1,100 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.codegen;
+
+import com.speedment.fika.codegen.internal.ModelWalker;
+import com.speedment.fika.codegen.model.ClassOrInterface;
+import com.speedment.fika.codegen.model.Constructor;
+import com.speedment.fika.codegen.model.Field;
+import com.speedment.fika.codegen.model.File;
+import com.speedment.fika.codegen.model.Method;
+import com.speedment.fika.codegen.model.Type;
+
+/**
+ * A visitor that can be passed to {@link #walk(Object, ModelVisitor)} to be
+ * notified of every component in a model hierarchy. The traits of each model
+ * class are only inspected once, so walking a tree is much cheaper than
+ * testing every node against every trait.
+ * <p>
+ * Components are visited top-down. When a component is visited, its children
+ * have not been walked yet, so a visitor may add new children to it and they
+ * will be visited as well. Components higher up in the hierarchy must not be
+ * modified during the walk.
+ * 
+ * @author Emil Forslund
+ * @since  2.4
+ */
+public interface ModelVisitor {
+    
+    /**
+     * Called when a {@link File} is visited.
+     * 
+     * @param file  the file
+     */
+    default void visitFile(File file) {}
+    
+    /**
+     * Called when a class, interface or enum is visited.
+     * 
+     * @param model  the class, interface or enum
+     */
+    default void visitClass(ClassOrInterface<?> model) {}
+    
+    /**
+     * Called when a {@link Constructor} is visited.
+     * 
+     * @param constructor  the constructor
+     */
+    default void visitConstructor(Constructor constructor) {}
+    
+    /**
+     * Called when a {@link Method} is visited.
+     * 
+     * @param method  the method
+     */
+    default void visitMethod(Method method) {}
+    
+    /**
+     * Called when a {@link Field} is visited. This includes method and 
+     * constructor parameters.
+     * 
+     * @param field  the field
+     */
+    default void visitField(Field field) {}
+    
+    /**
+     * Called for every {@link Type} referenced in the hierarchy, for an 
+     * example as a supertype, annotation, field type or generic bound. Types 
+     * used as generic parameters of other types are visited as well.
+     * 
+     * @param type  the type
+     */
+    default void visitType(Type type) {}
+    
+    /**
+     * Walks the model hierarchy of the specified object, calling the 
+     * specified visitor for every component found. The model can be anything,
+     * but it will only be traversed if it inherits from any of the supported
+     * traits.
+     * 
+     * @param model    the model to walk
+     * @param visitor  the visitor to notify
+     */
+    static void walk(Object model, ModelVisitor visitor) {
+        ModelWalker.walk(model, visitor);
+    }
+}
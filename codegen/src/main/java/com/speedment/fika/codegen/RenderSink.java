@@ -0,0 +1,182 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.codegen;
+
+import com.speedment.fika.codegen.internal.DefaultRenderSink;
+import com.speedment.fika.codegen.internal.ProtectedRegions;
+import com.speedment.fika.codegen.internal.util.Formatting;
+import com.speedment.fika.codegen.model.CodeBlock;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A character sink that the generator can write rendered code into instead of
+ * building intermediate strings. The sink keeps track of the current level of
+ * indentation so that nested code does not have to be re-indented once it has
+ * been rendered. Every new-line written to the sink while it is indented will
+ * be followed by the current indentation.
+ * <p>
+ * Sinks are not thread safe and should only be used by one generator at a
+ * time.
+ * 
+ * @author  Emil Forslund
+ * @since   2.4
+ * 
+ * @see StreamingTransform
+ * @see Generator#render(java.lang.Object, RenderSink)
+ */
+public interface RenderSink {
+    
+    /**
+     * Writes the specified text to the sink. Any new-line characters in the
+     * text will be followed by the current indentation.
+     * 
+     * @param text  the text to write
+     * @return      a reference to this sink
+     */
+    RenderSink write(CharSequence text);
+    
+    /**
+     * Writes a new-line character as defined by {@link Formatting#nl()} 
+     * followed by the current indentation.
+     * 
+     * @return  a reference to this sink
+     */
+    default RenderSink nl() {
+        return write(Formatting.nl());
+    }
+    
+    /**
+     * Increases the indentation by one level. The new level will be used 
+     * from the next new-line character and onwards.
+     * 
+     * @return  a reference to this sink
+     */
+    RenderSink indent();
+    
+    /**
+     * Decreases the indentation by one level. The new level will be used 
+     * from the next new-line character and onwards.
+     * 
+     * @return  a reference to this sink
+     * 
+     * @throws IllegalStateException  if the sink is not indented
+     */
+    RenderSink outdent();
+    
+    /**
+     * Writes the specified rows as a block surrounded by curly brackets. The
+     * rows are separated by new-line characters and indented one level. This 
+     * gives the same result as {@link Formatting#block(String)}.
+     * <p>
+     * If the rows are a {@link CodeBlock}, nested blocks are written using
+     * the indentation of this sink.
+     * 
+     * @param rows  the rows to put inside the block
+     * @return      a reference to this sink
+     */
+    default RenderSink block(Iterable<? extends CharSequence> rows) {
+        write(Formatting.BS).indent().nl();
+        
+        if (rows instanceof CodeBlock) {
+            ((CodeBlock) rows).render(this);
+            return outdent().nl().write(Formatting.BE);
+        }
+        
+        boolean first = true;
+        for (final CharSequence row : rows) {
+            if (first) {
+                first = false;
+            } else {
+                nl();
+            }
+            
+            write(row);
+        }
+        
+        return outdent().nl().write(Formatting.BE);
+    }
+    
+    /**
+     * Returns the current number of indentation levels.
+     * 
+     * @return  the indentation level
+     */
+    int getIndentation();
+    
+    /**
+     * Returns the rows of the protected region with the specified name if
+     * the sink was created with the regions of a previously generated file.
+     * The region is marked as taken so that it will not be returned by
+     * {@link #getRemainingRegions()}. If no such region exists or if it has
+     * already been taken, an empty <code>Optional</code> is returned and the
+     * default rows of the region should be written instead.
+     * <p>
+     * The default implementation never has any regions.
+     * 
+     * @param name  the name of the region
+     * @return      the rows of the region
+     * 
+     * @see CodeBlock#protect(String, CodeBlock)
+     */
+    default Optional<List<String>> takeRegion(String name) {
+        return Optional.empty();
+    }
+    
+    /**
+     * Returns the protected regions that this sink was created with but that
+     * have not been {@link #takeRegion(String) taken}. These regions are no
+     * longer part of the generated code, but contains rows that might have 
+     * been written by hand.
+     * <p>
+     * The default implementation never has any regions.
+     * 
+     * @return  the remaining regions mapped by name
+     */
+    default Map<String, List<String>> getRemainingRegions() {
+        return Collections.emptyMap();
+    }
+    
+    /**
+     * Creates a new sink that writes to the specified {@link Appendable}, for
+     * an example a {@code StringBuilder} or a {@code Writer}. Any 
+     * {@code IOException} thrown by the appendable will be rethrown as an
+     * {@code UncheckedIOException}.
+     * 
+     * @param out  the appendable to write to
+     * @return     the new sink
+     */
+    static RenderSink of(Appendable out) {
+        return new DefaultRenderSink(out);
+    }
+    
+    /**
+     * Creates a new sink that writes to the specified {@link Appendable} and
+     * writes the rows of the specified protected regions instead of the 
+     * default rows in the model. This can be used to regenerate a file 
+     * without losing the code that has been written in its regions.
+     * 
+     * @param out      the appendable to write to
+     * @param regions  the regions of the previously generated file
+     * @return         the new sink
+     */
+    static RenderSink of(Appendable out, ProtectedRegions regions) {
+        return new DefaultRenderSink(out, regions);
+    }
+}
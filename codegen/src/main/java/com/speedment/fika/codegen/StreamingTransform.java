@@ -0,0 +1,62 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.codegen;
+
+import java.util.Optional;
+
+/**
+ * A {@link Transform} that renders a model to text by writing directly into a
+ * {@link RenderSink} instead of returning a string. This avoids copying the 
+ * rendered code of nested models every time they are combined and indented
+ * by the parent.
+ * <p>
+ * The {@link #transform(Generator, Object)} method is implemented by 
+ * rendering into a new string, so a streaming transform can still be used
+ * wherever an ordinary transform is expected.
+ * 
+ * @author     Emil Forslund
+ * @param <F>  the model to generate from
+ * @since      2.4
+ * 
+ * @see Generator#render(java.lang.Object, RenderSink)
+ */
+public interface StreamingTransform<F> extends Transform<F, String> {
+    
+    /**
+     * Renders the specified model into the specified sink. A reference to the
+     * current code generator is supplied so that nested models can be 
+     * rendered into the same sink.
+     * 
+     * @param gen    a reference to the generator being used
+     * @param model  the model to render
+     * @param sink   the sink to write the code to
+     */
+    void render(Generator gen, F model, RenderSink sink);
+    
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation renders the model into a new string using
+     * {@link #render(Generator, Object, RenderSink)}.
+     */
+    @Override
+    default Optional<String> transform(Generator gen, F model) {
+        final StringBuilder str = new StringBuilder();
+        render(gen, model, RenderSink.of(str));
+        return Optional.of(str.toString());
+    }
+}
@@ -19,8 +19,10 @@ package com.speedment.fika.codegen;
 import java.util.Optional;
 
 /**
- * Transforms must have a public constructor with no parameters so that it can
- * be instantiated dynamically.
+ * Transforms that are installed by class must have a public constructor with 
+ * no parameters so that it can be instantiated dynamically. The factory only
+ * creates one instance of every installed transform and reuses it for every
+ * model, so implementations should not hold any rendering state.
  * 
  * @author Emil Forslund
  * @param <F>  the model to generate from
@@ -68,9 +68,51 @@ public interface TransformFactory {
 	 */
 	<A, B, T extends Transform<A, B>> TransformFactory install(
         Class<A> from, Class<B> to, Class<T> transformer);
+    
+    /**
+	 * Installs the specified {@link Transform} instance, assuming that the 
+     * resulting class is a String. The same instance will be used every time
+     * the transform is needed, so it must not hold any rendering state.
+     * 
+	 * @param <A>          the type to transform from
+	 * @param from         the model
+	 * @param transformer  the view
+     * @return             a reference to this
+	 */
+    default <A> TransformFactory install(
+        Class<A> from, Transform<A, String> transformer) {
+        
+        return install(from, String.class, transformer);
+    }
+    
+    /**
+	 * Installs the specified {@link Transform} instance. The same instance 
+     * will be used every time the transform is needed, so it must not hold 
+     * any rendering state.
+     * <p>
+     * The default implementation throws an 
+     * {@link UnsupportedOperationException}.
+     * 
+	 * @param <A>          the type to transform from
+     * @param <B>          the type to transform to
+	 * @param from         the model class to transform from
+     * @param to           the model class to transform to
+	 * @param transformer  the view
+     * @return             a reference to this
+     * @since              2.4
+	 */
+	default <A, B> TransformFactory install(
+        Class<A> from, Class<B> to, Transform<A, B> transformer) {
+        
+        throw new UnsupportedOperationException(
+            getClass().getName() + " does not support installing transform " +
+            "instances."
+        );
+    }
 
 	/**
-	 * Builds a stream of all transforms that match the specified model.
+	 * Returns a set of all transforms that match the specified model. The
+     * returned set should not be modified.
      * 
      * @param <A>   the class to transform from
 	 * @param <T>   the transformer
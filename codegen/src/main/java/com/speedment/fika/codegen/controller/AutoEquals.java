@@ -16,6 +16,7 @@
  */
 package com.speedment.fika.codegen.controller;
 
+import com.speedment.fika.codegen.model.CodeBlock;
 import com.speedment.fika.codegen.model.Field;
 import com.speedment.fika.codegen.model.File;
 import com.speedment.fika.codegen.model.Import;
@@ -31,12 +32,12 @@ import static com.speedment.fika.codegen.internal.model.constant.DefaultAnnotati
 import static com.speedment.fika.codegen.internal.model.constant.DefaultJavadocTag.PARAM;
 import static com.speedment.fika.codegen.internal.model.constant.DefaultJavadocTag.RETURN;
 import static com.speedment.fika.codegen.internal.model.constant.DefaultType.*;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
-import static com.speedment.fika.codegen.internal.util.Formatting.nl;
-import static com.speedment.fika.codegen.internal.util.Formatting.tab;
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -98,11 +99,13 @@ implements Consumer<T> {
     public void accept(T model) {
         requireNonNull(model);
         
-        if (!hasMethod(model, EQUALS, 1)) {
+        final Set<String> signatures = signaturesOf(model);
+        
+        if (!signatures.contains(signature(EQUALS, 1))) {
             acceptEquals(model);
         }
         
-        if (!hasMethod(model, HASHCODE, 0)) {
+        if (!signatures.contains(signature(HASHCODE, 0))) {
             acceptHashcode(model);
         }
     }
@@ -132,21 +135,9 @@ implements Consumer<T> {
             ).public_()
             .add(OVERRIDE)
             .add(Field.of("other", OBJECT))
-            .add("return Optional.ofNullable(other)")
-            .call(m -> {
-                if (HasSupertype.class.isAssignableFrom(model.getClass())) {
-                    final Optional<Type> supertype = ((HasSupertype<?>) model).getSupertype();
-                    if (supertype.isPresent()) {
-                        m.add(tab() + ".filter(o -> super.equals(o))");
-                    }
-                }
-            })
-            .add(tab() + ".filter(o -> getClass().equals(o.getClass()))")
-            .add(tab() + ".map(o -> (" + model.getName() + ") o)")
-            .add(tab() + model.getFields().stream().map(this::compare).collect(
-                    Collectors.joining(nl() + tab())
-                ))
-            .add(tab() + ".isPresent();")
+            .add(CodeBlock.of("return Optional.ofNullable(other)")
+                .indent(filtersOf(model))
+            )
         );
         
     }
@@ -171,15 +162,42 @@ implements Consumer<T> {
                 .add(RETURN.setText("The hash code."))
             ).public_()
             .add(OVERRIDE)
-            .add("int hash = 7;")
-            .add(model.getFields().stream()
-                .map(this::hash)
-                .collect(Collectors.joining(nl()))
+            .add(CodeBlock.of("int hash = 7;")
+                .append(model.getFields().stream()
+                    .map(this::hash)
+                    .toArray(String[]::new)
+                )
+                .append("return hash;")
             )
-            .add("return hash;")
         );
     }
     
+    /**
+     * Generates the chain of filters used by the <code>equals()</code> 
+     * method to compare this object with another one.
+     * 
+     * @param model  the model
+     * @return       the filters
+     */
+    private CodeBlock filtersOf(T model) {
+        final CodeBlock filters = CodeBlock.of();
+        
+        if (HasSupertype.class.isAssignableFrom(model.getClass())) {
+            final Optional<Type> supertype = ((HasSupertype<?>) model).getSupertype();
+            if (supertype.isPresent()) {
+                filters.append(".filter(o -> super.equals(o))");
+            }
+        }
+        
+        filters.append(
+            ".filter(o -> getClass().equals(o.getClass()))",
+            ".map(o -> (" + model.getName() + ") o)"
+        );
+        
+        model.getFields().forEach(f -> filters.append(compare(f)));
+        return filters.append(".isPresent();");
+    }
+    
     /**
      * Generates code for comparing the specified field in this and another
      * object.
@@ -267,28 +285,35 @@ implements Consumer<T> {
     }
     
     /**
-     * Returns the a method with the specified signature exists.
+     * Returns an index of the signatures of all the methods in the specified
+     * model, so that the existence of a method can be checked in constant 
+     * time. Each signature is created using {@link #signature(String, int)}.
      * 
-     * @param model   the model
-     * @param method  the method name to look for
-     * @param params  the number of parameters in the signature
-     * @return        <code>true</code> if found, else <code>false</code>
+     * @param model  the model
+     * @return       the signatures of all methods in the model
      */
-    protected boolean hasMethod(T model, String method, int params) {
+    protected Set<String> signaturesOf(T model) {
         requireNonNull(model);
-        requireNonNull(method);
-        requireNonNull(params);
         
-        Method found = null;
+        final List<Method> methods = model.getMethods();
+        final Set<String> signatures = new HashSet<>(methods.size() * 2);
         
-        for (Method m : model.getMethods()) {
-            if (method.equals(m.getName())
-                && m.getFields().size() == params) {
-                found = m;
-                break;
-            }
+        for (final Method m : methods) {
+            signatures.add(signature(m.getName(), m.getFields().size()));
         }
         
-        return found != null;
+        return signatures;
+    }
+    
+    /**
+     * Returns a key for a method with the specified name and number of 
+     * parameters.
+     * 
+     * @param method  the method name
+     * @param params  the number of parameters in the signature
+     * @return        the signature key
+     */
+    protected static String signature(String method, int params) {
+        return requireNonNull(method) + "/" + params;
     }
 }
\ No newline at end of file
@@ -17,18 +17,9 @@
 package com.speedment.fika.codegen.controller;
 
 import com.speedment.fika.codegen.DependencyManager;
+import com.speedment.fika.codegen.ModelVisitor;
 import com.speedment.fika.codegen.model.File;
 import com.speedment.fika.codegen.model.Type;
-import com.speedment.fika.codegen.model.trait.HasAnnotationUsage;
-import com.speedment.fika.codegen.model.trait.HasClasses;
-import com.speedment.fika.codegen.model.trait.HasConstructors;
-import com.speedment.fika.codegen.model.trait.HasFields;
-import com.speedment.fika.codegen.model.trait.HasGenerics;
-import com.speedment.fika.codegen.model.trait.HasImplements;
-import com.speedment.fika.codegen.model.trait.HasMethods;
-import com.speedment.fika.codegen.model.trait.HasSupertype;
-import com.speedment.fika.codegen.model.trait.HasThrows;
-import com.speedment.fika.codegen.model.trait.HasType;
 import com.speedment.fika.codegen.internal.model.ImportImpl;
 import static com.speedment.fika.codegen.internal.util.Formatting.DOT;
 import java.util.HashMap;
@@ -65,99 +56,43 @@ public final class AutoImports implements Consumer<File> {
      */
 	@Override
 	public void accept(File file) {
-		findTypesIn(requireNonNull(file)).forEach(
-			(s, t) -> file.add(new ImportImpl(t))
-		);
-	}
-	
-    /**
-     * Returns a map with all the types found in the specified model. The model
-     * can be anything, but it will only find types if it inherits from any of
-     * the supported traits.
-     * <p>
-     * The key of the map will be the name of the type.
-     * 
-     * @param model  the model
-     * @return       the types found
-     */
-	private Map<String, Type> findTypesIn(Object model) {
-		final Map<String, Type> map = new HashMap<>();
-		findTypesIn(requireNonNull(model), map);
-		return map;
+        final Map<String, Type> types = new HashMap<>();
+		ModelVisitor.walk(requireNonNull(file), collector(types));
+        addImports(file, types);
 	}
 	
     /**
-     * A recursive method that parses through the model hierarchy of the
-     * specified object and adds all found types to the supplied map. The type
-     * names will be used as keys.
+     * Returns a visitor that adds every type it visits to the supplied map,
+     * using the name of the type as the key. This is used by the 
+     * {@link ControllerPipeline} to collect types in a shared traversal.
      * 
-     * @param model  the model to parse recursively
      * @param types  the map to add the results to
+     * @return       the visitor
      */
-	private void findTypesIn(Object model, Map<String, Type> types) {
-        requireNonNull(model);
+	ModelVisitor collector(Map<String, Type> types) {
         requireNonNull(types);
-
-		if (HasSupertype.class.isAssignableFrom(model.getClass())) {
-			((HasSupertype<?>) model).getSupertype().ifPresent(t -> addType(t, types));
-		}
-		
-		if (HasAnnotationUsage.class.isAssignableFrom(model.getClass())) {
-			((HasAnnotationUsage<?>) model).getAnnotations().forEach(a -> {
-				addType(a.getType(), types);
-			});
-		}
-		
-		if (HasClasses.class.isAssignableFrom(model.getClass())) {
-			((HasClasses<?>) model).getClasses().forEach(c -> {
-				findTypesIn(c, types);
-			});
-		}
-		
-		if (HasConstructors.class.isAssignableFrom(model.getClass())) {
-			((HasConstructors<?>) model).getConstructors().forEach(c -> {
-				findTypesIn(c, types);
-			});
-		}
-		
-		if (HasFields.class.isAssignableFrom(model.getClass())) {
-			((HasFields<?>) model).getFields().forEach(f -> {
-				addType(f.getType(), types);
-				findTypesIn(f, types);
-			});
-		}
-		
-		if (HasGenerics.class.isAssignableFrom(model.getClass())) {
-			((HasGenerics<?>) model).getGenerics().forEach(g -> {
-				g.getUpperBounds().forEach(ub -> {
-					addType(ub, types);
-				});
-			});
-		}
-		
-		if (HasImplements.class.isAssignableFrom(model.getClass())) {
-			((HasImplements<?>) model).getInterfaces().forEach(i -> {
-				addType(i, types);
-			});
-		}
-		
-		if (HasMethods.class.isAssignableFrom(model.getClass())) {
-			((HasMethods<?>) model).getMethods().forEach(m -> {
-				addType(m.getType(), types);
-				findTypesIn(m, types);
-			});
-		}
         
-        if (HasThrows.class.isAssignableFrom(model.getClass())) {
-			((HasThrows<?>) model).getExceptions().forEach(e -> {
-				addType(e, types);
-			});
-		}
-		
-		if (HasType.class.isAssignableFrom(model.getClass())) {
-			addType(((HasType<?>) model).getType(), types);
-		}
+		return new ModelVisitor() {
+            @Override
+            public void visitType(Type type) {
+                addType(type, types);
+            }
+        };
 	}
+    
+    /**
+     * Adds explicit imports for all the types in the specified map to the
+     * specified {@link File}.
+     * 
+     * @param file   the file to add imports in
+     * @param types  the types to import
+     */
+    static void addImports(File file, Map<String, Type> types) {
+        requireNonNull(file);
+		requireNonNull(types).forEach(
+			(s, t) -> file.add(new ImportImpl(t))
+		);
+    }
 	
     /**
      * Add the specified {@link Type} to the supplied map. The key will be 
@@ -179,9 +114,5 @@ public final class AutoImports implements Consumer<File> {
 				types.put(name, type);
 			}
 		}
-        
-        if (!type.getGenerics().isEmpty()) {
-            findTypesIn(type, types);
-        }
 	}
 }
\ No newline at end of file
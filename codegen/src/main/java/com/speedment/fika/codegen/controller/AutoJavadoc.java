@@ -30,6 +30,11 @@ import static com.speedment.fika.codegen.internal.model.constant.DefaultJavadocT
 import static com.speedment.fika.codegen.internal.util.Formatting.SE;
 import static com.speedment.fika.codegen.internal.util.Formatting.SS;
 import static java.util.Objects.requireNonNull;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.HashSet;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.Set;
 import java.util.function.Consumer;
 import static java.util.Objects.requireNonNull;
 
@@ -69,16 +74,56 @@ public final class AutoJavadoc<T extends HasJavadoc<?>> implements Consumer<T> {
      * @param <T>    the type of the model to operate on
      * @param model  the model to add documentation to 
      */
-    @SuppressWarnings("unchecked")
 	private static <T extends HasJavadoc<?>> void createJavadoc(T model) {
+        documentNode(model);
+		
+		if (model instanceof HasConstructors) {
+            // Generate javadoc for each constructor.
+			((HasConstructors<?>) model).getConstructors()
+				.forEach(AutoJavadoc::createJavadoc);
+		}
+
+		if (model instanceof HasMethods) {
+            // Generate javadoc for each method.
+			((HasMethods<?>) model).getMethods()
+				.forEach(AutoJavadoc::createJavadoc);
+		}
         
+        if (model instanceof HasClasses) {
+            // Generate javadoc for each subclass.
+            ((HasClasses<?>) model).getClasses()
+                .forEach(AutoJavadoc::createJavadoc);
+        }
+	}
+    
+    /**
+     * Checks if the specified model already has documentation and if not,
+     * generates it. Children of the model are not visited. This is used by
+     * the {@link ControllerPipeline} that visits every model by itself.
+     * 
+     * @param model  the model to add documentation to 
+     */
+    void document(HasJavadoc<?> model) {
+        documentNode(model);
+    }
+    
+    /**
+     * Checks if the specified model already has documentation and if not,
+     * generates it. Children of the model are not visited.
+     * 
+     * @param model  the model to add documentation to 
+     */
+    private static void documentNode(HasJavadoc<?> model) {
 		final Javadoc doc = requireNonNull(model).getJavadoc().orElse(Javadoc.of(DEFAULT_TEXT));
 		model.set(doc);
+        
+        final Set<Entry<String, Optional<String>>> tags = new HashSet<>();
+        doc.getTags().forEach(t -> tags.add(keyOf(t)));
 
 		if (model instanceof HasGenerics) {
             // Add @param for each type variable.
 			((HasGenerics<?>) model).getGenerics().forEach(g -> 
-				g.getLowerBound().ifPresent(t -> addTag(doc, 
+				g.getLowerBound().ifPresent(t -> addTag(doc, tags, 
 					PARAM.setValue(SS + t + SE)
 				))
 			);
@@ -92,7 +137,7 @@ public final class AutoJavadoc<T extends HasJavadoc<?>> implements Consumer<T> {
 			// Add @param for each parameter.
 			if (model instanceof HasFields) {
 				((HasFields<?>) model).getFields().forEach(f -> 
-					addTag(doc, PARAM.setValue(f.getName()))
+					addTag(doc, tags, PARAM.setValue(f.getName()))
 				);
 			}
 		}
@@ -100,60 +145,36 @@ public final class AutoJavadoc<T extends HasJavadoc<?>> implements Consumer<T> {
 		if (model instanceof Method) {
             if (!"void".equals(((Method) model).getType().getName())) {
                 // Add @return to methods.
-                addTag(doc, RETURN);
+                addTag(doc, tags, RETURN);
             }
 		}
-		
-		if (model instanceof HasConstructors) {
-            // Generate javadoc for each constructor.
-			((HasConstructors<?>) model).getConstructors()
-				.forEach(AutoJavadoc::createJavadoc);
-		}
-
-		if (model instanceof HasMethods) {
-            // Generate javadoc for each method.
-			((HasMethods<?>) model).getMethods()
-				.forEach(AutoJavadoc::createJavadoc);
-		}
-        
-        if (model instanceof HasClasses) {
-            // Generate javadoc for each subclass.
-            ((HasClasses<?>) model).getClasses()
-                .forEach(AutoJavadoc::createJavadoc);
-        }
 	}
 	
     /**
-     * Add a javadoc tag to the specified documentation block. If the tag is
-     * already defined, this will have no effect.
+     * Add a javadoc tag to the specified documentation block. If a tag with
+     * the same name and value is already in the supplied set of keys, this 
+     * will have no effect.
      * 
-     * @param doc  the documentation block
-     * @param tag  the tag to add
+     * @param doc   the documentation block
+     * @param tags  the keys of the tags already in the block
+     * @param tag   the tag to add
      */
-	private static void addTag(Javadoc doc, JavadocTag tag) {
-		if (!hasTagAlready(
-            requireNonNull(doc), 
-            requireNonNull(tag)
-        )) {
-			doc.add(tag);
+	private static void addTag(Javadoc doc, 
+        Set<Entry<String, Optional<String>>> tags, JavadocTag tag) {
+        
+		if (tags.add(keyOf(requireNonNull(tag)))) {
+			requireNonNull(doc).add(tag);
 		}
 	}
 	
     /**
-     * Checks if the specified tag is already defined in the supplied
-     * documentation block. 
+     * Returns a key that identifies the specified tag by its name and value.
+     * Two tags with equal keys are considered duplicates.
      * 
-     * @param doc  the documentation block
-     * @param tag  the tag to check
-     * @return     <code>true</code> if it exists, else <code>false</code>
+     * @param tag  the tag
+     * @return     the key
      */
-	private static boolean hasTagAlready(Javadoc doc, JavadocTag tag) {
-        requireNonNull(doc);
-        requireNonNull(tag);
-        
-		return doc.getTags().stream().anyMatch(t -> 
-			tag.getName().equals(t.getName())
-			&& tag.getValue().equals(t.getValue())
-		);
+	private static Entry<String, Optional<String>> keyOf(JavadocTag tag) {
+        return new SimpleImmutableEntry<>(tag.getName(), tag.getValue());
 	}
-}
+}
\ No newline at end of file
@@ -0,0 +1,232 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.codegen.controller;
+
+import com.speedment.fika.codegen.ModelVisitor;
+import com.speedment.fika.codegen.model.ClassOrInterface;
+import com.speedment.fika.codegen.model.Constructor;
+import com.speedment.fika.codegen.model.Field;
+import com.speedment.fika.codegen.model.File;
+import com.speedment.fika.codegen.model.Method;
+import com.speedment.fika.codegen.model.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.function.Consumer;
+
+/**
+ * A control that runs a number of other controls on a {@link File} using a 
+ * single traversal of the model hierarchy. Controls are registered for a 
+ * particular type of model and will be invoked for every model of that type
+ * that is found in the file, in the order they were added.
+ * <p>
+ * Models are visited top-down. A control may therefore add new children to 
+ * the model it is invoked on, and the new children will be visited as well.
+ * The {@link AutoImports} control is always applied last so that types in 
+ * generated code are imported too.
+ * <p>
+ * This class is not thread safe. A pipeline should not be shared between 
+ * threads.
+ * <p>
+ * Example:
+ * <pre>
+ *     new ControllerPipeline()
+ *         .on(Class.class, new SetGetAdd())
+ *         .on(Class.class, new AutoEquals&lt;&gt;(file))
+ *         .add(new AutoJavadoc&lt;&gt;())
+ *         .add(new AutoImports(mgr))
+ *         .accept(file);
+ * </pre>
+ * 
+ * @author Emil Forslund
+ * @since  2.4
+ */
+public final class ControllerPipeline implements Consumer<File> {
+    
+    private final List<Controller> controllers;
+    private final List<AutoImports> importers;
+    private final Map<java.lang.Class<?>, List<Consumer<Object>>> dispatch;
+    
+    /**
+     * Initializes an empty <code>ControllerPipeline</code>.
+     */
+    public ControllerPipeline() {
+        this.controllers = new ArrayList<>();
+        this.importers   = new ArrayList<>();
+        this.dispatch    = new HashMap<>();
+    }
+    
+    /**
+     * Adds a control that should be invoked for every model of the specified
+     * type. Files, classes, constructors, methods, fields and types can be
+     * targeted.
+     * 
+     * @param <T>         the model type
+     * @param type        the model type
+     * @param controller  the control to invoke
+     * @return            a reference to this
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ControllerPipeline on(java.lang.Class<T> type, Consumer<? super T> controller) {
+        controllers.add(new Controller(
+            requireNonNull(type), 
+            (Consumer<Object>) requireNonNull(controller)
+        ));
+        
+        dispatch.clear();
+        return this;
+    }
+    
+    /**
+     * Adds the specified {@link AutoJavadoc} control to this pipeline. 
+     * Documentation will be generated for the file and for every class,
+     * constructor and method in it.
+     * 
+     * @param controller  the control to add
+     * @return            a reference to this
+     */
+    public ControllerPipeline add(AutoJavadoc<?> controller) {
+        requireNonNull(controller);
+        return on(File.class,             controller::document)
+            .on(ClassOrInterface.class,   controller::document)
+            .on(Constructor.class,        controller::document)
+            .on(Method.class,             controller::document);
+    }
+    
+    /**
+     * Adds the specified {@link AutoImports} control to this pipeline. Types
+     * will be collected during the traversal and imported once every other 
+     * control has been applied.
+     * 
+     * @param controller  the control to add
+     * @return            a reference to this
+     */
+    public ControllerPipeline add(AutoImports controller) {
+        importers.add(requireNonNull(controller));
+        return this;
+    }
+    
+    /**
+     * Applies all the controls in this pipeline to the specified file.
+     * 
+     * @param file  the file to apply them to
+     */
+    @Override
+    public void accept(File file) {
+        requireNonNull(file);
+        
+        final List<Map<String, Type>> types = new ArrayList<>(importers.size());
+        final List<ModelVisitor> collectors = new ArrayList<>(importers.size());
+        
+        for (final AutoImports importer : importers) {
+            final Map<String, Type> map = new HashMap<>();
+            types.add(map);
+            collectors.add(importer.collector(map));
+        }
+        
+        ModelVisitor.walk(file, new ModelVisitor() {
+            @Override
+            public void visitFile(File file) {
+                invoke(file);
+            }
+
+            @Override
+            public void visitClass(ClassOrInterface<?> model) {
+                invoke(model);
+            }
+
+            @Override
+            public void visitConstructor(Constructor constructor) {
+                invoke(constructor);
+            }
+
+            @Override
+            public void visitMethod(Method method) {
+                invoke(method);
+            }
+
+            @Override
+            public void visitField(Field field) {
+                invoke(field);
+            }
+
+            @Override
+            public void visitType(Type type) {
+                invoke(type);
+                for (int i = 0; i < collectors.size(); i++) {
+                    collectors.get(i).visitType(type);
+                }
+            }
+        });
+        
+        for (final Map<String, Type> map : types) {
+            AutoImports.addImports(file, map);
+        }
+    }
+    
+    /**
+     * Invokes every control that targets the class of the specified model.
+     * 
+     * @param model  the model to invoke the controls on
+     */
+    private void invoke(Object model) {
+        final List<Consumer<Object>> matching = controllersFor(model.getClass());
+        for (int i = 0; i < matching.size(); i++) {
+            matching.get(i).accept(model);
+        }
+    }
+    
+    /**
+     * Returns the controls that target the specified model class, in the 
+     * order they were added. The result is cached for each class.
+     * 
+     * @param modelClass  the class of the model
+     * @return            the controls to invoke
+     */
+    private List<Consumer<Object>> controllersFor(java.lang.Class<?> modelClass) {
+        final List<Consumer<Object>> cached = dispatch.get(modelClass);
+        if (cached != null) {
+            return cached;
+        }
+        
+        final List<Consumer<Object>> matching = new ArrayList<>();
+        for (final Controller controller : controllers) {
+            if (controller.type.isAssignableFrom(modelClass)) {
+                matching.add(controller.action);
+            }
+        }
+        
+        dispatch.put(modelClass, matching);
+        return matching;
+    }
+    
+    /**
+     * A control together with the type of models it targets.
+     */
+    private final static class Controller {
+        
+        private final java.lang.Class<?> type;
+        private final Consumer<Object> action;
+
+        private Controller(java.lang.Class<?> type, Consumer<Object> action) {
+            this.type   = type;
+            this.action = action;
+        }
+    }
+}
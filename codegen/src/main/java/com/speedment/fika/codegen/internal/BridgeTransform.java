@@ -21,9 +21,11 @@ import com.speedment.fika.codegen.Meta;
 import com.speedment.fika.codegen.Transform;
 import com.speedment.fika.codegen.TransformFactory;
 import java.util.ArrayList;
+import static java.util.Collections.unmodifiableList;
 import java.util.List;
 import static java.util.Objects.requireNonNull;
 import java.util.Optional;
+import static java.util.stream.Collectors.toList;
 import java.util.stream.Stream;
 
 /**
@@ -124,6 +126,10 @@ public class BridgeTransform<A, B> implements Transform<A, B> {
     /**
      * Creates a bridge from one model type to another. A factory is supplied so
      * that intermediate steps can be resolved.
+     * <p>
+     * If the factory implements {@link HasRouteCache}, the resolved paths are
+     * stored in the cache of the factory so that the graph only has to be
+     * searched the first time a particular pair of classes is requested.
      * 
      * @param <A>     the initial type of a model to transform
      * @param <B>     the final type of a model after transformation
@@ -133,7 +139,36 @@ public class BridgeTransform<A, B> implements Transform<A, B> {
      * @param to      the final class of a model after transformation
      * @return        a <code>Stream</code> of all unique paths between A and B
      */
+    @SuppressWarnings("unchecked")
     public static <A, B, T extends Transform<A, B>> Stream<T> create(TransformFactory factory, Class<A> from, Class<B> to) {
+        requireNonNull(factory);
+        requireNonNull(from);
+        requireNonNull(to);
+        
+        if (factory instanceof HasRouteCache) {
+            return ((HasRouteCache) factory).getRouteCache()
+                .get(from, to, () -> unmodifiableList(
+                    resolve(factory, from, to).collect(toList())
+                )).stream()
+                .map(t -> (T) t);
+        } else {
+            return resolve(factory, from, to);
+        }
+    }
+    
+    /**
+     * Searches the transform graph of the specified factory for all paths
+     * from one model type to another without consulting any cache.
+     * 
+     * @param <A>     the initial type of a model to transform
+     * @param <B>     the final type of a model after transformation
+     * @param <T>     the type of a transform between A and B
+     * @param factory a factory with all intermediate steps installed
+     * @param from    the initial class of a model to transform
+     * @param to      the final class of a model after transformation
+     * @return        a <code>Stream</code> of all unique paths between A and B
+     */
+    private static <A, B, T extends Transform<A, B>> Stream<T> resolve(TransformFactory factory, Class<A> from, Class<B> to) {
         return create(factory, new BridgeTransform<>(from, to, factory));
     }
     
@@ -181,6 +216,16 @@ public class BridgeTransform<A, B> implements Transform<A, B> {
         }
     }
 
+    /**
+     * Returns an unmodifiable view of the transforms that this bridge consists
+     * of in the order they are applied.
+     * 
+     * @return  the steps of the bridge
+     */
+    public List<Transform<?, ?>> getSteps() {
+        return unmodifiableList(steps);
+    }
+
     /**
      * Returns true if this transform is or contains the specified 
      * transformer. This is used internally by the code generator to avoid 
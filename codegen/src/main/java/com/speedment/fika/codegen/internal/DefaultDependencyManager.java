@@ -17,16 +17,12 @@
 package com.speedment.fika.codegen.internal;
 
 import com.speedment.fika.codegen.DependencyManager;
-import java.util.Collections;
-import static java.util.Collections.emptySet;
 import java.util.HashSet;
+import java.util.List;
 import static java.util.Objects.requireNonNull;
 import java.util.Optional;
 import java.util.Set;
 import java.util.regex.Pattern;
-import static java.util.stream.Collectors.collectingAndThen;
-import static java.util.stream.Collectors.toSet;
-import java.util.stream.Stream;
 
 /**
  * Default implementation of the {@link DependencyManager} interface.
@@ -36,14 +32,15 @@ import java.util.stream.Stream;
 public class DefaultDependencyManager implements DependencyManager {
 
     private final Set<String> dependencies = new HashSet<>();
-    private final Set<Pattern> ignorePatterns;
+    private final IgnoreMatcher ignored;
     private String currentPackage;
+    private long modifications;
 
     /**
      * Initializes the DependencyManager.
      */
     public DefaultDependencyManager() {
-        ignorePatterns = emptySet();
+        ignored = new IgnoreMatcher();
     }
 
     /**
@@ -52,13 +49,25 @@ public class DefaultDependencyManager implements DependencyManager {
      * @param ignoredPatterns to add to the ignore list
      */
     public DefaultDependencyManager(Pattern... ignoredPatterns) {
-        ignorePatterns = Stream.of(ignoredPatterns)
-            .collect(collectingAndThen(toSet(), Collections::unmodifiableSet));
+        ignored = new IgnoreMatcher(ignoredPatterns);
+    }
+
+    /**
+     * Initializes the DependencyManager with an already compiled ignore 
+     * matcher. This is used when forking.
+     * 
+     * @param ignored  the matcher to share
+     */
+    private DefaultDependencyManager(IgnoreMatcher ignored) {
+        this.ignored = requireNonNull(ignored);
     }
 
     @Override
     public boolean load(String fullname) {
-        return dependencies.add(requireNonNull(fullname));
+        if (dependencies.add(requireNonNull(fullname))) {
+            modifications++;
+            return true;
+        } else return false;
     }
 
     @Override
@@ -68,20 +77,22 @@ public class DefaultDependencyManager implements DependencyManager {
 
     @Override
     public void clearDependencies() {
-        dependencies.clear();
+        if (!dependencies.isEmpty()) {
+            dependencies.clear();
+            modifications++;
+        }
     }
 
     @Override
     public boolean isIgnored(String fullname) {
-        return  ignorePatterns.stream()
-            .map(Pattern::asPredicate)
-            .anyMatch(p -> p.test(requireNonNull(fullname)));
+        return ignored.test(requireNonNull(fullname));
     }
 
     @Override
     public boolean setCurrentPackage(String pack) {
         if (currentPackage == null) {
             currentPackage = requireNonNull(pack);
+            modifications++;
             return true;
         } else return false;
     }
@@ -91,6 +102,7 @@ public class DefaultDependencyManager implements DependencyManager {
         if (currentPackage != null 
         &&  currentPackage.equals(requireNonNull(pack))) {
             currentPackage = null;
+            modifications++;
             return true;
         } else return false;
     }
@@ -99,4 +111,31 @@ public class DefaultDependencyManager implements DependencyManager {
     public Optional<String> getCurrentPackage() {
         return Optional.ofNullable(currentPackage);
     }
-}
\ No newline at end of file
+
+    @Override
+    public long getModificationCount() {
+        return modifications;
+    }
+    
+    /**
+     * Returns the patterns that this manager was created with, without any
+     * duplicates.
+     * 
+     * @return  the ignored patterns
+     * @since   2.4
+     */
+    public List<Pattern> getIgnoredPatterns() {
+        return ignored.getPatterns();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The ignore matcher is thread safe and is therefore shared with the new
+     * instance.
+     */
+    @Override
+    public DependencyManager fork() {
+        return new DefaultDependencyManager(ignored);
+    }
+}
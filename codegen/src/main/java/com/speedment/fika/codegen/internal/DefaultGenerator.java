@@ -19,11 +19,16 @@ package com.speedment.fika.codegen.internal;
 import com.speedment.fika.codegen.DependencyManager;
 import com.speedment.fika.codegen.Generator;
 import com.speedment.fika.codegen.Meta;
+import com.speedment.fika.codegen.RenderSink;
 import com.speedment.fika.codegen.RenderStack;
+import com.speedment.fika.codegen.StreamingTransform;
 import com.speedment.fika.codegen.Transform;
 import com.speedment.fika.codegen.TransformFactory;
+import com.speedment.fika.codegen.internal.util.CacheStats;
 import static com.speedment.fika.codegen.internal.util.NullUtil.requireNonNullElements;
 import java.util.Arrays;
+import static java.util.Collections.unmodifiableList;
+import java.util.Iterator;
 import java.util.List;
 import static java.util.Objects.requireNonNull;
 import java.util.Optional;
@@ -39,7 +44,8 @@ public class DefaultGenerator implements Generator {
     
 	private final DependencyManager mgr;
 	private final List<TransformFactory> factories;
-	private final DefaultRenderStack renderStack;
+	private LinkedRenderStack renderStack;
+	private RenderMemo memo;
 	
 	/**
 	 * Creates a new generator. This constructor will use a 
@@ -59,9 +65,25 @@ public class DefaultGenerator implements Generator {
 	 * @param factories  the factories to use 
 	 */
 	public DefaultGenerator(DependencyManager mgr, TransformFactory... factories) {
-		this.factories = Arrays.asList(requireNonNullElements(factories));
+		this.factories = unmodifiableList(Arrays.asList(requireNonNullElements(factories).clone()));
 		this.mgr = requireNonNull(mgr);
-		this.renderStack = new DefaultRenderStack();
+		this.renderStack = LinkedRenderStack.empty();
+	}
+	
+	/**
+	 * Creates a new generator with the same factories as the specified one,
+     * but with a new render stack and the specified dependency manager.
+     * <p>
+     * This is used when a generator is forked.
+     * 
+	 * @param prototype  the generator to share factories with
+	 * @param mgr        the dependency manager to use
+	 */
+	protected DefaultGenerator(DefaultGenerator prototype, DependencyManager mgr) {
+		this.factories   = requireNonNull(prototype).factories;
+		this.mgr         = requireNonNull(mgr);
+		this.renderStack = LinkedRenderStack.empty();
+		this.memo        = prototype.memo == null ? null : new RenderMemo();
 	}
 	
 	/**
@@ -74,11 +96,85 @@ public class DefaultGenerator implements Generator {
 	
 	/**
 	 * {@inheritDoc}
+     * <p>
+     * The returned stack is an immutable snapshot of the current state. It
+     * will not change as more elements are rendered.
 	 */
 	@Override
 	public RenderStack getRenderStack() {
 		return renderStack;
 	}
+	
+    /**
+     * Sets whether the results of transforming immutable models, like enum
+     * constants and {@link com.speedment.fika.codegen.model.Type#intern(
+     * com.speedment.fika.codegen.model.Type) interned types}, should be 
+     * memoized. Such models are then only rendered once for every state of
+     * the dependency manager, which typically means once per file. This
+     * requires a dependency manager that reports its 
+     * {@link DependencyManager#getModificationCount() modification count}.
+     * <p>
+     * Memoization is disabled by default. Forks of this generator will 
+     * inherit the setting but not the memoized results.
+     * 
+     * @param enabled  <code>true</code> to enable memoization
+     * @return         a reference to this
+     */
+    public DefaultGenerator setMemoEnabled(boolean enabled) {
+        if (enabled) {
+            if (memo == null) {
+                memo = new RenderMemo();
+            }
+        } else {
+            memo = null;
+        }
+        
+        return this;
+    }
+    
+    /**
+     * Returns <code>true</code> if transform results of immutable models are
+     * memoized by this generator.
+     * 
+     * @return  <code>true</code> if memoization is enabled
+     * @see     #setMemoEnabled(boolean)
+     */
+    public boolean isMemoEnabled() {
+        return memo != null;
+    }
+    
+    /**
+     * Returns the statistics of the memo table. If memoization is disabled,
+     * the statistics will be empty.
+     * 
+     * @return  the memo statistics
+     * @see     #setMemoEnabled(boolean)
+     */
+    public CacheStats getMemoStats() {
+        return memo == null ? new CacheStats(0, 0, 0) : memo.getStats();
+    }
+    
+	/**
+	 * Returns the factories used by this generator, in the order they are 
+     * searched for transforms.
+     * 
+	 * @return  unmodifiable list of factories
+	 */
+	public List<TransformFactory> getTransformFactories() {
+		return factories;
+	}
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The installed factories are shared with the new generator. Subclasses
+     * that keep additional state should override this method to return an 
+     * instance of their own type.
+     */
+    @Override
+    public DefaultGenerator fork() {
+        return new DefaultGenerator(this, mgr.fork());
+    }
 
     /**
      * {@inheritDoc}
@@ -104,6 +200,56 @@ public class DefaultGenerator implements Generator {
         );
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If the model is rendered by a single {@link StreamingTransform}, it
+     * will be invoked directly with the specified sink. Otherwise the 
+     * resulting string is written to the sink.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean render(Object model, RenderSink sink) {
+        requireNonNull(model);
+        requireNonNull(sink);
+        
+        if (model instanceof Optional) {
+            final Optional<?> result = (Optional<?>) model;
+            if (result.isPresent()) {
+                model = result.get();
+            } else {
+                return false;
+            }
+        }
+        
+        final Class<Object> from = (Class<Object>) model.getClass();
+        
+        for (final TransformFactory factory : factories) {
+            final Iterator<Transform<Object, String>> it = 
+                BridgeTransform.create(factory, from, String.class).iterator();
+            
+            while (it.hasNext()) {
+                final Transform<Object, String> transform = it.next();
+                final StreamingTransform<Object> streaming = streaming(transform);
+                
+                if (streaming != null) {
+                    render(streaming, model, sink);
+                    return true;
+                } else {
+                    final Optional<Meta<Object, String>> meta = 
+                        transform(transform, model, factory);
+                    
+                    if (meta.isPresent()) {
+                        sink.write(meta.get().getResult());
+                        return true;
+                    }
+                }
+            }
+        }
+        
+        return false;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -113,20 +259,96 @@ public class DefaultGenerator implements Generator {
         requireNonNull(model);
         requireNonNull(factory);
 
-        renderStack.push(model);
-
-        final Optional<Meta<A, B>> meta = transform
-            .transform(this, model)
-            .map(s -> new MetaImpl<A, B>()
+        final LinkedRenderStack stack = renderStack.push(model);
+        final Optional<B> result;
+        
+        if (memo != null && RenderMemo.isMemoizable(model)) {
+            final Optional<B> cached = memo.get(mgr, transform, model);
+            
+            if (cached == null) {
+                result = apply(transform, model, stack);
+                memo.put(mgr, transform, model, result);
+            } else {
+                result = cached;
+            }
+        } else {
+            result = apply(transform, model, stack);
+        }
+        
+        return result.map(s -> new MetaImpl<A, B>()
             .setModel(model)
             .setResult(s)
             .setTransform(transform)
             .setFactory(factory)
-            .setRenderStack(new DefaultRenderStack(renderStack))
+            .setRenderStack(stack)
         );
+    }
+    
+    /**
+     * Invokes the specified streaming transform on the model with the model
+     * pushed to the render stack. This is called by 
+     * {@link #render(java.lang.Object, RenderSink)} when the model is 
+     * rendered by a single streaming transform.
+     * 
+     * @param <A>        the model type
+     * @param transform  the transform to invoke
+     * @param model      the model
+     * @param sink       the sink to render into
+     */
+    protected <A> void render(StreamingTransform<A> transform, A model, RenderSink sink) {
+        final LinkedRenderStack parent = renderStack;
+        renderStack = parent.push(model);
+
+        try {
+            transform.render(this, model, sink);
+        } finally {
+            renderStack = parent;
+        }
+    }
+    
+    /**
+     * Invokes the specified transform on the model with the specified stack
+     * as the current render stack.
+     * 
+     * @param <A>        the model type
+     * @param <B>        the result type
+     * @param transform  the transform to invoke
+     * @param model      the model
+     * @param stack      the render stack with the model on top
+     * @return           the result of the transform
+     */
+    private <A, B> Optional<B> apply(Transform<A, B> transform, A model, LinkedRenderStack stack) {
+        final LinkedRenderStack parent = renderStack;
+        renderStack = stack;
+
+        try {
+            return transform.transform(this, model);
+        } finally {
+            renderStack = parent;
+        }
+    }
+    
+    /**
+     * Returns the {@link StreamingTransform} that the specified transform
+     * consists of, or <code>null</code> if it is not a single streaming step.
+     * 
+     * @param <A>        the model type
+     * @param transform  the transform
+     * @return           the streaming transform or <code>null</code>
+     */
+    @SuppressWarnings("unchecked")
+    private static <A> StreamingTransform<A> streaming(Transform<A, String> transform) {
+        if (transform instanceof StreamingTransform) {
+            return (StreamingTransform<A>) transform;
+        } else if (transform instanceof BridgeTransform) {
+            final List<Transform<?, ?>> steps = 
+                ((BridgeTransform<A, String>) transform).getSteps();
+            
+            if (steps.size() == 1 && steps.get(0) instanceof StreamingTransform) {
+                return (StreamingTransform<A>) steps.get(0);
+            }
+        }
         
-        renderStack.pop();
-        
-        return meta;
+        return null;
     }
 }
\ No newline at end of file
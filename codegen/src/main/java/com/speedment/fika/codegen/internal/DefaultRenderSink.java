@@ -0,0 +1,194 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.codegen.internal;
+
+import com.speedment.fika.codegen.RenderSink;
+import com.speedment.fika.codegen.internal.util.Formatting;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The default {@link RenderSink} implementation. New-line sequences 
+ * (<code>\n</code> and <code>\r\n</code>) written while the sink is indented
+ * are replaced by {@link Formatting#nl()} followed by one 
+ * {@link Formatting#tab()} for every level of indentation. This gives the 
+ * same result as calling {@link Formatting#indent(String)} once for every 
+ * level, but without copying the text.
+ * <p>
+ * If the sink is created with {@link ProtectedRegions}, the rows of those 
+ * regions are returned by {@link #takeRegion(String)}.
+ * 
+ * @author Emil Forslund
+ */
+public final class DefaultRenderSink implements RenderSink {
+    
+    private final Appendable out;
+    private final ProtectedRegions regions;
+    private Set<String> taken;
+    private int level;
+    
+    /**
+     * Constructs the sink.
+     * 
+     * @param out  the appendable to write to
+     */
+    public DefaultRenderSink(Appendable out) {
+        this(out, ProtectedRegions.empty());
+    }
+    
+    /**
+     * Constructs the sink with the protected regions of a previously 
+     * generated file.
+     * 
+     * @param out      the appendable to write to
+     * @param regions  the protected regions
+     */
+    public DefaultRenderSink(Appendable out, ProtectedRegions regions) {
+        this.out     = requireNonNull(out);
+        this.regions = requireNonNull(regions);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public RenderSink write(CharSequence text) {
+        requireNonNull(text);
+        
+        try {
+            if (level == 0) {
+                out.append(text);
+            } else {
+                final int length = text.length();
+                int start = 0;
+                
+                for (int i = 0; i < length; i++) {
+                    if (text.charAt(i) == '\n') {
+                        final int end = (i > start && text.charAt(i - 1) == '\r')
+                            ? i - 1 : i;
+                        
+                        out.append(text, start, end);
+                        newLine();
+                        start = i + 1;
+                    }
+                }
+                
+                if (start < length) {
+                    out.append(text, start, length);
+                }
+            }
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public RenderSink indent() {
+        level++;
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public RenderSink outdent() {
+        if (level == 0) {
+            throw new IllegalStateException(
+                "Can not outdent a sink that is not indented."
+            );
+        }
+        
+        level--;
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getIndentation() {
+        return level;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<List<String>> takeRegion(String name) {
+        final Optional<List<String>> rows = regions.get(name);
+        
+        if (rows.isPresent()) {
+            if (taken == null) {
+                taken = new HashSet<>();
+            }
+            
+            if (!taken.add(name)) {
+                return Optional.empty();
+            }
+        }
+        
+        return rows;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, List<String>> getRemainingRegions() {
+        if (regions.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        
+        final Map<String, List<String>> remaining = new LinkedHashMap<>();
+        
+        for (final String name : regions.getNames()) {
+            if (taken == null || !taken.contains(name)) {
+                remaining.put(name, regions.get(name).get());
+            }
+        }
+        
+        return remaining;
+    }
+    
+    /**
+     * Appends a new-line character followed by the current indentation.
+     * 
+     * @throws IOException  if the underlying appendable failed
+     */
+    private void newLine() throws IOException {
+        out.append(Formatting.nl());
+        
+        final String tab = Formatting.tab();
+        for (int i = 0; i < level; i++) {
+            out.append(tab);
+        }
+    }
+}
@@ -19,21 +19,31 @@ package com.speedment.fika.codegen.internal;
 import com.speedment.fika.codegen.Transform;
 import com.speedment.fika.codegen.TransformFactory;
 import java.util.AbstractMap;
-import java.util.HashSet;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.unmodifiableSet;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import static java.util.Objects.requireNonNull;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import static java.util.stream.Collectors.toSet;
 
 /**
  * The default implementation of the {@link TransformFactory} interface.
+ * <p>
+ * Transforms installed by class are instantiated once when they are installed
+ * and that instance is then shared by every lookup. The result of 
+ * {@link #allFrom(java.lang.Class)} is computed once per concrete model class
+ * by walking the supertypes and interfaces of that class, and is then stored
+ * in a {@link ClassValue} until another transform is installed. Lookups are
+ * therefore independent of the number of installed transforms.
  *
  * @author Emil Forslund
  */
-public class DefaultTransformFactory implements TransformFactory {
+public class DefaultTransformFactory implements TransformFactory, HasRouteCache {
 
-    private final Map<Class<?>, Set<Map.Entry<Class<?>, Class<? extends Transform<?, ?>>>>> transforms;
+    private final Map<Class<?>, Set<Map.Entry<Class<?>, Transform<?, ?>>>> transforms;
+    private volatile ClassValue<Set<Map.Entry<Class<?>, Transform<?, ?>>>> index;
+    private final RouteCache routes;
     private final String name;
 
     /**
@@ -42,8 +52,10 @@ public class DefaultTransformFactory implements TransformFactory {
      * @param name the unique name to use
      */
     public DefaultTransformFactory(String name) {
-        this.name = requireNonNull(name);
+        this.name       = requireNonNull(name);
         this.transforms = new ConcurrentHashMap<>();
+        this.index      = newIndex();
+        this.routes     = new RouteCache();
     }
 
     /**
@@ -58,14 +70,52 @@ public class DefaultTransformFactory implements TransformFactory {
      * {@inheritDoc}
      */
     @Override
-    public <A, B, T extends Transform<A, B>> TransformFactory install(Class<A> from, Class<B> to, Class<T> transform) {
+    public synchronized <A, B, T extends Transform<A, B>> TransformFactory install(Class<A> from, Class<B> to, Class<T> transform) {
         requireNonNull(from);
         requireNonNull(to);
         requireNonNull(transform);
+        
+        final boolean installed = transforms.getOrDefault(from, emptySet())
+            .stream().anyMatch(e -> 
+                e.getKey().equals(to) && 
+                e.getValue().getClass().equals(transform)
+            );
+        
+        if (!installed) {
+            final T instance = TransformFactory.create(transform);
+            
+            if (instance == null) {
+                throw new IllegalArgumentException(
+                    "The transform '" + transform.getName() + 
+                    "' could not be instantiated."
+                );
+            }
+            
+            install(from, to, instance);
+        }
 
-        transforms.computeIfAbsent(from, f -> new HashSet<>())
-            .add(new AbstractMap.SimpleEntry<>(to, transform));
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized <A, B> TransformFactory install(Class<A> from, Class<B> to, Transform<A, B> transform) {
+        requireNonNull(from);
+        requireNonNull(to);
+        requireNonNull(transform);
 
+        // The sets are replaced rather than modified so that threads reading 
+        // from the factory never see a set while it is being changed.
+        final Set<Map.Entry<Class<?>, Transform<?, ?>>> entries = 
+            new LinkedHashSet<>(transforms.getOrDefault(from, emptySet()));
+        
+        entries.add(new AbstractMap.SimpleImmutableEntry<>(to, transform));
+        transforms.put(from, unmodifiableSet(entries));
+        
+        index = newIndex();
+        routes.invalidate();
         return this;
     }
 
@@ -76,16 +126,84 @@ public class DefaultTransformFactory implements TransformFactory {
     @SuppressWarnings("unchecked")
     public <A, T extends Transform<A, ?>> Set<Map.Entry<Class<?>, T>> allFrom(Class<A> model) {
         requireNonNull(model);
+        
+        final Set<?> result = index.get(model);
+        return (Set<Map.Entry<Class<?>, T>>) result;
+    }
 
-        return transforms.entrySet().stream()
-            .filter(e -> e.getKey().isAssignableFrom(model))
-            .flatMap(e -> e.getValue().stream())
-            .map(e -> toEntry(e.getKey(), (T) TransformFactory.create(e.getValue())))
-            .collect(toSet());
-
+    /**
+     * Returns an immutable snapshot of this factory with the same name and
+     * all the transforms that are currently installed. The snapshot can be 
+     * read by any number of threads without locking and is not affected by
+     * transforms installed in this factory later.
+     * 
+     * @return  the immutable snapshot
+     * @since   2.4
+     */
+    public synchronized FrozenTransformFactory freeze() {
+        return new FrozenTransformFactory(name, transforms);
     }
 
-    private static <A, T extends Transform<A, ?>> Map.Entry<Class<?>, T> toEntry(Class<?> key, T value) {
-        return new AbstractMap.SimpleEntry<>(key, value);
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public RouteCache getRouteCache() {
+        return routes;
+    }
+    
+    /**
+     * Creates a new, empty dispatch index for the transforms currently
+     * installed in this factory.
+     * 
+     * @return  the new index
+     */
+    private ClassValue<Set<Map.Entry<Class<?>, Transform<?, ?>>>> newIndex() {
+        return new ClassValue<Set<Map.Entry<Class<?>, Transform<?, ?>>>>() {
+            @Override
+            protected Set<Map.Entry<Class<?>, Transform<?, ?>>> computeValue(Class<?> model) {
+                return collect(model);
+            }
+        };
+    }
+    
+    /**
+     * Collects all the installed transforms that can be applied to the 
+     * specified model class into an immutable set. Only the supertypes and
+     * interfaces of the class are looked up.
+     * 
+     * @param model  the model class
+     * @return       all matching transforms
+     */
+    private Set<Map.Entry<Class<?>, Transform<?, ?>>> collect(Class<?> model) {
+        final Set<Class<?>> hierarchy = new LinkedHashSet<>();
+        addHierarchy(model, hierarchy);
+        
+        final Set<Map.Entry<Class<?>, Transform<?, ?>>> result = new LinkedHashSet<>();
+        for (final Class<?> type : hierarchy) {
+            final Set<Map.Entry<Class<?>, Transform<?, ?>>> entries = transforms.get(type);
+            if (entries != null) {
+                result.addAll(entries);
+            }
+        }
+        
+        return unmodifiableSet(result);
+    }
+    
+    /**
+     * Adds the specified class and all its supertypes and interfaces to the
+     * specified set.
+     * 
+     * @param type       the class to start with
+     * @param hierarchy  the set to add the classes to
+     */
+    static void addHierarchy(Class<?> type, Set<Class<?>> hierarchy) {
+        if (type != null && hierarchy.add(type)) {
+            for (final Class<?> inter : type.getInterfaces()) {
+                addHierarchy(inter, hierarchy);
+            }
+            
+            addHierarchy(type.getSuperclass(), hierarchy);
+        }
     }
 }
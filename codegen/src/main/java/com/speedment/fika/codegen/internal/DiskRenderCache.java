@@ -0,0 +1,236 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.codegen.internal;
+
+import com.speedment.fika.codegen.DependencyManager;
+import com.speedment.fika.codegen.Generator;
+import com.speedment.fika.codegen.TransformFactory;
+import com.speedment.fika.codegen.internal.util.CacheStats;
+import com.speedment.fika.codegen.internal.util.Formatting;
+import com.speedment.fika.codegen.internal.util.ModelFingerprint;
+import com.speedment.fika.codegen.internal.util.TempFiles;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import static java.util.Objects.requireNonNull;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * A persistent render cache that stores generated code on disk. Entries are
+ * keyed by the {@link ModelFingerprint} of the model together with the 
+ * identity of the generator, meaning the type of the generator, the name and
+ * type of every installed {@link TransformFactory}, the ignored patterns of
+ * the {@link DefaultDependencyManager} and the current {@link Formatting} 
+ * settings. Models that have not changed since a previous
+ * run are served from the cache without being rendered.
+ * <p>
+ * If transforms are installed or changed without changing the name of the
+ * factory, or if a custom {@link DependencyManager} is configured 
+ * differently, the cache directory should be cleared using {@link #clear()}.
+ * <p>
+ * This class is thread safe and can be used together with
+ * {@link Generator#onAll(java.util.Collection, java.util.concurrent.Executor)}.
+ *
+ * @author Emil Forslund
+ * @since  2.4
+ */
+public final class DiskRenderCache {
+    
+    /**
+     * Part of every key. This should be increased whenever the code rendered
+     * by the built-in views or the way keys are computed changes, so that 
+     * entries written by an older version are never returned.
+     */
+    private final static int VERSION = 2;
+    private final static String SUFFIX = ".cache";
+    private final static Logger LOGGER = 
+        Logger.getLogger(DiskRenderCache.class.getName());
+    
+    private final Path directory;
+    private final LongAdder hits, misses;
+    
+    /**
+     * Creates a cache that stores its entries in the specified directory. The
+     * directory will be created if it does not exist.
+     * 
+     * @param directory  the cache directory
+     * 
+     * @throws UncheckedIOException  if the directory could not be created
+     */
+    public DiskRenderCache(Path directory) {
+        this.directory = requireNonNull(directory);
+        this.hits      = new LongAdder();
+        this.misses    = new LongAdder();
+        
+        try {
+            Files.createDirectories(directory);
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+    
+    /**
+     * Returns the code for the specified model. If the same model has been 
+     * rendered by an equivalent generator before, the cached code is returned. 
+     * Otherwise the model is rendered using {@link Generator#on(Object)} and 
+     * the result is stored in the cache.
+     * 
+     * @param gen    the generator to use if the model is not cached
+     * @param model  the model
+     * @return       the generated code if any
+     */
+    public Optional<String> on(Generator gen, Object model) {
+        requireNonNull(gen);
+        requireNonNull(model);
+        
+        final Path entry = directory.resolve(keyOf(gen, model) + SUFFIX);
+        final Optional<String> cached = read(entry);
+        
+        if (cached.isPresent()) {
+            hits.increment();
+            return cached;
+        }
+        
+        misses.increment();
+        final Optional<String> result = gen.on(model);
+        result.ifPresent(code -> write(entry, code));
+        return result;
+    }
+    
+    /**
+     * Returns a snapshot of the hits and misses since this instance was 
+     * created. The size is the number of entries currently stored in the 
+     * cache directory.
+     * 
+     * @return  the statistics
+     */
+    public CacheStats getStats() {
+        try (final Stream<Path> entries = Files.list(directory)) {
+            return new CacheStats(
+                hits.sum(), 
+                misses.sum(), 
+                (int) entries.filter(DiskRenderCache::isEntry).count()
+            );
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+    
+    /**
+     * Removes all the entries from the cache directory.
+     * 
+     * @throws UncheckedIOException  if an entry could not be removed
+     */
+    public void clear() {
+        try (final Stream<Path> entries = Files.list(directory)) {
+            entries.filter(DiskRenderCache::isEntry).forEach(entry -> {
+                try {
+                    Files.deleteIfExists(entry);
+                } catch (final IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+    
+    /**
+     * Computes the cache key for the specified model when rendered by the
+     * specified generator.
+     * 
+     * @param gen    the generator
+     * @param model  the model
+     * @return       the key as a hexadecimal string
+     */
+    private static String keyOf(Generator gen, Object model) {
+        final MessageDigest md = ModelFingerprint.newDigest();
+        final StringBuilder identity = new StringBuilder()
+            .append(VERSION).append('\0')
+            .append(Formatting.nl()).append('\0')
+            .append(Formatting.tab()).append('\0')
+            .append(gen.getClass().getName());
+        
+        final DependencyManager mgr = gen.getDependencyMgr();
+        identity.append('\0').append(mgr.getClass().getName());
+        
+        if (mgr instanceof DefaultDependencyManager) {
+            for (final Pattern pattern : 
+                ((DefaultDependencyManager) mgr).getIgnoredPatterns()) {
+                
+                identity.append('\0').append(pattern.flags())
+                    .append('\0').append(pattern.pattern().length())
+                    .append(':').append(pattern.pattern());
+            }
+        }
+        
+        if (gen instanceof DefaultGenerator) {
+            for (final TransformFactory factory : 
+                ((DefaultGenerator) gen).getTransformFactories()) {
+                
+                identity.append('\0').append(factory.getClass().getName())
+                    .append('\0').append(factory.getName());
+            }
+        }
+        
+        md.update(identity.toString().getBytes(StandardCharsets.UTF_8));
+        md.update(ModelFingerprint.digest(model));
+        return ModelFingerprint.toHex(md.digest());
+    }
+    
+    private static Optional<String> read(Path entry) {
+        try {
+            return Optional.of(new String(
+                Files.readAllBytes(entry), StandardCharsets.UTF_8
+            ));
+        } catch (final NoSuchFileException ex) {
+            return Optional.empty();
+        } catch (final IOException ex) {
+            LOGGER.log(Level.WARNING, "Could not read cache entry '" + entry + "'.", ex);
+            return Optional.empty();
+        }
+    }
+    
+    private void write(Path entry, String code) {
+        try {
+            final Path temp = TempFiles.createFor(entry);
+            
+            try {
+                Files.write(temp, code.getBytes(StandardCharsets.UTF_8));
+                
+                TempFiles.moveInto(temp, entry);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (final IOException ex) {
+            LOGGER.log(Level.WARNING, "Could not write cache entry '" + entry + "'.", ex);
+        }
+    }
+    
+    private static boolean isEntry(Path path) {
+        return path.getFileName().toString().endsWith(SUFFIX);
+    }
+}
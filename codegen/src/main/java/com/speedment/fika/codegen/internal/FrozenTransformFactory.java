@@ -0,0 +1,167 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.codegen.internal;
+
+import com.speedment.fika.codegen.Transform;
+import com.speedment.fika.codegen.TransformFactory;
+import static java.util.Collections.unmodifiableSet;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Set;
+
+/**
+ * An immutable {@link TransformFactory} that contains a snapshot of the 
+ * transforms installed in a {@link DefaultTransformFactory}. Instances are 
+ * created by calling {@link DefaultTransformFactory#freeze()}.
+ * <p>
+ * The installed transforms are kept in lists that are never modified after
+ * construction, and the result of {@link #allFrom(java.lang.Class)} is 
+ * computed once per model class and then stored in a {@link ClassValue} 
+ * that is never invalidated. Lookups are therefore lock-free and the same 
+ * instance can be shared by any number of generators running in parallel.
+ * Calling any of the <code>install</code> methods will throw an 
+ * {@link UnsupportedOperationException}.
+ *
+ * @author Emil Forslund
+ * @since  2.4
+ */
+public final class FrozenTransformFactory implements TransformFactory, HasRouteCache {
+
+    private final String name;
+    private final Class<?>[] models;
+    private final List<List<Map.Entry<Class<?>, Transform<?, ?>>>> transforms;
+    private final ClassValue<Set<Map.Entry<Class<?>, Transform<?, ?>>>> index;
+    private final RouteCache routes;
+
+    /**
+     * Creates a snapshot of the specified transforms.
+     * 
+     * @param name        the name of the factory
+     * @param transforms  the transforms by the model class they transform 
+     *                    from, in installation order
+     */
+    FrozenTransformFactory(String name, Map<Class<?>, Set<Map.Entry<Class<?>, Transform<?, ?>>>> transforms) {
+        this.name       = requireNonNull(name);
+        this.models     = new Class<?>[transforms.size()];
+        this.transforms = new ArrayList<>(transforms.size());
+        
+        int i = 0;
+        for (final Map.Entry<Class<?>, Set<Map.Entry<Class<?>, Transform<?, ?>>>> e : transforms.entrySet()) {
+            this.models[i++] = e.getKey();
+            this.transforms.add(new ArrayList<>(e.getValue()));
+        }
+        
+        this.index = new ClassValue<Set<Map.Entry<Class<?>, Transform<?, ?>>>>() {
+            @Override
+            protected Set<Map.Entry<Class<?>, Transform<?, ?>>> computeValue(Class<?> model) {
+                return collect(model);
+            }
+        };
+        
+        this.routes = new RouteCache();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This factory is immutable, so this method will always throw an
+     * exception.
+     * 
+     * @throws UnsupportedOperationException  always
+     */
+    @Override
+    public <A, B, T extends Transform<A, B>> TransformFactory install(Class<A> from, Class<B> to, Class<T> transform) {
+        throw frozen();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This factory is immutable, so this method will always throw an
+     * exception.
+     * 
+     * @throws UnsupportedOperationException  always
+     */
+    @Override
+    public <A, B> TransformFactory install(Class<A> from, Class<B> to, Transform<A, B> transform) {
+        throw frozen();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <A, T extends Transform<A, ?>> Set<Map.Entry<Class<?>, T>> allFrom(Class<A> model) {
+        requireNonNull(model);
+        
+        final Set<?> result = index.get(model);
+        return (Set<Map.Entry<Class<?>, T>>) result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public RouteCache getRouteCache() {
+        return routes;
+    }
+    
+    /**
+     * Collects all the transforms that can be applied to the specified model
+     * class into an immutable set, in the same order as 
+     * {@link DefaultTransformFactory} would.
+     * 
+     * @param model  the model class
+     * @return       all matching transforms
+     */
+    private Set<Map.Entry<Class<?>, Transform<?, ?>>> collect(Class<?> model) {
+        final Set<Class<?>> hierarchy = new LinkedHashSet<>();
+        DefaultTransformFactory.addHierarchy(model, hierarchy);
+        
+        final Set<Map.Entry<Class<?>, Transform<?, ?>>> result = new LinkedHashSet<>();
+        for (final Class<?> type : hierarchy) {
+            for (int i = 0; i < models.length; i++) {
+                if (models[i] == type) {
+                    result.addAll(transforms.get(i));
+                    
+                    break;
+                }
+            }
+        }
+        
+        return unmodifiableSet(result);
+    }
+    
+    private UnsupportedOperationException frozen() {
+        return new UnsupportedOperationException(
+            "The transform factory '" + name + "' is frozen and can not " + 
+            "have any more transforms installed."
+        );
+    }
+}
@@ -0,0 +1,36 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.codegen.internal;
+
+import com.speedment.fika.codegen.TransformFactory;
+
+/**
+ * A trait for {@link TransformFactory} implementations that keep a
+ * {@link RouteCache} of resolved transform routes. The 
+ * {@link BridgeTransform} uses the cache if the factory has one.
+ *
+ * @author Emil Forslund
+ */
+public interface HasRouteCache {
+
+    /**
+     * Returns the route cache of this factory.
+     *
+     * @return  the route cache
+     */
+    RouteCache getRouteCache();
+}
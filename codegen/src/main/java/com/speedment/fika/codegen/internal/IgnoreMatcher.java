@@ -0,0 +1,156 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.codegen.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import static java.util.stream.Collectors.joining;
+import java.util.stream.Stream;
+
+/**
+ * Tests names against all the ignore patterns of a 
+ * {@link DefaultDependencyManager} at once. Patterns that can be combined are
+ * merged into a single alternation so that only one regex has to be 
+ * evaluated for each name. Patterns with flags or back-references are kept 
+ * separate since their meaning could change if they were merged. If the 
+ * merged alternation can not be compiled, all patterns are kept separate.
+ * <p>
+ * The result is cached for every name since the same type names are 
+ * resolved over and over during generation. The cache is cleared when it 
+ * reaches {@link #MAX_CACHE_SIZE} names.
+ * <p>
+ * This class is thread safe.
+ *
+ * @author Emil Forslund
+ */
+final class IgnoreMatcher {
+    
+    final static int MAX_CACHE_SIZE = 4096;
+    private final static Pattern BACK_REFERENCE = 
+        Pattern.compile("\\\\(?:[1-9]|k<)");
+    
+    private final List<Pattern> patterns;
+    private final Pattern merged;
+    private final List<Pattern> separate;
+    private final Map<String, Boolean> cache;
+    
+    IgnoreMatcher(Pattern... patterns) {
+        final List<Pattern> all       = new ArrayList<>();
+        final List<Pattern> mergeable = new ArrayList<>();
+        final List<Pattern> rest      = new ArrayList<>();
+        
+        Stream.of(patterns).map(Objects::requireNonNull).distinct().forEach(p -> {
+            all.add(p);
+            
+            if (p.flags() == 0 && !BACK_REFERENCE.matcher(p.pattern()).find()) {
+                mergeable.add(p);
+            } else {
+                rest.add(p);
+            }
+        });
+        
+        Pattern combined = null;
+        if (mergeable.size() == 1) {
+            combined = mergeable.get(0);
+        } else if (mergeable.size() > 1) {
+            try {
+                combined = Pattern.compile(mergeable.stream()
+                    .map(p -> "(?:" + p.pattern() + ")")
+                    .collect(joining("|"))
+                );
+            } catch (final PatternSyntaxException ex) {
+                rest.addAll(mergeable);
+            }
+        }
+        
+        this.patterns = Collections.unmodifiableList(all);
+        this.merged   = combined;
+        this.separate = Collections.unmodifiableList(rest);
+        this.cache    = new ConcurrentHashMap<>();
+    }
+    
+    /**
+     * Returns <code>true</code> if any of the patterns can be found in the
+     * specified name.
+     * 
+     * @param name  the name to test
+     * @return      <code>true</code> if the name should be ignored
+     */
+    boolean test(String name) {
+        final Boolean cached = cache.get(name);
+        if (cached != null) {
+            return cached;
+        }
+        
+        final boolean result = matches(name);
+        if (cache.size() >= MAX_CACHE_SIZE) {
+            cache.clear();
+        }
+        
+        cache.put(name, result);
+        return result;
+    }
+    
+    /**
+     * Returns the patterns in the order they were specified, without any
+     * duplicates.
+     * 
+     * @return  the patterns
+     */
+    List<Pattern> getPatterns() {
+        return patterns;
+    }
+    
+    /**
+     * Returns the number of patterns that are evaluated separately instead
+     * of as part of the merged alternation.
+     * 
+     * @return  the number of separate patterns
+     */
+    int getSeparateCount() {
+        return separate.size();
+    }
+    
+    /**
+     * Returns the number of names that are currently cached.
+     * 
+     * @return  the cache size
+     */
+    int getCacheSize() {
+        return cache.size();
+    }
+    
+    private boolean matches(String name) {
+        if (merged != null && merged.matcher(name).find()) {
+            return true;
+        }
+        
+        for (final Pattern pattern : separate) {
+            if (pattern.matcher(name).find()) {
+                return true;
+            }
+        }
+        
+        return false;
+    }
+}
@@ -0,0 +1,190 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.codegen.internal;
+
+import com.speedment.fika.codegen.RenderStack;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import static java.util.Objects.requireNonNull;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A persistent {@link RenderStack} implementation where every stack is an 
+ * immutable node that links to its parent. Pushing an element allocates a
+ * single node and taking a snapshot of the stack is free since the instance
+ * never changes. Instances can safely be shared between threads.
+ * 
+ * @author Emil Forslund
+ * @since  2.4
+ */
+public final class LinkedRenderStack implements RenderStack {
+    
+    private final static LinkedRenderStack EMPTY = 
+        new LinkedRenderStack(null, null, 0);
+    
+    private final Object top;
+    private final LinkedRenderStack parent;
+    private final int size;
+    
+    /**
+     * Returns the empty stack.
+     * 
+     * @return  the empty stack
+     */
+    public static LinkedRenderStack empty() {
+        return EMPTY;
+    }
+    
+    private LinkedRenderStack(Object top, LinkedRenderStack parent, int size) {
+        this.top    = top;
+        this.parent = parent;
+        this.size   = size;
+    }
+    
+    /**
+     * Returns a new stack with the specified object on top of this one. This
+     * stack is not modified.
+     * 
+     * @param obj  the object to push
+     * @return     the new stack
+     */
+    public LinkedRenderStack push(Object obj) {
+        return new LinkedRenderStack(requireNonNull(obj), this, size + 1);
+    }
+    
+    /**
+     * Returns the stack below the top element of this one. This stack is not
+     * modified.
+     * 
+     * @return  the parent stack
+     * 
+     * @throws NoSuchElementException  if this stack is empty
+     */
+    public LinkedRenderStack pop() {
+        if (size == 0) {
+            throw new NoSuchElementException("The render stack is empty.");
+        }
+        
+        return parent;
+    }
+    
+    /**
+     * Returns the number of elements in the stack.
+     * 
+     * @return  the size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Stream<T> fromBottom(Class<T> type) {
+        requireNonNull(type);
+        
+        final Object[] matches = new Object[size];
+        int start = size;
+        
+        for (LinkedRenderStack node = this; node.size > 0; node = node.parent) {
+            if (type.isInstance(node.top)) {
+                matches[--start] = node.top;
+            }
+        }
+        
+        return (Stream<T>) Arrays.stream(matches, start, size);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> Stream<T> fromTop(Class<T> type) {
+        return StreamSupport.stream(
+            new TopDownSpliterator<>(requireNonNull(type), this), false
+        );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    /**
+     * Iterates over the elements of a certain type from the top of the stack
+     * down to the bottom without any intermediate filtering stages.
+     * 
+     * @param <T>  the type to look for
+     */
+    private final static class TopDownSpliterator<T> implements Spliterator<T> {
+        
+        private final Class<T> type;
+        private LinkedRenderStack next;
+
+        private TopDownSpliterator(Class<T> type, LinkedRenderStack next) {
+            this.type = type;
+            this.next = next;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            while (next.size > 0) {
+                final Object value = next.top;
+                next = next.parent;
+                
+                if (type.isInstance(value)) {
+                    action.accept(type.cast(value));
+                    return true;
+                }
+            }
+            
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            for (; next.size > 0; next = next.parent) {
+                if (type.isInstance(next.top)) {
+                    action.accept(type.cast(next.top));
+                }
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return next.size;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL | IMMUTABLE;
+        }
+    }
+}
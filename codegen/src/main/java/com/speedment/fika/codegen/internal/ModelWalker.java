@@ -0,0 +1,198 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.codegen.internal;
+
+import com.speedment.fika.codegen.ModelVisitor;
+import com.speedment.fika.codegen.model.AnnotationUsage;
+import com.speedment.fika.codegen.model.ClassOrInterface;
+import com.speedment.fika.codegen.model.Constructor;
+import com.speedment.fika.codegen.model.Field;
+import com.speedment.fika.codegen.model.File;
+import com.speedment.fika.codegen.model.Generic;
+import com.speedment.fika.codegen.model.Method;
+import com.speedment.fika.codegen.model.Type;
+import com.speedment.fika.codegen.model.trait.HasAnnotationUsage;
+import com.speedment.fika.codegen.model.trait.HasClasses;
+import com.speedment.fika.codegen.model.trait.HasConstructors;
+import com.speedment.fika.codegen.model.trait.HasFields;
+import com.speedment.fika.codegen.model.trait.HasGenerics;
+import com.speedment.fika.codegen.model.trait.HasImplements;
+import com.speedment.fika.codegen.model.trait.HasMethods;
+import com.speedment.fika.codegen.model.trait.HasSupertype;
+import com.speedment.fika.codegen.model.trait.HasThrows;
+import com.speedment.fika.codegen.model.trait.HasType;
+import static com.speedment.fika.codegen.internal.util.StaticClassUtil.instanceNotAllowed;
+import java.util.List;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Implementation of {@link ModelVisitor#walk(Object, ModelVisitor)}. The 
+ * traits implemented by each model class are computed once and cached as a 
+ * bit mask so that every node can be dispatched without any 
+ * <code>instanceof</code> tests.
+ * 
+ * @author Emil Forslund
+ * @since  2.4
+ */
+public final class ModelWalker {
+    
+    private final static int
+        FILE         = 1,
+        CLASS        = 1 << 1,
+        CONSTRUCTOR  = 1 << 2,
+        METHOD       = 1 << 3,
+        FIELD        = 1 << 4,
+        SUPERTYPE    = 1 << 5,
+        ANNOTATIONS  = 1 << 6,
+        CLASSES      = 1 << 7,
+        CONSTRUCTORS = 1 << 8,
+        FIELDS       = 1 << 9,
+        GENERICS     = 1 << 10,
+        IMPLEMENTS   = 1 << 11,
+        METHODS      = 1 << 12,
+        THROWS       = 1 << 13,
+        TYPE         = 1 << 14;
+    
+    private final static ClassValue<Integer> TRAITS = new ClassValue<Integer>() {
+        @Override
+        protected Integer computeValue(java.lang.Class<?> type) {
+            return traitsOf(type);
+        }
+    };
+    
+    /**
+     * Walks the specified model and all its children, notifying the visitor
+     * of every component found.
+     * 
+     * @param model    the model to walk
+     * @param visitor  the visitor to notify
+     */
+    public static void walk(Object model, ModelVisitor visitor) {
+        walkModel(requireNonNull(model), requireNonNull(visitor));
+    }
+    
+    private static void walkModel(Object model, ModelVisitor visitor) {
+        final int traits = TRAITS.get(model.getClass());
+        
+        if ((traits & FILE) != 0) {
+            visitor.visitFile((File) model);
+        } else if ((traits & CLASS) != 0) {
+            visitor.visitClass((ClassOrInterface<?>) model);
+        } else if ((traits & CONSTRUCTOR) != 0) {
+            visitor.visitConstructor((Constructor) model);
+        } else if ((traits & METHOD) != 0) {
+            visitor.visitMethod((Method) model);
+        } else if ((traits & FIELD) != 0) {
+            visitor.visitField((Field) model);
+        }
+        
+        if ((traits & SUPERTYPE) != 0) {
+            ((HasSupertype<?>) model).getSupertype()
+                .ifPresent(t -> walkType(t, visitor));
+        }
+        
+        if ((traits & ANNOTATIONS) != 0) {
+            final List<AnnotationUsage> annotations = 
+                ((HasAnnotationUsage<?>) model).getAnnotations();
+            
+            for (int i = 0; i < annotations.size(); i++) {
+                walkType(annotations.get(i).getType(), visitor);
+            }
+        }
+        
+        if ((traits & CLASSES) != 0) {
+            walkAll(((HasClasses<?>) model).getClasses(), visitor);
+        }
+        
+        if ((traits & CONSTRUCTORS) != 0) {
+            walkAll(((HasConstructors<?>) model).getConstructors(), visitor);
+        }
+        
+        if ((traits & FIELDS) != 0) {
+            walkAll(((HasFields<?>) model).getFields(), visitor);
+        }
+        
+        if ((traits & GENERICS) != 0) {
+            final List<Generic> generics = ((HasGenerics<?>) model).getGenerics();
+            for (int i = 0; i < generics.size(); i++) {
+                walkTypes(generics.get(i).getUpperBounds(), visitor);
+            }
+        }
+        
+        if ((traits & IMPLEMENTS) != 0) {
+            walkTypes(((HasImplements<?>) model).getInterfaces(), visitor);
+        }
+        
+        if ((traits & METHODS) != 0) {
+            walkAll(((HasMethods<?>) model).getMethods(), visitor);
+        }
+        
+        if ((traits & THROWS) != 0) {
+            for (final Type type : ((HasThrows<?>) model).getExceptions()) {
+                walkType(type, visitor);
+            }
+        }
+        
+        if ((traits & TYPE) != 0) {
+            walkType(((HasType<?>) model).getType(), visitor);
+        }
+    }
+    
+    private static void walkAll(List<?> models, ModelVisitor visitor) {
+        for (int i = 0; i < models.size(); i++) {
+            walkModel(models.get(i), visitor);
+        }
+    }
+    
+    private static void walkTypes(List<Type> types, ModelVisitor visitor) {
+        for (int i = 0; i < types.size(); i++) {
+            walkType(types.get(i), visitor);
+        }
+    }
+    
+    private static void walkType(Type type, ModelVisitor visitor) {
+        visitor.visitType(type);
+        walkModel(type, visitor);
+    }
+    
+    private static int traitsOf(java.lang.Class<?> type) {
+        int traits = 0;
+        
+        if (File.class.isAssignableFrom(type))             traits |= FILE;
+        if (ClassOrInterface.class.isAssignableFrom(type)) traits |= CLASS;
+        if (Constructor.class.isAssignableFrom(type))      traits |= CONSTRUCTOR;
+        if (Method.class.isAssignableFrom(type))           traits |= METHOD;
+        if (Field.class.isAssignableFrom(type))            traits |= FIELD;
+        if (HasSupertype.class.isAssignableFrom(type))     traits |= SUPERTYPE;
+        if (HasAnnotationUsage.class.isAssignableFrom(type)) traits |= ANNOTATIONS;
+        if (HasClasses.class.isAssignableFrom(type))       traits |= CLASSES;
+        if (HasConstructors.class.isAssignableFrom(type))  traits |= CONSTRUCTORS;
+        if (HasFields.class.isAssignableFrom(type))        traits |= FIELDS;
+        if (HasGenerics.class.isAssignableFrom(type))      traits |= GENERICS;
+        if (HasImplements.class.isAssignableFrom(type))    traits |= IMPLEMENTS;
+        if (HasMethods.class.isAssignableFrom(type))       traits |= METHODS;
+        if (HasThrows.class.isAssignableFrom(type))        traits |= THROWS;
+        if (HasType.class.isAssignableFrom(type))          traits |= TYPE;
+        
+        return traits;
+    }
+    
+    /**
+     * Utility classes should not be instantiated.
+     */
+    private ModelWalker() { instanceNotAllowed(getClass()); }
+}
@@ -0,0 +1,435 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.codegen.internal;
+
+import com.speedment.fika.codegen.DependencyManager;
+import com.speedment.fika.codegen.Meta;
+import com.speedment.fika.codegen.RenderSink;
+import com.speedment.fika.codegen.StreamingTransform;
+import com.speedment.fika.codegen.Transform;
+import com.speedment.fika.codegen.TransformFactory;
+import com.speedment.fika.codegen.internal.util.ProfileStats;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link DefaultGenerator} that measures the cost of every transform it
+ * invokes. The number of invocations, the wall time, the number of bytes 
+ * allocated by the rendering thread and the size of the output is recorded 
+ * both per {@link Transform} class and per model class. The measurements 
+ * can be retrieved as {@link ProfileStats} or as a report once the 
+ * generation is done.
+ * <p>
+ * All transforms are measured in 
+ * {@link #transform(Transform, Object, TransformFactory)} and in 
+ * {@link #render(StreamingTransform, Object, RenderSink)}, so no changes 
+ * are needed in the views. A {@link BridgeTransform} is not measured itself
+ * since every step of it is. Forks of this generator add to the same 
+ * measurements, so the profile of a parallel generation is the sum of all 
+ * the threads.
+ * <p>
+ * Allocations are measured using the <code>ThreadMXBean</code> of the JVM.
+ * If thread allocation counting is not supported, the allocated bytes are 
+ * reported as <code>-1</code>.
+ * 
+ * @author Emil Forslund
+ * @since  2.4
+ */
+public class ProfilingGenerator extends DefaultGenerator {
+    
+    private final static com.sun.management.ThreadMXBean THREADS = threads();
+    
+    private final Profile profile;
+    private long nestedNanos;
+    
+    /**
+     * Creates a new profiling generator. This constructor will use a 
+     * {@link DefaultDependencyManager} with no parameters to handle any 
+     * dependencies.
+     * 
+     * @param factories  the factories to use
+     */
+    public ProfilingGenerator(TransformFactory... factories) {
+        super(factories);
+        this.profile = new Profile();
+    }
+    
+    /**
+     * Creates a new profiling generator.
+     * 
+     * @param mgr        the dependency manager to use
+     * @param factories  the factories to use 
+     */
+    public ProfilingGenerator(DependencyManager mgr, TransformFactory... factories) {
+        super(mgr, factories);
+        this.profile = new Profile();
+    }
+    
+    /**
+     * Creates a new profiling generator that uses the same factories as the
+     * specified generator and a fork of its dependency manager. This can be
+     * used to profile a specialized generator, for an example
+     * <code>new ProfilingGenerator(new JavaGenerator())</code>.
+     * 
+     * @param generator  the generator to profile
+     */
+    public ProfilingGenerator(DefaultGenerator generator) {
+        super(generator, generator.getDependencyMgr().fork());
+        this.profile = new Profile();
+    }
+    
+    /**
+     * Creates a new generator that shares factories and measurements with
+     * the specified one. This is used when a generator is forked.
+     * 
+     * @param prototype  the generator to share factories and measurements 
+     *                   with
+     * @param mgr        the dependency manager to use
+     */
+    protected ProfilingGenerator(ProfilingGenerator prototype, DependencyManager mgr) {
+        super(prototype, mgr);
+        this.profile = prototype.profile;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The fork adds its measurements to the ones of this generator.
+     */
+    @Override
+    public ProfilingGenerator fork() {
+        return new ProfilingGenerator(this, getDependencyMgr().fork());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <A, B> Optional<Meta<A, B>> transform(Transform<A, B> transform, A model, TransformFactory factory) {
+        if (transform instanceof BridgeTransform) {
+            return super.transform(transform, model, factory);
+        }
+        
+        final long outerNested = nestedNanos;
+        final long allocated   = allocatedBytes();
+        final long started     = System.nanoTime();
+        
+        Optional<Meta<A, B>> meta = Optional.empty();
+        nestedNanos = 0;
+        
+        try {
+            meta = super.transform(transform, model, factory);
+        } finally {
+            final long elapsed = System.nanoTime() - started;
+            final Object result = meta.map(Meta::getResult).orElse(null);
+            
+            profile.record(
+                transform.getClass(), model.getClass(), 
+                elapsed, elapsed - nestedNanos, 
+                allocated < 0 ? -1 : allocatedBytes() - allocated,
+                result instanceof CharSequence ? ((CharSequence) result).length() : 0
+            );
+            
+            nestedNanos = outerNested + elapsed;
+        }
+        
+        return meta;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected <A> void render(StreamingTransform<A> transform, A model, RenderSink sink) {
+        final CountingSink counter = sink instanceof CountingSink 
+            ? (CountingSink) sink 
+            : new CountingSink(sink);
+        
+        final long outerNested = nestedNanos;
+        final long written     = counter.chars;
+        final long allocated   = allocatedBytes();
+        final long started     = System.nanoTime();
+        
+        nestedNanos = 0;
+        
+        try {
+            super.render(transform, model, counter);
+        } finally {
+            final long elapsed = System.nanoTime() - started;
+            
+            profile.record(
+                transform.getClass(), model.getClass(), 
+                elapsed, elapsed - nestedNanos, 
+                allocated < 0 ? -1 : allocatedBytes() - allocated,
+                counter.chars - written
+            );
+            
+            nestedNanos = outerNested + elapsed;
+        }
+    }
+    
+    /**
+     * Returns the measurements of every transform class that has been 
+     * invoked, sorted by descending total time.
+     * 
+     * @return  the transform measurements
+     */
+    public List<ProfileStats> getTransformStats() {
+        return Profile.snapshot(profile.transforms);
+    }
+    
+    /**
+     * Returns the measurements of every model class that has been 
+     * transformed, sorted by descending total time.
+     * 
+     * @return  the model measurements
+     */
+    public List<ProfileStats> getModelStats() {
+        return Profile.snapshot(profile.models);
+    }
+    
+    /**
+     * Clears all measurements, including the ones of forks of this 
+     * generator.
+     */
+    public void reset() {
+        profile.transforms.clear();
+        profile.models.clear();
+    }
+    
+    /**
+     * Returns a human readable report of the measurements with one table 
+     * for transforms and one for models, both sorted by descending total 
+     * time.
+     * 
+     * @return  the report
+     */
+    public String getReport() {
+        final StringBuilder str = new StringBuilder();
+        report(str, "Transform", getTransformStats());
+        str.append('\n');
+        report(str, "Model", getModelStats());
+        return str.toString();
+    }
+    
+    /**
+     * Returns the measurements as a JSON object with the two arrays 
+     * <code>"transforms"</code> and <code>"models"</code>, both sorted by 
+     * descending total time.
+     * 
+     * @return  the measurements as JSON
+     */
+    public String getJson() {
+        final StringBuilder str = new StringBuilder("{\"transforms\":");
+        json(str, getTransformStats());
+        str.append(",\"models\":");
+        json(str, getModelStats());
+        return str.append('}').toString();
+    }
+    
+    private static void report(StringBuilder str, String title, List<ProfileStats> stats) {
+        final String format = "%-64s %10s %12s %12s %14s %12s%n";
+        str.append(String.format(format, 
+            title, "calls", "total ms", "self ms", "allocated kB", "chars"
+        ));
+        
+        for (final ProfileStats s : stats) {
+            str.append(String.format(format, 
+                s.getType().getName(),
+                s.getInvocations(),
+                String.format("%.3f", s.getTotalNanos() / 1e6),
+                String.format("%.3f", s.getSelfNanos() / 1e6),
+                s.getAllocatedBytes() < 0 ? "n/a" 
+                    : String.format("%.1f", s.getAllocatedBytes() / 1024d),
+                s.getOutputChars()
+            ));
+        }
+    }
+    
+    private static void json(StringBuilder str, List<ProfileStats> stats) {
+        str.append('[');
+        
+        boolean first = true;
+        for (final ProfileStats s : stats) {
+            if (first) {
+                first = false;
+            } else {
+                str.append(',');
+            }
+            
+            str.append("{\"type\":\"").append(s.getType().getName())
+                .append("\",\"invocations\":").append(s.getInvocations())
+                .append(",\"totalNanos\":").append(s.getTotalNanos())
+                .append(",\"selfNanos\":").append(s.getSelfNanos())
+                .append(",\"allocatedBytes\":").append(s.getAllocatedBytes())
+                .append(",\"outputChars\":").append(s.getOutputChars())
+                .append('}');
+        }
+        
+        str.append(']');
+    }
+    
+    /**
+     * Returns the number of bytes allocated by the current thread, or 
+     * <code>-1</code> if it can not be measured.
+     * 
+     * @return  the allocated bytes
+     */
+    private static long allocatedBytes() {
+        return THREADS == null ? -1 
+            : THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+    
+    private static com.sun.management.ThreadMXBean threads() {
+        final java.lang.management.ThreadMXBean bean = 
+            ManagementFactory.getThreadMXBean();
+        
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            final com.sun.management.ThreadMXBean threads = 
+                (com.sun.management.ThreadMXBean) bean;
+            
+            try {
+                if (threads.isThreadAllocatedMemorySupported()) {
+                    if (!threads.isThreadAllocatedMemoryEnabled()) {
+                        threads.setThreadAllocatedMemoryEnabled(true);
+                    }
+                    
+                    return threads;
+                }
+            } catch (final UnsupportedOperationException | SecurityException ex) {
+                // Allocations will not be measured.
+            }
+        }
+        
+        return null;
+    }
+    
+    /**
+     * The measurements shared by a generator and all its forks.
+     */
+    private final static class Profile {
+        
+        private final Map<Class<?>, Counter> transforms = new ConcurrentHashMap<>();
+        private final Map<Class<?>, Counter> models     = new ConcurrentHashMap<>();
+        
+        private void record(Class<?> transform, Class<?> model, long total, long self, long allocated, long chars) {
+            transforms.computeIfAbsent(transform, c -> new Counter())
+                .add(total, self, allocated, chars);
+            
+            models.computeIfAbsent(model, c -> new Counter())
+                .add(total, self, allocated, chars);
+        }
+        
+        private static List<ProfileStats> snapshot(Map<Class<?>, Counter> counters) {
+            final List<ProfileStats> stats = new ArrayList<>(counters.size());
+            counters.forEach((type, counter) -> stats.add(counter.snapshot(type)));
+            stats.sort(Comparator.comparingLong(ProfileStats::getTotalNanos).reversed());
+            return stats;
+        }
+    }
+    
+    /**
+     * The measurements of one transform or model class.
+     */
+    private final static class Counter {
+        
+        private final LongAdder invocations    = new LongAdder();
+        private final LongAdder totalNanos     = new LongAdder();
+        private final LongAdder selfNanos      = new LongAdder();
+        private final LongAdder allocatedBytes = new LongAdder();
+        private final LongAdder outputChars    = new LongAdder();
+        private volatile boolean allocationsUnknown;
+        
+        private void add(long total, long self, long allocated, long chars) {
+            invocations.increment();
+            totalNanos.add(total);
+            selfNanos.add(self);
+            outputChars.add(chars);
+            
+            if (allocated < 0) {
+                allocationsUnknown = true;
+            } else {
+                allocatedBytes.add(allocated);
+            }
+        }
+        
+        private ProfileStats snapshot(Class<?> type) {
+            return new ProfileStats(type,
+                invocations.sum(),
+                totalNanos.sum(),
+                selfNanos.sum(),
+                allocationsUnknown ? -1 : allocatedBytes.sum(),
+                outputChars.sum()
+            );
+        }
+    }
+    
+    /**
+     * A sink that counts the characters written to it before passing them 
+     * on to another sink.
+     */
+    private final static class CountingSink implements RenderSink {
+        
+        private final RenderSink inner;
+        private long chars;
+
+        private CountingSink(RenderSink inner) {
+            this.inner = requireNonNull(inner);
+        }
+
+        @Override
+        public RenderSink write(CharSequence text) {
+            chars += text.length();
+            inner.write(text);
+            return this;
+        }
+
+        @Override
+        public RenderSink indent() {
+            inner.indent();
+            return this;
+        }
+
+        @Override
+        public RenderSink outdent() {
+            inner.outdent();
+            return this;
+        }
+
+        @Override
+        public int getIndentation() {
+            return inner.getIndentation();
+        }
+
+        @Override
+        public Optional<List<String>> takeRegion(String name) {
+            return inner.takeRegion(name);
+        }
+
+        @Override
+        public Map<String, List<String>> getRemainingRegions() {
+            return inner.getRemainingRegions();
+        }
+    }
+}
@@ -0,0 +1,375 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.codegen.internal;
+
+import com.speedment.fika.codegen.RenderSink;
+import com.speedment.fika.codegen.model.CodeBlock;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * An immutable set of protected regions that has been read from a previously
+ * generated file. A protected region is a sequence of rows between a 
+ * {@link #begin(String) begin} and an {@link #end(String) end} marker that 
+ * may be edited by hand. When the file is regenerated, the rows of each 
+ * region are written back instead of the default rows in the model.
+ * <p>
+ * The file is read in a single pass without splitting it into strings. Only
+ * rows inside regions are copied. The rows are stored without the 
+ * indentation of the begin marker, so that they can be written back at the 
+ * indentation of the regenerated code.
+ * <p>
+ * Regions that are no longer part of the model are written at the end of 
+ * the file by {@link #writeOrphaned(RenderSink, Map)}. Every row is then 
+ * written as a line comment, so that a row containing <code>*&#47;</code>
+ * can not end the comment and break the file. When such regions are read, 
+ * the comment prefix is removed again.
+ *
+ * @author Emil Forslund
+ * @since  2.4
+ * 
+ * @see CodeBlock#protect(String, CodeBlock)
+ */
+public final class ProtectedRegions {
+    
+    private final static int BUFFER_SIZE = 8192;
+    private final static String
+        BEGIN = "// PROTECTED REGION BEGIN ",
+        END   = "// PROTECTED REGION END ",
+        ORPHANED_BEGIN = "// The following protected regions are no longer generated:",
+        ORPHANED_END   = "// End of protected regions that are no longer generated.",
+        COMMENT        = "//";
+    
+    private final static ProtectedRegions EMPTY = 
+        new ProtectedRegions(Collections.emptyMap());
+    
+    private final Map<String, List<String>> regions;
+    
+    private ProtectedRegions(Map<String, List<String>> regions) {
+        this.regions = regions;
+    }
+    
+    /**
+     * Returns the rows of the region with the specified name, or an empty 
+     * <code>Optional</code> if no such region was read.
+     * 
+     * @param name  the name of the region
+     * @return      the rows of the region
+     */
+    public Optional<List<String>> get(String name) {
+        return Optional.ofNullable(regions.get(requireNonNull(name)));
+    }
+    
+    /**
+     * Returns the names of all the regions in the order they were read.
+     * 
+     * @return  the names of the regions
+     */
+    public Set<String> getNames() {
+        return Collections.unmodifiableSet(regions.keySet());
+    }
+    
+    /**
+     * Returns <code>true</code> if no regions were read.
+     * 
+     * @return  <code>true</code> if empty
+     */
+    public boolean isEmpty() {
+        return regions.isEmpty();
+    }
+    
+    /**
+     * Returns the marker that begins the region with the specified name.
+     * 
+     * @param name  the name of the region
+     * @return      the begin marker
+     */
+    public static String begin(String name) {
+        return BEGIN + requireValidName(name);
+    }
+    
+    /**
+     * Returns the marker that ends the region with the specified name.
+     * 
+     * @param name  the name of the region
+     * @return      the end marker
+     */
+    public static String end(String name) {
+        return END + requireValidName(name);
+    }
+    
+    /**
+     * Writes the specified regions to the sink as line comments. This is 
+     * used for regions that were read from a previously generated file but 
+     * that are no longer part of the model, so that no hand-written code is
+     * lost. If a region with the same name is added to the model again, the 
+     * rows are read back without the comment prefix and moved back into it.
+     * 
+     * @param sink     the sink to write to
+     * @param regions  the rows of the regions mapped by name
+     */
+    public static void writeOrphaned(RenderSink sink, Map<String, List<String>> regions) {
+        requireNonNull(sink);
+        requireNonNull(regions);
+        
+        sink.write(ORPHANED_BEGIN);
+        
+        for (final Map.Entry<String, List<String>> region : regions.entrySet()) {
+            sink.nl().write(begin(region.getKey()));
+            
+            for (final String row : region.getValue()) {
+                sink.nl().write(COMMENT);
+                if (!row.isEmpty()) {
+                    sink.write(" ").write(row);
+                }
+            }
+            
+            sink.nl().write(end(region.getKey()));
+        }
+        
+        sink.nl().write(ORPHANED_END);
+    }
+    
+    /**
+     * Returns an instance without any regions.
+     * 
+     * @return  the empty instance
+     */
+    public static ProtectedRegions empty() {
+        return EMPTY;
+    }
+    
+    /**
+     * Reads the regions of the specified UTF-8 encoded file. If the file does
+     * not exist, an empty instance is returned.
+     * 
+     * @param path  the file to read
+     * @return      the regions of the file
+     * 
+     * @throws UncheckedIOException     if the file could not be read
+     * @throws IllegalArgumentException if the regions of the file are not
+     *                                  properly begun and ended
+     */
+    public static ProtectedRegions read(Path path) {
+        requireNonNull(path);
+        
+        try (final Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return read(reader);
+        } catch (final NoSuchFileException ex) {
+            return EMPTY;
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(
+                "Could not read protected regions from '" + path + "'.", ex
+            );
+        }
+    }
+    
+    /**
+     * Reads the regions from the specified reader. The reader is not closed.
+     * 
+     * @param reader  the reader to read from
+     * @return        the regions that were read
+     * 
+     * @throws IOException              if the reader failed
+     * @throws IllegalArgumentException if the regions are not properly begun 
+     *                                  and ended
+     */
+    public static ProtectedRegions read(Reader reader) throws IOException {
+        requireNonNull(reader);
+        
+        final Parser parser = new Parser();
+        final char[] buffer = new char[BUFFER_SIZE];
+        
+        int count;
+        while ((count = reader.read(buffer)) >= 0) {
+            int start = 0;
+            
+            for (int i = 0; i < count; i++) {
+                if (buffer[i] == '\n') {
+                    parser.line.append(buffer, start, i - start);
+                    parser.endOfLine();
+                    start = i + 1;
+                }
+            }
+            
+            parser.line.append(buffer, start, count - start);
+        }
+        
+        return parser.finish();
+    }
+    
+    /**
+     * Throws an exception if the specified name can not be used as the name
+     * of a region.
+     * 
+     * @param name  the name
+     * @return      the same name
+     * 
+     * @throws IllegalArgumentException  if the name is empty or contains 
+     *                                   whitespace
+     */
+    private static String requireValidName(String name) {
+        if (requireNonNull(name).isEmpty()) {
+            throw new IllegalArgumentException(
+                "The name of a protected region can not be empty."
+            );
+        }
+        
+        for (int i = 0; i < name.length(); i++) {
+            if (Character.isWhitespace(name.charAt(i))) {
+                throw new IllegalArgumentException(
+                    "The name of the protected region '" + name + 
+                    "' can not contain whitespace."
+                );
+            }
+        }
+        
+        return name;
+    }
+    
+    /**
+     * Keeps track of the region that is currently being read. The current 
+     * line is collected in a reused builder and is only turned into a string 
+     * if it is inside a region or is a marker. Between the markers of the 
+     * orphaned regions, the comment prefix is removed from every row.
+     */
+    private final static class Parser {
+        
+        private final Map<String, List<String>> regions = new LinkedHashMap<>();
+        private final StringBuilder line = new StringBuilder();
+        
+        private int number;
+        private String name;
+        private int indent;
+        private List<String> rows;
+        private boolean orphaned;
+        
+        private void endOfLine() {
+            number++;
+            
+            int length = line.length();
+            if (length > 0 && line.charAt(length - 1) == '\r') {
+                length--;
+            }
+            
+            int first = 0;
+            while (first < length && Character.isWhitespace(line.charAt(first))) {
+                first++;
+            }
+            
+            if (name == null && startsWith(first, length, ORPHANED_BEGIN)) {
+                orphaned = true;
+            } else if (name == null && startsWith(first, length, ORPHANED_END)) {
+                orphaned = false;
+            } else if (startsWith(first, length, BEGIN)) {
+                if (name != null) {
+                    throw malformed("begins region '" + marker(first, length, BEGIN) + 
+                        "' before region '" + name + "' has ended");
+                }
+                
+                name   = marker(first, length, BEGIN);
+                indent = first;
+                rows   = new ArrayList<>();
+                
+                if (regions.containsKey(name)) {
+                    throw malformed("begins region '" + name + "' a second time");
+                }
+            } else if (startsWith(first, length, END)) {
+                final String ended = marker(first, length, END);
+                
+                if (!ended.equals(name)) {
+                    throw malformed("ends region '" + ended + 
+                        "' that has not begun");
+                }
+                
+                regions.put(name, Collections.unmodifiableList(rows));
+                name = null;
+                rows = null;
+            } else if (name != null) {
+                if (orphaned && startsWith(first, length, COMMENT)) {
+                    rows.add(uncomment(first, length));
+                } else {
+                    rows.add(line.substring(Math.min(first, indent), length));
+                }
+            }
+            
+            line.setLength(0);
+        }
+        
+        private ProtectedRegions finish() {
+            if (line.length() > 0) {
+                endOfLine();
+            }
+            
+            if (name != null) {
+                throw new IllegalArgumentException(
+                    "Protected regions are malformed: the text ends before " + 
+                    "region '" + name + "' has ended."
+                );
+            }
+            
+            return regions.isEmpty() ? EMPTY : new ProtectedRegions(regions);
+        }
+        
+        private boolean startsWith(int first, int length, String marker) {
+            if (length - first < marker.length()) {
+                return false;
+            }
+            
+            for (int i = 0; i < marker.length(); i++) {
+                if (line.charAt(first + i) != marker.charAt(i)) {
+                    return false;
+                }
+            }
+            
+            return true;
+        }
+        
+        private String uncomment(int first, int length) {
+            int begin = first + COMMENT.length();
+            if (begin < length && line.charAt(begin) == ' ') {
+                begin++;
+            }
+            
+            return line.substring(begin, length);
+        }
+        
+        private String marker(int first, int length, String marker) {
+            return line.substring(first + marker.length(), length).trim();
+        }
+        
+        private IllegalArgumentException malformed(String message) {
+            return new IllegalArgumentException(
+                "Protected regions are malformed: line " + number + " " + 
+                message + "."
+            );
+        }
+    }
+}
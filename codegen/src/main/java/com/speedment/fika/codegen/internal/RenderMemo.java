@@ -0,0 +1,164 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.codegen.internal;
+
+import com.speedment.fika.codegen.DependencyManager;
+import com.speedment.fika.codegen.Transform;
+import com.speedment.fika.codegen.internal.model.InternedType;
+import com.speedment.fika.codegen.internal.util.CacheStats;
+import java.util.HashMap;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Optional;
+
+/**
+ * A memo table of transform results for models that can never change, like 
+ * enum constants and {@link InternedType interned types}. Such models are 
+ * often referenced many times in the same file and will then only be 
+ * rendered once.
+ * <p>
+ * Results are stored by the identity of the model and the transform used. 
+ * Since the result of a transform may depend on the state of the 
+ * {@link DependencyManager}, for an example on which types have been 
+ * imported, the table is cleared every time that state changes. If the
+ * dependency manager does not report its modification count, nothing is
+ * memoized.
+ * <p>
+ * This class is not thread safe. Every generator should have its own memo.
+ *
+ * @author Emil Forslund
+ * @since  2.4
+ */
+final class RenderMemo {
+    
+    private final Map<Key, Optional<?>> results;
+    private long modifications;
+    private long hits;
+    private long misses;
+    
+    /**
+     * Creates a new, empty memo.
+     */
+    RenderMemo() {
+        this.results       = new HashMap<>();
+        this.modifications = -1;
+    }
+    
+    /**
+     * Returns <code>true</code> if the result of rendering the specified 
+     * model can be memoized.
+     * 
+     * @param model  the model
+     * @return       <code>true</code> if the model is immutable
+     */
+    static boolean isMemoizable(Object model) {
+        return model instanceof Enum || model instanceof InternedType;
+    }
+    
+    /**
+     * Returns the memoized result of transforming the specified model using
+     * the specified transform, or <code>null</code> if the result is not 
+     * known for the current state of the dependency manager.
+     * 
+     * @param <B>        the result type
+     * @param mgr        the dependency manager used by the generator
+     * @param transform  the transform
+     * @param model      the model
+     * @return           the result or <code>null</code>
+     */
+    @SuppressWarnings("unchecked")
+    <B> Optional<B> get(DependencyManager mgr, Transform<?, B> transform, Object model) {
+        final long current = mgr.getModificationCount();
+        
+        if (current < 0) {
+            return null;
+        } else if (current != modifications) {
+            results.clear();
+            modifications = current;
+        }
+        
+        final Optional<B> result = (Optional<B>) results.get(new Key(model, transform));
+        
+        if (result == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Stores the result of transforming the specified model using the 
+     * specified transform. If the state of the dependency manager has changed
+     * since the result was looked up, it is not stored.
+     * 
+     * @param <B>        the result type
+     * @param mgr        the dependency manager used by the generator
+     * @param transform  the transform
+     * @param model      the model
+     * @param result     the result
+     */
+    <B> void put(DependencyManager mgr, Transform<?, B> transform, Object model, Optional<B> result) {
+        requireNonNull(result);
+        
+        if (mgr.getModificationCount() == modifications && modifications >= 0) {
+            results.put(new Key(model, transform), result);
+        }
+    }
+    
+    /**
+     * Returns the statistics of this memo.
+     * 
+     * @return  the statistics
+     */
+    CacheStats getStats() {
+        return new CacheStats(hits, misses, results.size());
+    }
+    
+    /**
+     * A key that compares models and transforms by identity.
+     */
+    private final static class Key {
+        
+        private final Object model;
+        private final Transform<?, ?> transform;
+
+        private Key(Object model, Transform<?, ?> transform) {
+            this.model     = requireNonNull(model);
+            this.transform = requireNonNull(transform);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(model) 
+                + System.identityHashCode(transform);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            } else if (!(obj instanceof Key)) {
+                return false;
+            }
+            
+            final Key other = (Key) obj;
+            return model == other.model && transform == other.transform;
+        }
+    }
+}
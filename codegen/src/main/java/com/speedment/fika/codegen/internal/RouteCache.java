@@ -0,0 +1,145 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.codegen.internal;
+
+import com.speedment.fika.codegen.Transform;
+import com.speedment.fika.codegen.TransformFactory;
+import com.speedment.fika.codegen.internal.util.CacheStats;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * A cache of resolved transform routes for a particular 
+ * {@link TransformFactory}. A route is the ordered list of 
+ * {@link BridgeTransform bridges} that lead from one model class to another.
+ * Resolving a route requires a recursive search of the transform graph, so
+ * the result is stored here the first time a (from, to)-pair is requested.
+ * <p>
+ * The cache is owned by the factory it represents and must be 
+ * {@link #invalidate() invalidated} whenever a new transform is installed in
+ * that factory, after the transform graph has been changed. Invalidating 
+ * replaces the map of routes with a new one. A route is always stored in 
+ * the map that was current before it was resolved, so a route that was 
+ * resolved before a concurrent install ends up in the discarded map and is
+ * never returned after the install.
+ *
+ * @author Emil Forslund
+ * @see    HasRouteCache
+ */
+public final class RouteCache {
+
+    private volatile Map<Route, List<Transform<?, ?>>> routes;
+    private final LongAdder hits;
+    private final LongAdder misses;
+
+    /**
+     * Creates a new, empty cache.
+     */
+    public RouteCache() {
+        this.routes     = new ConcurrentHashMap<>();
+        this.hits       = new LongAdder();
+        this.misses     = new LongAdder();
+    }
+
+    /**
+     * Returns the route between the specified classes. If the route has not
+     * been resolved before, the specified resolver is invoked and the result
+     * is stored in the cache.
+     * <p>
+     * The resolver should return an immutable list.
+     *
+     * @param from      the model class to transform from
+     * @param to        the model class to transform to
+     * @param resolver  resolves the route if it is not cached
+     * @return          the ordered list of transforms in the route
+     */
+    public List<Transform<?, ?>> get(Class<?> from, Class<?> to, 
+            Supplier<List<Transform<?, ?>>> resolver) {
+        
+        requireNonNull(resolver);
+        final Route key = new Route(from, to);
+        final Map<Route, List<Transform<?, ?>>> current = routes;
+        final List<Transform<?, ?>> cached = current.get(key);
+        
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        
+        misses.increment();
+        final List<Transform<?, ?>> resolved = requireNonNull(resolver.get());
+        
+        // If a transform was installed while resolving, the map has been 
+        // replaced and the result is stored in the discarded one.
+        final List<Transform<?, ?>> stored = current.putIfAbsent(key, resolved);
+        return stored == null ? resolved : stored;
+    }
+
+    /**
+     * Removes all the cached routes. This should be called every time the 
+     * transform graph of the owning factory is changed.
+     */
+    public void invalidate() {
+        routes = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns a snapshot of the hit and miss counters of this cache.
+     *
+     * @return  the statistics
+     */
+    public CacheStats getStats() {
+        return new CacheStats(hits.sum(), misses.sum(), routes.size());
+    }
+
+    /**
+     * Key used to identify a route.
+     */
+    private static final class Route {
+
+        private final Class<?> from;
+        private final Class<?> to;
+        private final int hash;
+
+        private Route(Class<?> from, Class<?> to) {
+            this.from = requireNonNull(from);
+            this.to   = requireNonNull(to);
+            this.hash = 31 * from.hashCode() + to.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            } else if (!(obj instanceof Route)) {
+                return false;
+            }
+
+            final Route other = (Route) obj;
+            return from.equals(other.from) && to.equals(other.to);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.codegen.internal;
+
+import com.speedment.fika.codegen.Generator;
+import com.speedment.fika.codegen.RenderSink;
+import com.speedment.fika.codegen.internal.util.ModelFingerprint;
+import com.speedment.fika.codegen.internal.util.OutputStats;
+import com.speedment.fika.codegen.internal.util.TempFiles;
+import com.speedment.fika.codegen.model.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import static java.util.Objects.requireNonNull;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Writes generated {@link File files} into a directory tree. The name of 
+ * each file is resolved against the root directory, so a file named
+ * <code>com/example/Foo.java</code> ends up in the corresponding package
+ * folder.
+ * <p>
+ * Files are rendered directly into a temporary file using 
+ * {@link Generator#render(Object, RenderSink)} and a buffered channel, so the
+ * complete code of a file is never held in memory. A hash of the bytes is 
+ * computed while they are written. If a file with the same size and hash 
+ * already exists, it is left untouched so that its modification time does 
+ * not trigger a new compilation. Otherwise the temporary file is moved into
+ * place, keeping the permissions of the file it replaces.
+ * <p>
+ * If the file already exists, its {@link ProtectedRegions} are read in a 
+ * single pass before the new file is rendered, and the hand-written rows in
+ * them are written into the new file directly.
+ * <p>
+ * This class is thread safe and can be used together with forked 
+ * generators, as long as each thread uses its own generator.
+ *
+ * @author Emil Forslund
+ * @since  2.4
+ */
+public final class SourceTreeWriter {
+    
+    private final static int BUFFER_SIZE = 8192;
+    
+    private final Path root;
+    private final LongAdder filesWritten, filesSkipped, bytesWritten;
+    
+    /**
+     * Creates a writer that writes files into the specified root directory.
+     * Directories are created as they are needed.
+     * 
+     * @param root  the root directory
+     */
+    public SourceTreeWriter(Path root) {
+        this.root         = requireNonNull(root);
+        this.filesWritten = new LongAdder();
+        this.filesSkipped = new LongAdder();
+        this.bytesWritten = new LongAdder();
+    }
+    
+    /**
+     * Renders the specified file and writes it into the directory tree. If 
+     * an identical file already exists, it is not modified. The rows of any
+     * protected regions in the existing file are kept.
+     * 
+     * @param gen   the generator to render the file with
+     * @param file  the file to write
+     * @return      <code>true</code> if the file was written, or 
+     *              <code>false</code> if it was already up to date or could
+     *              not be rendered
+     * 
+     * @throws UncheckedIOException     if the file could not be written
+     * @throws IllegalArgumentException if the protected regions of the 
+     *                                  existing file are malformed
+     */
+    public boolean write(Generator gen, File file) {
+        requireNonNull(gen);
+        requireNonNull(file);
+        
+        final Path target = root.resolve(file.getName());
+        
+        try {
+            final Path folder = target.toAbsolutePath().getParent();
+            Files.createDirectories(folder);
+            
+            final ProtectedRegions regions = ProtectedRegions.read(target);
+            final Path temp = TempFiles.createFor(target);
+            
+            try {
+                final DigestChannel channel = 
+                    new DigestChannel(FileChannel.open(temp, WRITE));
+                
+                try (final Writer writer = Channels.newWriter(
+                        channel, StandardCharsets.UTF_8.newEncoder(), BUFFER_SIZE)) {
+                    
+                    if (!gen.render(file, RenderSink.of(writer, regions))) {
+                        return false;
+                    }
+                }
+                
+                final byte[] hash = channel.digest.digest();
+                
+                if (isIdentical(target, channel.size, hash)) {
+                    filesSkipped.increment();
+                    return false;
+                }
+                
+                TempFiles.moveInto(temp, target);
+                
+                filesWritten.increment();
+                bytesWritten.add(channel.size);
+                return true;
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(
+                "Could not write file '" + target + "'.", ex
+            );
+        }
+    }
+    
+    /**
+     * Returns a snapshot of the number of files and bytes written since this
+     * instance was created.
+     * 
+     * @return  the statistics
+     */
+    public OutputStats getStats() {
+        return new OutputStats(
+            filesWritten.sum(),
+            filesSkipped.sum(),
+            bytesWritten.sum()
+        );
+    }
+    
+    /**
+     * Returns <code>true</code> if the specified file exists and has the 
+     * specified size and hash. The file is only read if the size matches.
+     * 
+     * @param path  the file to check
+     * @param size  the expected size in bytes
+     * @param hash  the expected hash
+     * @return      <code>true</code> if the file is identical
+     * 
+     * @throws IOException  if the file could not be read
+     */
+    private static boolean isIdentical(Path path, long size, byte[] hash) 
+    throws IOException {
+        try (final FileChannel channel = FileChannel.open(path, READ)) {
+            if (channel.size() != size) {
+                return false;
+            }
+            
+            final MessageDigest md = ModelFingerprint.newDigest();
+            final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                md.update(buffer);
+                buffer.clear();
+            }
+            
+            return Arrays.equals(hash, md.digest());
+        } catch (final NoSuchFileException ex) {
+            return false;
+        }
+    }
+    
+    /**
+     * A channel that computes a hash and counts the bytes that are written 
+     * through it.
+     */
+    private final static class DigestChannel implements WritableByteChannel {
+        
+        private final WritableByteChannel inner;
+        private final MessageDigest digest;
+        private long size;
+
+        private DigestChannel(WritableByteChannel inner) {
+            this.inner  = inner;
+            this.digest = ModelFingerprint.newDigest();
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            final ByteBuffer written = src.duplicate();
+            final int count = inner.write(src);
+            
+            written.limit(written.position() + count);
+            digest.update(written);
+            size += count;
+            
+            return count;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return inner.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+            inner.close();
+        }
+    }
+}
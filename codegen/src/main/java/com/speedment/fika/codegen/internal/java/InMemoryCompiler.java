@@ -0,0 +1,372 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.codegen.internal.java;
+
+import com.speedment.fika.codegen.Generator;
+import com.speedment.fika.codegen.internal.util.CacheStats;
+import com.speedment.fika.codegen.internal.util.ModelFingerprint;
+import static com.speedment.fika.codegen.internal.util.NullUtil.requireNonNullElements;
+import com.speedment.fika.codegen.model.File;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import static java.util.Collections.unmodifiableMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+/**
+ * A backend that turns {@link File} models into loaded classes without 
+ * writing anything to disk. The file is rendered by a {@link Generator}, 
+ * typically a {@link JavaGenerator}, and the code is then compiled in memory
+ * using the <code>javax.tools</code> compiler API. The resulting classes are 
+ * defined by a new class loader for every file.
+ * <p>
+ * Compiled classes are cached by the {@link ModelFingerprint} of the file, 
+ * so compiling an equal model again returns the same classes without 
+ * invoking the compiler. The classes of a compilation are always loaded 
+ * from that compilation, even if a class with the same name can be found
+ * by the parent class loader. The cache is only valid as long as the 
+ * transforms of the generator are not changed.
+ * <p>
+ * The generated code is compiled against the class path of the current JVM
+ * unless other compiler options are specified. This requires a JDK, since
+ * the compiler is not available in a plain JRE.
+ * <p>
+ * This class is thread safe. Lookups in the cache are lock-free, but files 
+ * that have to be compiled are compiled one at a time.
+ *
+ * @author Emil Forslund
+ * @since  2.4
+ */
+public final class InMemoryCompiler {
+    
+    private final static String JAVA_SUFFIX = ".java";
+    
+    private final Generator gen;
+    private final ClassLoader parent;
+    private final List<String> options;
+    private final Map<String, Map<String, Class<?>>> compiled;
+    private final LongAdder hits, misses;
+    
+    /**
+     * Creates a compiler that renders the files using a new 
+     * {@link JavaGenerator} and that loads the compiled classes in a child
+     * of the class loader of this class.
+     */
+    public InMemoryCompiler() {
+        this(new JavaGenerator(), InMemoryCompiler.class.getClassLoader());
+    }
+    
+    /**
+     * Creates a compiler that renders the files using the specified generator
+     * and that loads the compiled classes in children of the specified class
+     * loader.
+     * 
+     * @param gen      the generator to render files with
+     * @param parent   the parent of the class loaders of the compiled classes
+     * @param options  additional options to the compiler, for an example 
+     *                 <code>"-classpath"</code> followed by the path
+     */
+    public InMemoryCompiler(Generator gen, ClassLoader parent, String... options) {
+        this.gen      = requireNonNull(gen);
+        this.parent   = requireNonNull(parent);
+        this.options  = new ArrayList<>();
+        this.compiled = new ConcurrentHashMap<>();
+        this.hits     = new LongAdder();
+        this.misses   = new LongAdder();
+        
+        Collections.addAll(this.options, requireNonNullElements(options));
+    }
+    
+    /**
+     * Compiles the specified file and returns all the classes declared in 
+     * it, including nested classes, by their binary name. If an equal file
+     * has been compiled before, the classes from that compilation are 
+     * returned.
+     * 
+     * @param file  the file to compile
+     * @return      the compiled classes by their binary name
+     * 
+     * @throws IllegalArgumentException  if the file could not be rendered or
+     *                                   did not compile
+     * @throws IllegalStateException     if no compiler is available
+     */
+    public Map<String, Class<?>> compile(File file) {
+        requireNonNull(file);
+        
+        final String key = ModelFingerprint.of(file);
+        final Map<String, Class<?>> cached = compiled.get(key);
+        
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        
+        synchronized (this) {
+            final Map<String, Class<?>> again = compiled.get(key);
+            if (again != null) {
+                hits.increment();
+                return again;
+            }
+            
+            misses.increment();
+            final Map<String, Class<?>> classes = doCompile(file);
+            compiled.put(key, classes);
+            return classes;
+        }
+    }
+    
+    /**
+     * Compiles the specified file and returns the class with the specified
+     * binary name from it.
+     * 
+     * @param file       the file to compile
+     * @param className  the binary name of the class, for an example
+     *                   <code>"com.example.Foo$Bar"</code>
+     * @return           the compiled class
+     * 
+     * @throws IllegalArgumentException  if the file could not be rendered, 
+     *                                   did not compile or did not declare
+     *                                   the class
+     * @throws IllegalStateException     if no compiler is available
+     */
+    public Class<?> compile(File file, String className) {
+        requireNonNull(className);
+        
+        final Class<?> result = compile(file).get(className);
+        if (result == null) {
+            throw new IllegalArgumentException(
+                "The file '" + file.getName() + 
+                "' does not declare a class named '" + className + "'."
+            );
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Returns a snapshot of the hits and misses of the compilation cache.
+     * 
+     * @return  the statistics
+     */
+    public CacheStats getStats() {
+        return new CacheStats(hits.sum(), misses.sum(), compiled.size());
+    }
+    
+    /**
+     * Removes all compiled classes from the cache. Classes that have already
+     * been returned will remain loaded as long as they are referenced.
+     */
+    public void clear() {
+        compiled.clear();
+    }
+    
+    private Map<String, Class<?>> doCompile(File file) {
+        final JavaCompiler javac = ToolProvider.getSystemJavaCompiler();
+        if (javac == null) {
+            throw new IllegalStateException(
+                "No Java compiler is available. Make sure the application " +
+                "is running on a JDK and not a JRE."
+            );
+        }
+        
+        final String code = gen.on(file).orElseThrow(() -> 
+            new IllegalArgumentException(
+                "The file '" + file.getName() + "' could not be rendered."
+            )
+        );
+        
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        final Map<String, ClassFile> output = new LinkedHashMap<>();
+        
+        try (final StandardJavaFileManager standard = 
+                javac.getStandardFileManager(diagnostics, Locale.ROOT, null);
+            final MemoryFileManager manager = new MemoryFileManager(standard, output)) {
+            
+            final boolean success = javac.getTask(null, manager, diagnostics, 
+                options, null, Collections.singletonList(
+                    new SourceFile(sourceName(file), code)
+                )
+            ).call();
+            
+            if (!success) {
+                final StringBuilder message = new StringBuilder()
+                    .append("The file '").append(file.getName())
+                    .append("' did not compile:");
+                
+                for (final Diagnostic<? extends JavaFileObject> d : diagnostics.getDiagnostics()) {
+                    if (d.getKind() == Diagnostic.Kind.ERROR) {
+                        message.append("\n  line ").append(d.getLineNumber())
+                            .append(": ").append(d.getMessage(Locale.ROOT));
+                    }
+                }
+                
+                throw new IllegalArgumentException(message.toString());
+            }
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        
+        final MemoryClassLoader loader = new MemoryClassLoader(parent, output);
+        final Map<String, Class<?>> classes = new LinkedHashMap<>();
+        
+        for (final String className : output.keySet()) {
+            try {
+                classes.put(className, loader.loadClass(className));
+            } catch (final ClassNotFoundException ex) {
+                throw new IllegalStateException(
+                    "The compiled class '" + className + "' could not be loaded.", ex
+                );
+            }
+        }
+        
+        return unmodifiableMap(classes);
+    }
+    
+    private static String sourceName(File file) {
+        final String name = file.getName().replace('\\', '/');
+        return name.endsWith(JAVA_SUFFIX) ? name : name + JAVA_SUFFIX;
+    }
+    
+    /**
+     * The rendered code of a file, given to the compiler as a source file.
+     */
+    private final static class SourceFile extends SimpleJavaFileObject {
+        
+        private final String code;
+        
+        private SourceFile(String name, String code) {
+            super(URI.create("string:///" + name), Kind.SOURCE);
+            this.code = code;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return code;
+        }
+    }
+    
+    /**
+     * A class file produced by the compiler that is kept in memory.
+     */
+    private final static class ClassFile extends SimpleJavaFileObject {
+        
+        private final ByteArrayOutputStream bytes;
+        
+        private ClassFile(String className) {
+            super(URI.create("bytes:///" + className.replace('.', '/') 
+                + Kind.CLASS.extension), Kind.CLASS);
+            this.bytes = new ByteArrayOutputStream();
+        }
+
+        @Override
+        public OutputStream openOutputStream() {
+            return bytes;
+        }
+    }
+    
+    /**
+     * A file manager that reads classes from the standard file manager but
+     * writes the compiled classes to memory.
+     */
+    private final static class MemoryFileManager 
+    extends ForwardingJavaFileManager<StandardJavaFileManager> {
+        
+        private final Map<String, ClassFile> output;
+        
+        private MemoryFileManager(StandardJavaFileManager standard, Map<String, ClassFile> output) {
+            super(standard);
+            this.output = output;
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(JavaFileManager.Location location, 
+                String className, JavaFileObject.Kind kind, FileObject sibling) {
+            
+            final ClassFile file = new ClassFile(className);
+            output.put(className, file);
+            return file;
+        }
+    }
+    
+    /**
+     * A class loader that defines the classes of one compilation. The 
+     * compiled classes are looked up before the parent is asked, so that a
+     * class with the same name on the class path of the parent does not 
+     * hide the class that was just compiled.
+     */
+    private final static class MemoryClassLoader extends ClassLoader {
+        
+        private final Map<String, ClassFile> classes;
+
+        private MemoryClassLoader(ClassLoader parent, Map<String, ClassFile> classes) {
+            super(parent);
+            this.classes = classes;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) 
+        throws ClassNotFoundException {
+            if (!classes.containsKey(name)) {
+                return super.loadClass(name, resolve);
+            }
+            
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> loaded = findLoadedClass(name);
+                if (loaded == null) {
+                    loaded = findClass(name);
+                }
+                
+                if (resolve) {
+                    resolveClass(loaded);
+                }
+                
+                return loaded;
+            }
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            final ClassFile file = classes.get(name);
+            if (file == null) {
+                throw new ClassNotFoundException(name);
+            }
+            
+            final byte[] bytes = file.bytes.toByteArray();
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+}
@@ -70,6 +70,23 @@ public class JavaGenerator extends DefaultGenerator {
 		super(new DefaultDependencyManager(IGNORED), requireNonNullElements(factories));
 	}
 
+    /**
+     * Instantiates a fork of the specified JavaGenerator.
+     * 
+     * @param prototype  the generator to fork
+     */
+    private JavaGenerator(JavaGenerator prototype) {
+        super(prototype, prototype.getDependencyMgr().fork());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public JavaGenerator fork() {
+        return new JavaGenerator(this);
+    }
+
     private static Pattern[] compileAll(String... regexp) {
         final Set<Pattern> patterns = Stream.of(regexp)
             .map(Pattern::compile)
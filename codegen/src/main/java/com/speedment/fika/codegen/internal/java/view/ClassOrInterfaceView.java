@@ -17,8 +17,10 @@
 package com.speedment.fika.codegen.internal.java.view;
 
 import com.speedment.fika.codegen.Generator;
-import com.speedment.fika.codegen.Transform;
+import com.speedment.fika.codegen.RenderSink;
+import com.speedment.fika.codegen.StreamingTransform;
 import com.speedment.fika.codegen.model.ClassOrInterface;
+import com.speedment.fika.codegen.model.Constructor;
 import com.speedment.fika.codegen.internal.java.view.trait.HasAnnotationUsageView;
 import com.speedment.fika.codegen.internal.java.view.trait.HasClassesView;
 import com.speedment.fika.codegen.internal.java.view.trait.HasFieldsView;
@@ -30,11 +32,9 @@ import com.speedment.fika.codegen.internal.java.view.trait.HasMethodsView;
 import com.speedment.fika.codegen.internal.java.view.trait.HasModifiersView;
 import com.speedment.fika.codegen.internal.java.view.trait.HasNameView;
 import static com.speedment.fika.codegen.internal.util.Formatting.*;
-import static com.speedment.fika.codegen.internal.util.NullUtil.requireNonNullElements;
 import static java.util.Objects.requireNonNull;
-import java.util.Optional;
-import static java.util.stream.Collectors.joining;
-import java.util.stream.Stream;
+import java.util.List;
+import static java.util.stream.Collectors.toList;
 
 
 /**
@@ -46,7 +46,7 @@ import java.util.stream.Stream;
  * @author Emil Forslund
  */
 abstract class ClassOrInterfaceView<M extends ClassOrInterface<M>> implements 
-    Transform<M, String>, HasNameView<M>, HasModifiersView<M>, HasJavadocView<M>, 
+    StreamingTransform<M>, HasNameView<M>, HasModifiersView<M>, HasJavadocView<M>, 
     HasGenericsView<M>, HasImplementsView<M>, HasInitalizersView<M>, HasMethodsView<M>,
     HasClassesView<M>, HasAnnotationUsageView<M>, HasFieldsView<M> {
     
@@ -105,57 +105,97 @@ abstract class ClassOrInterfaceView<M extends ClassOrInterface<M>> implements
 	protected abstract String renderSupertype(Generator gen, M model);
     
     /**
-     * Should render the constructors part of the code and return it.
+     * Returns the constructors that should be rendered for the specified model.
      * 
-     * @param gen    the generator to use
      * @param model  the model of the component
-     * @return       generated constructors or an empty string if there shouldn't
-     *               be any
+     * @return       the constructors or an empty list if there shouldn't be any
      */
-    protected abstract String renderConstructors(Generator gen, M model);
+    protected abstract List<Constructor> constructorsOf(M model);
     
     /**
      * {@inheritDoc}
+     * <p>
+     * The header of the class is rendered as strings, but the constructors, 
+     * initializers, methods and inner classes are streamed directly into the
+     * sink since they make up the bulk of the code.
      */
 	@Override
-	public Optional<String> transform(Generator gen, M model) {
+	public void render(Generator gen, M model, RenderSink sink) {
         requireNonNull(gen);
         requireNonNull(model);
+        requireNonNull(sink);
         
-		return Optional.of(renderJavadoc(gen, model) +
-            renderAnnotations(gen, model) +
-			renderModifiers(gen, model) +
-            renderDeclarationType() + 
-            renderName(gen, model) + 
-            renderGenerics(gen, model) +
-            renderSupertype(gen, model) +
-			renderInterfaces(gen, model) +
+		sink.write(renderJavadoc(gen, model))
+            .write(renderAnnotations(gen, model))
+			.write(renderModifiers(gen, model))
+            .write(renderDeclarationType())
+            .write(renderName(gen, model))
+            .write(renderGenerics(gen, model))
+            .write(renderSupertype(gen, model))
+			.write(renderInterfaces(gen, model))
                 
             // Code
-            block(nl() + separate(
-				onBeforeFields(gen, model), // Enums have constants here.´
-                renderFields(gen, model),
-				renderConstructors(gen, model),
-                renderInitalizers(gen, model),
-				renderMethods(gen, model),
-				renderClasses(gen, model)
-			))
-		);
+            .write(BS).indent().nl().nl();
+        
+        boolean empty = true;
+        empty = separate(sink, empty, onBeforeFields(gen, model)); // Enums have constants here.
+        empty = separate(sink, empty, renderFields(gen, model));
+        empty = separate(gen, sink, empty, constructorsOf(model));
+        empty = separate(gen, sink, empty, model.getInitalizers());
+        empty = separate(gen, sink, empty, model.getMethods().stream()
+            .map(this::wrapMethod)
+            .collect(toList())
+        );
+        separate(gen, sink, empty, model.getClasses());
+        
+        sink.outdent().nl().write(BE);
 	}
 	
     /**
-     * Converts the specified elements into strings using their
-     * <code>toString</code>-method and combines them with two new-line-characters.
-     * Empty strings will be discarded.
+     * Writes the specified text to the sink, separating it from any previous
+     * section with two new-line-characters. Empty strings will be discarded.
      * 
-     * @param strings  the strings to combine
-     * @return         the combined string
+     * @param sink   the sink to write to
+     * @param empty  <code>true</code> if nothing has been written yet
+     * @param text   the text to write
+     * @return       <code>true</code> if nothing has been written yet
      */
-	private String separate(Object... strings) {
-        requireNonNullElements(strings);
-		return Stream.of(strings)
-			.map(Object::toString)
-			.filter(s -> s.length() > 0)
-			.collect(joining(dnl()));
+	private static boolean separate(RenderSink sink, boolean empty, String text) {
+        requireNonNull(text);
+        
+        if (text.isEmpty()) {
+            return empty;
+        }
+        
+        if (!empty) {
+            sink.write(dnl());
+        }
+        
+        sink.write(text);
+        return false;
 	}
+    
+    /**
+     * Renders each of the specified models into the sink, separating them 
+     * from each other and from any previous section with two 
+     * new-line-characters.
+     * 
+     * @param gen     the generator to use
+     * @param sink    the sink to write to
+     * @param empty   <code>true</code> if nothing has been written yet
+     * @param models  the models to render
+     * @return        <code>true</code> if nothing has been written yet
+     */
+    private static boolean separate(Generator gen, RenderSink sink, boolean empty, List<?> models) {
+        for (final Object model : models) {
+            if (!empty) {
+                sink.write(dnl());
+            }
+            
+            gen.render(model, sink);
+            empty = false;
+        }
+        
+        return empty;
+    }
 }
\ No newline at end of file
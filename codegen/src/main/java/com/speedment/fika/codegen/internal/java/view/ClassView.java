@@ -18,9 +18,10 @@ package com.speedment.fika.codegen.internal.java.view;
 
 import com.speedment.fika.codegen.Generator;
 import com.speedment.fika.codegen.model.Class;
+import com.speedment.fika.codegen.model.Constructor;
 import static com.speedment.fika.codegen.internal.util.Formatting.*;
 import static java.util.Objects.requireNonNull;
-import static java.util.stream.Collectors.joining;
+import java.util.List;
 
 /**
  * Transforms from a {@link Class} to java code.
@@ -64,11 +65,7 @@ public final class ClassView extends ClassOrInterfaceView<Class> {
      * {@inheritDoc}
      */
     @Override
-    protected String renderConstructors(Generator gen, Class model) {
-        requireNonNull(gen);
-        requireNonNull(model);
-        
-		return gen.onEach(model.getConstructors())
-            .collect(joining(dnl()));
+    protected List<Constructor> constructorsOf(Class model) {
+        return requireNonNull(model).getConstructors();
     }
 }
\ No newline at end of file
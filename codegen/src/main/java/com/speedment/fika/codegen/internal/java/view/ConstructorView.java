@@ -17,11 +17,13 @@
 package com.speedment.fika.codegen.internal.java.view;
 
 import com.speedment.fika.codegen.Generator;
-import com.speedment.fika.codegen.Transform;
+import com.speedment.fika.codegen.RenderSink;
+import com.speedment.fika.codegen.StreamingTransform;
 import static com.speedment.fika.codegen.internal.util.CollectorUtil.joinIfNotEmpty;
 import com.speedment.fika.codegen.model.Constructor;
 import com.speedment.fika.codegen.model.trait.HasName;
 import com.speedment.fika.codegen.internal.util.Formatting;
+import com.speedment.fika.codegen.internal.util.ModifierTable;
 import static com.speedment.fika.codegen.internal.util.Formatting.*;
 import static java.util.Objects.requireNonNull;
 import java.util.Optional;
@@ -32,7 +34,7 @@ import java.util.stream.Collectors;
  * 
  * @author Emil Forslund
  */
-public final class ConstructorView implements Transform<Constructor, String> {
+public final class ConstructorView implements StreamingTransform<Constructor> {
     
     private final static String THROWS = "throws ";
 
@@ -40,27 +42,22 @@ public final class ConstructorView implements Transform<Constructor, String> {
      * {@inheritDoc}
      */
 	@Override
-	public Optional<String> transform(Generator gen, Constructor model) {
+	public void render(Generator gen, Constructor model, RenderSink sink) {
         requireNonNull(gen);
         requireNonNull(model);
+        requireNonNull(sink);
         
-		return Optional.of(
-			ifelse(gen.on(model.getJavadoc()), s -> s + nl(), EMPTY) +
-			gen.onEach(model.getModifiers()).collect(joinIfNotEmpty(SPACE, EMPTY, SPACE)) +
-			renderName(gen, model)
+		sink.write(ifelse(gen.on(model.getJavadoc()), s -> s + nl(), EMPTY))
+			.write(ModifierTable.render(model.getModifiers()))
+			.write(renderName(gen, model)
                 .orElseThrow(() -> new UnsupportedOperationException(
                     "Could not find a nameable parent of constructor."
-                )) +
-			gen.onEach(model.getFields()).collect(
+                )))
+			.write(gen.onEach(model.getFields()).collect(
 				Collectors.joining(COMMA_SPACE, PS, PE)
-			) + SPACE + 
-            gen.onEach(model.getExceptions()).collect(joinIfNotEmpty(COMMA_SPACE, THROWS, SPACE)) +
-            block(
-				model.getCode().stream().collect(
-					Collectors.joining(nl())
-				)
-			)
-		);
+			)).write(SPACE)
+            .write(gen.onEach(model.getExceptions()).collect(joinIfNotEmpty(COMMA_SPACE, THROWS, SPACE)))
+            .block(model.getCode());
 	}
 	
     /**
@@ -18,10 +18,11 @@ package com.speedment.fika.codegen.internal.java.view;
 
 import com.speedment.fika.codegen.Generator;
 import com.speedment.fika.codegen.model.Enum;
+import com.speedment.fika.codegen.model.Constructor;
 import static com.speedment.fika.codegen.internal.util.Formatting.*;
 import static com.speedment.fika.codegen.internal.util.CollectorUtil.joinIfNotEmpty;
 import static java.util.Objects.requireNonNull;
-import static java.util.stream.Collectors.joining;
+import java.util.List;
 
 /**
  * Transforms from an {@link Enum} to java code.
@@ -78,11 +79,7 @@ public final class EnumView extends ClassOrInterfaceView<Enum> {
      * {@inheritDoc}
      */
     @Override
-    protected String renderConstructors(Generator gen, Enum model) {
-        requireNonNull(gen);
-        requireNonNull(model);
-        
-        return gen.onEach(model.getConstructors())
-            .collect(joining(dnl()));
+    protected List<Constructor> constructorsOf(Enum model) {
+        return requireNonNull(model).getConstructors();
     }
 }
\ No newline at end of file
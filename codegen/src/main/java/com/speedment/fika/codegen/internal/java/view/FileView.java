@@ -18,22 +18,33 @@ package com.speedment.fika.codegen.internal.java.view;
 
 import com.speedment.fika.codegen.DependencyManager;
 import com.speedment.fika.codegen.Generator;
-import com.speedment.fika.codegen.Transform;
+import com.speedment.fika.codegen.RenderSink;
+import com.speedment.fika.codegen.StreamingTransform;
+import com.speedment.fika.codegen.model.ClassOrInterface;
 import com.speedment.fika.codegen.model.File;
 import com.speedment.fika.codegen.internal.java.view.trait.HasClassesView;
 import com.speedment.fika.codegen.internal.java.view.trait.HasImportsView;
 import com.speedment.fika.codegen.internal.java.view.trait.HasJavadocView;
+import com.speedment.fika.codegen.internal.ProtectedRegions;
 import com.speedment.fika.codegen.internal.util.Formatting;
 import static com.speedment.fika.codegen.internal.util.Formatting.*;
 import static java.util.Objects.requireNonNull;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
  * Transforms from a {@link File} to java code.
+ * <p>
+ * If the sink has protected regions that were not used by any of the 
+ * classes in the file, they are written as line comments at the end of the 
+ * file so that no hand-written code is lost. If a region with the same name is
+ * added to the model again, the rows will be moved back into it the next 
+ * time the file is generated.
  * 
  * @author Emil Forslund
  */
-public final class FileView implements Transform<File, String>, HasJavadocView<File>, 
+public final class FileView implements StreamingTransform<File>, HasJavadocView<File>, 
     HasClassesView<File>, HasImportsView<File> {
     
 	private final static String PACKAGE_STRING = "package ";
@@ -42,9 +53,10 @@ public final class FileView implements Transform<File, String>, HasJavadocView<F
      * {@inheritDoc}
      */
 	@Override
-	public Optional<String> transform(Generator gen, File model) {
+	public void render(Generator gen, File model, RenderSink sink) {
         requireNonNull(gen);
         requireNonNull(model);
+        requireNonNull(sink);
         
 		final DependencyManager mgr = gen.getDependencyMgr();
         mgr.clearDependencies();
@@ -55,18 +67,42 @@ public final class FileView implements Transform<File, String>, HasJavadocView<F
         
         mgr.setCurrentPackage(pack);
 
-		final Optional<String> view = Optional.of(
-			renderJavadoc(gen, model) +
-			renderPackage(model) +
-            renderImports(gen, model) +
-            renderClasses(gen, model)
-		);
-		
-		mgr.unsetCurrentPackage(pack);
-		
-		return view;
+        try {
+            sink.write(renderJavadoc(gen, model))
+                .write(renderPackage(model))
+                .write(renderImports(gen, model));
+            
+            boolean first = true;
+            for (final ClassOrInterface<?> cls : model.getClasses()) {
+                if (first) {
+                    first = false;
+                } else {
+                    sink.write(dnl());
+                }
+                
+                gen.render(cls, sink);
+            }
+            
+            renderRemaining(sink);
+        } finally {
+            mgr.unsetCurrentPackage(pack);
+        }
 	}
     
+    /**
+     * Writes any protected regions of the sink that has not been taken by 
+     * the classes in the file as line comments at the end of the file.
+     * 
+     * @param sink  the sink to write to
+     */
+    private static void renderRemaining(RenderSink sink) {
+        final Map<String, List<String>> remaining = sink.getRemainingRegions();
+        
+        if (!remaining.isEmpty()) {
+            ProtectedRegions.writeOrphaned(sink.write(dnl()), remaining);
+        }
+    }
+    
     /**
      * Renders the 'package'-part of the file. In java, the package should only
      * be present if the file is located in a directory in the sources folder.
@@ -21,8 +21,8 @@ import com.speedment.fika.codegen.Generator;
 import com.speedment.fika.codegen.Transform;
 import com.speedment.fika.codegen.model.Import;
 import com.speedment.fika.codegen.model.Type;
+import com.speedment.fika.codegen.internal.util.ModifierTable;
 import static com.speedment.fika.codegen.internal.util.Formatting.*;
-import static com.speedment.fika.codegen.internal.util.CollectorUtil.joinIfNotEmpty;
 import static java.util.Objects.requireNonNull;
 import java.util.Optional;
 
@@ -46,7 +46,7 @@ public final class ImportView implements Transform<Import, String> {
         if (shouldImport(gen, model.getType())) {
             return Optional.of(
                 IMPORT_STRING
-                + gen.onEach(model.getModifiers()).collect(joinIfNotEmpty(SPACE, EMPTY, SPACE))
+                + ModifierTable.render(model.getModifiers())
                 + model.getType().getName()
                 + model.getStaticMember().map(str -> DOT + str).orElse(EMPTY)
                 + SC
@@ -17,31 +17,30 @@
 package com.speedment.fika.codegen.internal.java.view;
 
 import com.speedment.fika.codegen.Generator;
-import com.speedment.fika.codegen.Transform;
+import com.speedment.fika.codegen.RenderSink;
+import com.speedment.fika.codegen.StreamingTransform;
 import com.speedment.fika.codegen.model.Initializer;
+import com.speedment.fika.codegen.internal.util.ModifierTable;
 import static com.speedment.fika.codegen.internal.util.Formatting.*;
-import static com.speedment.fika.codegen.internal.util.CollectorUtil.joinIfNotEmpty;
 import static java.util.Objects.requireNonNull;
-import java.util.Optional;
 
 /**
  * Transforms from an {@link Initializer} to java code.
  * 
  * @author Emil Forslund
  */
-public final class InitalizerView implements Transform<Initializer, String> {
+public final class InitalizerView implements StreamingTransform<Initializer> {
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public Optional<String> transform(Generator gen, Initializer model) {
+    public void render(Generator gen, Initializer model, RenderSink sink) {
         requireNonNull(gen);
         requireNonNull(model);
+        requireNonNull(sink);
         
-        return Optional.of(
-            gen.onEach(model.getModifiers()).collect(joinIfNotEmpty(SPACE, EMPTY, SPACE)) +
-            block(model.getCode().stream())
-        );
+        sink.write(ModifierTable.render(model.getModifiers()))
+            .block(model.getCode());
     }
 }
\ No newline at end of file
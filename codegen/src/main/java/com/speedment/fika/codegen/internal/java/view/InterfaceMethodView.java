@@ -17,7 +17,8 @@
 package com.speedment.fika.codegen.internal.java.view;
 
 import com.speedment.fika.codegen.Generator;
-import com.speedment.fika.codegen.Transform;
+import com.speedment.fika.codegen.RenderSink;
+import com.speedment.fika.codegen.StreamingTransform;
 import static com.speedment.fika.codegen.internal.util.CollectorUtil.joinIfNotEmpty;
 import com.speedment.fika.codegen.model.InterfaceMethod;
 import static com.speedment.fika.codegen.model.modifier.Modifier.*;
@@ -27,11 +28,9 @@ import static com.speedment.fika.codegen.internal.util.Formatting.PE;
 import static com.speedment.fika.codegen.internal.util.Formatting.PS;
 import static com.speedment.fika.codegen.internal.util.Formatting.SC;
 import static com.speedment.fika.codegen.internal.util.Formatting.SPACE;
-import static com.speedment.fika.codegen.internal.util.Formatting.block;
 import static com.speedment.fika.codegen.internal.util.Formatting.ifelse;
 import static com.speedment.fika.codegen.internal.util.Formatting.nl;
 import static java.util.Objects.requireNonNull;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -39,7 +38,7 @@ import java.util.stream.Collectors;
  * 
  * @author Emil Forslund
  */
-public final class InterfaceMethodView implements Transform<InterfaceMethod, String> {
+public final class InterfaceMethodView implements StreamingTransform<InterfaceMethod> {
     
     private final static String THROWS = " throws ";
     
@@ -47,34 +46,36 @@ public final class InterfaceMethodView implements Transform<InterfaceMethod, Str
      * {@inheritDoc}
      */
 	@Override
-	public Optional<String> transform(Generator gen, InterfaceMethod model) {
+	public void render(Generator gen, InterfaceMethod model, RenderSink sink) {
         requireNonNull(gen);
         requireNonNull(model);
+        requireNonNull(sink);
         
-		return Optional.of(ifelse(gen.on(model.getJavadoc()), s -> s + nl(), EMPTY) +
-            
-            gen.onEach(model.getAnnotations()).collect(joinIfNotEmpty(nl(), EMPTY, nl())) +
+		sink.write(ifelse(gen.on(model.getJavadoc()), s -> s + nl(), EMPTY))
+            .write(gen.onEach(model.getAnnotations()).collect(joinIfNotEmpty(nl(), EMPTY, nl())));
 					
-			// The only modifiers allowed are default and static
-			(model.getModifiers().contains(DEFAULT) ? gen.on(DEFAULT).orElse(EMPTY) + SPACE : EMPTY) +
-			(model.getModifiers().contains(STATIC) ? gen.on(STATIC).orElse(EMPTY) + SPACE : EMPTY) +
+		// The only modifiers allowed are default and static
+		if (model.getModifiers().contains(DEFAULT)) {
+            sink.write(gen.on(DEFAULT).orElse(EMPTY)).write(SPACE);
+        }
+        
+		if (model.getModifiers().contains(STATIC)) {
+            sink.write(gen.on(STATIC).orElse(EMPTY)).write(SPACE);
+        }
 			
-			gen.on(model.getType()).orElse(EMPTY) + SPACE +
-			model.getName() +
-			gen.onEach(model.getFields()).collect(
+		sink.write(gen.on(model.getType()).orElse(EMPTY)).write(SPACE)
+			.write(model.getName())
+			.write(gen.onEach(model.getFields()).collect(
 				Collectors.joining(COMMA_SPACE, PS, PE)
-			) +
-            
-            gen.onEach(model.getExceptions()).collect(joinIfNotEmpty(COMMA_SPACE, THROWS, EMPTY)) +
+			))
+            .write(gen.onEach(model.getExceptions()).collect(joinIfNotEmpty(COMMA_SPACE, THROWS, EMPTY)));
 					
-			// Append body only if it is either default or static.
-			(model.getModifiers().contains(DEFAULT) 
-			|| model.getModifiers().contains(STATIC) ?
-			SPACE + block(
-				model.getCode().stream().collect(
-					Collectors.joining(nl())
-				)
-			) : SC)
-		);
+		// Append body only if it is either default or static.
+		if (model.getModifiers().contains(DEFAULT) 
+		||  model.getModifiers().contains(STATIC)) {
+            sink.write(SPACE).block(model.getCode());
+        } else {
+            sink.write(SC);
+        }
 	}
-}
+}
\ No newline at end of file
@@ -17,11 +17,13 @@
 package com.speedment.fika.codegen.internal.java.view;
 
 import com.speedment.fika.codegen.Generator;
+import com.speedment.fika.codegen.model.Constructor;
 import com.speedment.fika.codegen.model.Interface;
 import com.speedment.fika.codegen.model.Method;
 import com.speedment.fika.codegen.internal.model.InterfaceMethodImpl;
 import com.speedment.fika.codegen.internal.util.Formatting;
-import static com.speedment.fika.codegen.internal.util.Formatting.EMPTY;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Transforms from an {@link Interface} to java code.
@@ -66,7 +68,7 @@ public final class InterfaceView extends ClassOrInterfaceView<Interface> {
      * {@inheritDoc}
      */
     @Override
-    protected String renderConstructors(Generator gen, Interface model) {
-        return EMPTY;
+    protected List<Constructor> constructorsOf(Interface model) {
+        return Collections.emptyList();
     }
 }
\ No newline at end of file
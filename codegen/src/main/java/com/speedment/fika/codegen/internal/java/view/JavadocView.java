@@ -17,45 +17,48 @@
 package com.speedment.fika.codegen.internal.java.view;
 
 import com.speedment.fika.codegen.Generator;
-import com.speedment.fika.codegen.Transform;
+import com.speedment.fika.codegen.RenderSink;
+import com.speedment.fika.codegen.StreamingTransform;
 import com.speedment.fika.codegen.model.Javadoc;
 import com.speedment.fika.codegen.internal.java.view.trait.HasJavadocTagsView;
 import static com.speedment.fika.codegen.internal.util.Formatting.*;
-import com.speedment.fika.codegen.internal.util.TextUtil;
-import static com.speedment.fika.codegen.internal.util.CollectorUtil.joinIfNotEmpty;
+import com.speedment.fika.codegen.internal.util.JavadocFormatter;
 import static java.util.Objects.requireNonNull;
-import java.util.Optional;
 
 /**
- * Transforms from a {@link Javadoc} to java code.
+ * Transforms from a {@link Javadoc} to java code. The text and the tags are
+ * wrapped by a shared {@link JavadocFormatter}, so a javadoc that is rendered
+ * many times is only wrapped once.
  * 
  * @author Emil Forslund
  */
-public final class JavadocView implements Transform<Javadoc, String>, 
+public final class JavadocView implements StreamingTransform<Javadoc>, 
     HasJavadocTagsView<Javadoc> {
     
 	private final static String
 		JAVADOC_DELIMITER = nl() + SPACE + STAR + SPACE,
 		JAVADOC_PREFIX = SLASH + STAR + STAR + nl() + SPACE + STAR + SPACE,
 		JAVADOC_SUFFIX = nl() + SPACE + STAR + SLASH;
+    
+    private final static JavadocFormatter FORMATTER = new JavadocFormatter(
+        JavadocFormatter.DEFAULT_WIDTH, JAVADOC_DELIMITER
+    );
 	
     /**
      * {@inheritDoc}
      */
 	@Override
-	public Optional<String> transform(Generator gen, Javadoc model) {
+	public void render(Generator gen, Javadoc model, RenderSink sink) {
         requireNonNull(gen);
         requireNonNull(model);
+        requireNonNull(sink);
         
-        final String formattedText = TextUtil.formatJavaDocBox(model.getText()) + 
-            renderJavadocTags(gen, model)
-                .map(TextUtil::formatJavaDocBox)
-                .collect(joinIfNotEmpty(nl(), nl(), EMPTY));
+        sink.write(JAVADOC_PREFIX).write(FORMATTER.format(model.getText()));
         
-		return Optional.of(
-            JAVADOC_PREFIX + 
-            formattedText.replace(nl(), JAVADOC_DELIMITER) + 
-            JAVADOC_SUFFIX
+        renderJavadocTags(gen, model).forEachOrdered(tag -> 
+            sink.write(JAVADOC_DELIMITER).write(FORMATTER.format(tag))
         );
+        
+        sink.write(JAVADOC_SUFFIX);
 	}
 }
\ No newline at end of file
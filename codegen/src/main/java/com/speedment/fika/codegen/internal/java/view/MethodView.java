@@ -17,12 +17,13 @@
 package com.speedment.fika.codegen.internal.java.view;
 
 import com.speedment.fika.codegen.Generator;
-import com.speedment.fika.codegen.Transform;
+import com.speedment.fika.codegen.RenderSink;
+import com.speedment.fika.codegen.StreamingTransform;
 import com.speedment.fika.codegen.model.Method;
+import com.speedment.fika.codegen.internal.util.ModifierTable;
 import static com.speedment.fika.codegen.internal.util.Formatting.*;
 import static com.speedment.fika.codegen.internal.util.CollectorUtil.joinIfNotEmpty;
 import static java.util.Objects.requireNonNull;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -30,7 +31,7 @@ import java.util.stream.Collectors;
  * 
  * @author Emil Forslund
  */
-public final class MethodView implements Transform<Method, String> {
+public final class MethodView implements StreamingTransform<Method> {
     
     private final static String THROWS = "throws ";
 
@@ -38,26 +39,21 @@ public final class MethodView implements Transform<Method, String> {
      * {@inheritDoc}
      */
 	@Override
-	public Optional<String> transform(Generator gen, Method model) {
+	public void render(Generator gen, Method model, RenderSink sink) {
         requireNonNull(gen);
         requireNonNull(model);
+        requireNonNull(sink);
         
-		return Optional.of(
-			ifelse(gen.on(model.getJavadoc()), s -> s + nl(), EMPTY) +
-			gen.onEach(model.getAnnotations()).collect(joinIfNotEmpty(nl(), EMPTY, nl())) +
-			gen.onEach(model.getModifiers()).collect(joinIfNotEmpty(SPACE, EMPTY, SPACE)) +
-			gen.onEach(model.getGenerics()).collect(joinIfNotEmpty(COMMA_SPACE, SS, SE + SPACE)) +
-			ifelse(gen.on(model.getType()), s -> s + SPACE, EMPTY) +
-			model.getName() +
-			gen.onEach(model.getFields()).collect(
+		sink.write(ifelse(gen.on(model.getJavadoc()), s -> s + nl(), EMPTY))
+			.write(gen.onEach(model.getAnnotations()).collect(joinIfNotEmpty(nl(), EMPTY, nl())))
+			.write(ModifierTable.render(model.getModifiers()))
+			.write(gen.onEach(model.getGenerics()).collect(joinIfNotEmpty(COMMA_SPACE, SS, SE + SPACE)))
+			.write(ifelse(gen.on(model.getType()), s -> s + SPACE, EMPTY))
+			.write(model.getName())
+			.write(gen.onEach(model.getFields()).collect(
 				Collectors.joining(COMMA_SPACE, PS, PE)
-			) + SPACE + 
-            gen.onEach(model.getExceptions()).collect(joinIfNotEmpty(COMMA_SPACE, THROWS, SPACE)) +
-            block(
-				model.getCode().stream().collect(
-					Collectors.joining(nl())
-				)
-			)
-		);
+			)).write(SPACE)
+            .write(gen.onEach(model.getExceptions()).collect(joinIfNotEmpty(COMMA_SPACE, THROWS, SPACE)))
+            .block(model.getCode());
 	}
 }
\ No newline at end of file
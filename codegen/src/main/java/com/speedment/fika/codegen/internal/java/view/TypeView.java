@@ -20,6 +20,7 @@ import com.speedment.fika.codegen.DependencyManager;
 import com.speedment.fika.codegen.Generator;
 import com.speedment.fika.codegen.Transform;
 import com.speedment.fika.codegen.model.Type;
+import com.speedment.fika.codegen.internal.model.InternedType;
 import static com.speedment.fika.codegen.internal.util.Formatting.*;
 import static com.speedment.fika.codegen.internal.util.CollectorUtil.joinIfNotEmpty;
 import java.util.Collections;
@@ -42,6 +43,10 @@ public final class TypeView implements Transform<Type, String> {
         requireNonNull(gen);
         requireNonNull(model);
         
+        if (model instanceof InternedType) {
+            return renderInterned(gen, (InternedType) model);
+        }
+        
 		if (shouldUseShortName(gen, model)) {
 			return renderName(gen, model, shortName(model.getName()));
 		} else {
@@ -49,6 +54,32 @@ public final class TypeView implements Transform<Type, String> {
 		}
 	}
     
+    /**
+     * Renders an interned type. The names of interned types are precomputed,
+     * so only the generics need to be rendered.
+     * 
+     * @param gen    the generator
+     * @param model  the interned type
+     * @return       the generated name
+     */
+    private Optional<String> renderInterned(Generator gen, InternedType model) {
+        final boolean useShortName = shouldUseShortName(gen, model);
+        
+        if (model.getGenerics().isEmpty()) {
+            return model.getPrerendered(useShortName);
+        } else {
+            final String name = useShortName
+                ? model.getShortName()
+                : model.getLongName();
+            
+            return Optional.of(
+                name + gen.onEach(model.getGenerics()).collect(
+                    joinIfNotEmpty(COMMA_SPACE, SS, SE)
+                ) + model.getArraySuffix()
+            );
+        }
+    }
+    
     /**
      * Renders the full name of the type with generics and array dimension. 
      * 
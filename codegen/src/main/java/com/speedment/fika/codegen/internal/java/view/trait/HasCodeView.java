@@ -17,11 +17,9 @@
 package com.speedment.fika.codegen.internal.java.view.trait;
 
 import com.speedment.fika.codegen.Generator;
+import com.speedment.fika.codegen.RenderSink;
 import com.speedment.fika.codegen.Transform;
 import com.speedment.fika.codegen.model.trait.HasCode;
-import static com.speedment.fika.codegen.internal.util.Formatting.block;
-import static com.speedment.fika.codegen.internal.util.Formatting.nl;
-import static java.util.stream.Collectors.joining;
 
 /**
  * A trait with the functionality to render models with the trait 
@@ -35,14 +33,16 @@ public interface HasCodeView<M extends HasCode<M>> extends Transform<M, String>
 
     /**
      * Render the code-part of the model separated by new-line characters.
+     * The rows are indented by a {@link RenderSink} as they are written so
+     * that they do not have to be re-indented afterwards.
      * 
      * @param gen    the generator
      * @param model  the model
      * @return       the generated code
      */
     default String renderCode(Generator gen, M model) {
-        return block(model.getCode().stream()
-            .collect(joining(nl()))
-        );
+        final StringBuilder str = new StringBuilder();
+        RenderSink.of(str).block(model.getCode());
+        return str.toString();
     }
 }
\ No newline at end of file
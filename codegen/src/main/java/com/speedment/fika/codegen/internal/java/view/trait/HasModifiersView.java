@@ -19,9 +19,7 @@ package com.speedment.fika.codegen.internal.java.view.trait;
 import com.speedment.fika.codegen.Generator;
 import com.speedment.fika.codegen.Transform;
 import com.speedment.fika.codegen.model.trait.HasModifiers;
-import static com.speedment.fika.codegen.internal.util.Formatting.EMPTY;
-import static com.speedment.fika.codegen.internal.util.Formatting.SPACE;
-import static com.speedment.fika.codegen.internal.util.CollectorUtil.joinIfNotEmpty;
+import com.speedment.fika.codegen.internal.util.ModifierTable;
 
 /**
  * A trait with the functionality to render models with the trait 
@@ -37,13 +35,15 @@ public interface HasModifiersView<M extends HasModifiers<M>> extends
     /**
      * Render the modifiers-part of the model with an extra space appended
      * afterwards. If no modifiers exists, an empty string is returned.
+     * <p>
+     * The rendered code for each combination of modifiers is looked up in 
+     * the {@link ModifierTable}.
      * 
      * @param gen    the generator
      * @param model  the model
      * @return       the generated code
      */
     default String renderModifiers(Generator gen, M model) {
-        return gen.onEach(model.getModifiers())
-            .collect(joinIfNotEmpty(SPACE, EMPTY, SPACE));
+        return ModifierTable.render(model.getModifiers());
     }
 }
\ No newline at end of file
@@ -0,0 +1,531 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.codegen.internal.model;
+
+import com.speedment.fika.codegen.RenderSink;
+import com.speedment.fika.codegen.internal.ProtectedRegions;
+import com.speedment.fika.codegen.internal.util.SharedList;
+import com.speedment.fika.codegen.model.CodeBlock;
+import com.speedment.fika.codegen.internal.util.Formatting;
+import static com.speedment.fika.codegen.internal.util.Formatting.EMPTY;
+import static com.speedment.fika.codegen.internal.util.Formatting.tab;
+import static com.speedment.fika.codegen.internal.util.NullUtil.requireNonNullElements;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import static java.util.Objects.requireNonNull;
+import java.util.Optional;
+
+/**
+ * This is the default implementation of the {@link CodeBlock} interface.
+ * This class should not be instantiated directly. Instead you should call the
+ * {@link CodeBlock#of(java.lang.String...)} method to get an instance. In that 
+ * way, you can layer change the implementing class without modifying the 
+ * using code.
+ * <p>
+ * Rows are stored in a {@link SharedList} so that copying a block that only
+ * contains rows does not copy the rows until one of the blocks is modified.
+ * If a block with nested blocks is modified through the <code>List</code>
+ * interface anywhere else than at the end, the nested blocks are first 
+ * replaced by their rows. Protected regions are replaced by their markers
+ * and default rows in the same way.
+ * <p>
+ * When the block is read as a list, the rows of nested blocks are computed
+ * once and cached until this block or any of the blocks nested in it is 
+ * modified. Every line of a nested row that spans multiple lines is prefixed
+ * with the indentation, so that the rows are the same as the ones written by
+ * {@link #render(RenderSink)}.
+ * 
+ * @author Emil Forslund
+ * @since  2.4
+ * @see    CodeBlock
+ */
+public final class CodeBlockImpl extends AbstractList<String> implements CodeBlock {
+    
+    private SharedList<Object> entries;
+    private List<CodeBlock> children;
+    private int version;
+    
+    private List<String> cachedRows;
+    private long cachedVersion;
+    
+    /**
+     * Initializes this code block.
+     * <p>
+     * <b>Warning!</b> This class should not be instantiated directly but using 
+     * the {@link CodeBlock#of(java.lang.String...)} method!
+     */
+    public CodeBlockImpl() {
+        this.entries  = new SharedList<>();
+        this.children = new ArrayList<>(0);
+    }
+    
+    /**
+     * Copy constructor.
+     * 
+     * @param prototype  the prototype
+     */
+    protected CodeBlockImpl(CodeBlockImpl prototype) {
+        requireNonNull(prototype);
+        
+        children = new ArrayList<>(prototype.children.size());
+        
+        if (prototype.children.isEmpty()) {
+            entries = prototype.entries.share();
+        } else {
+            entries = new SharedList<>();
+            for (final Object entry : prototype.entries) {
+                if (entry instanceof CodeBlock) {
+                    final CodeBlock block = ((CodeBlock) entry).copy();
+                    entries.add(block);
+                    children.add(block);
+                } else if (entry instanceof Indented) {
+                    final CodeBlock block = ((Indented) entry).block.copy();
+                    entries.add(new Indented(block));
+                    children.add(block);
+                } else if (entry instanceof Region) {
+                    final Region region = (Region) entry;
+                    final CodeBlock block = region.block.copy();
+                    entries.add(new Region(region.name, block));
+                    children.add(block);
+                } else {
+                    entries.add(entry);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Returns a copy of the specified code as a <code>CodeBlock</code>. If
+     * the code already is a code block, it is copied using 
+     * {@link CodeBlock#copy()}.
+     * 
+     * @param code  the code to copy
+     * @return      the copy
+     */
+    public static CodeBlock copyOf(List<String> code) {
+        if (requireNonNull(code) instanceof CodeBlock) {
+            return ((CodeBlock) code).copy();
+        } else {
+            final CodeBlockImpl block = new CodeBlockImpl();
+            block.entries = new SharedList<>(code);
+            return block;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CodeBlock append(String... rows) {
+        requireNonNullElements(rows);
+        for (final String row : rows) {
+            entries.add(row);
+        }
+        modified();
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CodeBlock append(CodeBlock block) {
+        entries.add(requireNonNull(block));
+        children.add(block);
+        modified();
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CodeBlock indent(String... rows) {
+        return indent(new CodeBlockImpl().append(rows));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CodeBlock indent(CodeBlock block) {
+        entries.add(new Indented(requireNonNull(block)));
+        children.add(block);
+        modified();
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CodeBlock protect(String name, String... defaults) {
+        return protect(name, new CodeBlockImpl().append(defaults));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CodeBlock protect(String name, CodeBlock defaults) {
+        entries.add(new Region(name, requireNonNull(defaults)));
+        children.add(defaults);
+        modified();
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void render(RenderSink sink) {
+        render(this, requireNonNull(sink), true, 0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String get(int index) {
+        if (children.isEmpty()) {
+            return (String) entries.get(index);
+        } else {
+            return rows().get(index);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        if (children.isEmpty()) {
+            return entries.size();
+        } else {
+            return rows().size();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<String> iterator() {
+        if (children.isEmpty()) {
+            return super.iterator();
+        } else {
+            return rows().iterator();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The row is appended without flattening any nested blocks.
+     */
+    @Override
+    public boolean add(String element) {
+        entries.add(element);
+        modified();
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void add(int index, String element) {
+        if (index == size()) {
+            entries.add(element);
+        } else {
+            flatten();
+            entries.add(index, element);
+        }
+        
+        modified();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String set(int index, String element) {
+        flatten();
+        version++;
+        cachedRows = null;
+        return (String) entries.set(index, element);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String remove(int index) {
+        flatten();
+        modified();
+        return (String) entries.remove(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear() {
+        entries.clear();
+        children.clear();
+        modified();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CodeBlockImpl copy() {
+        return new CodeBlockImpl(this);
+    }
+    
+    /**
+     * Replaces all nested blocks with their rows so that the entries can be
+     * indexed directly.
+     */
+    private void flatten() {
+        if (!children.isEmpty()) {
+            entries = new SharedList<>(rows());
+            children.clear();
+        }
+    }
+    
+    /**
+     * Marks this block as structurally modified.
+     */
+    private void modified() {
+        version++;
+        modCount++;
+        cachedRows = null;
+    }
+    
+    /**
+     * Returns a number that increases every time this block or any of the 
+     * blocks nested in it is modified, or <code>-1</code> if a nested block
+     * is not a <code>CodeBlockImpl</code> and changes can not be detected.
+     * 
+     * @return  the version or <code>-1</code>
+     */
+    private long version() {
+        long result = version;
+        
+        for (int i = 0; i < children.size(); i++) {
+            final CodeBlock child = children.get(i);
+            
+            if (child instanceof CodeBlockImpl) {
+                final long nested = ((CodeBlockImpl) child).version();
+                if (nested < 0) {
+                    return -1;
+                }
+                
+                result += nested;
+            } else {
+                return -1;
+            }
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Returns all the rows of this block, with nested rows prefixed by one 
+     * tab for every level of indentation. The result is cached until this
+     * block or any nested block is modified.
+     * 
+     * @return  the unmodifiable rows
+     */
+    private List<String> rows() {
+        final long current = version();
+        
+        if (cachedRows == null || current < 0 || current != cachedVersion) {
+            final List<String> rows = new ArrayList<>();
+            rows(this, EMPTY, rows);
+            cachedRows    = Collections.unmodifiableList(rows);
+            cachedVersion = current;
+        }
+        
+        return cachedRows;
+    }
+    
+    private static void rows(List<String> block, String prefix, List<String> rows) {
+        if (block instanceof CodeBlockImpl) {
+            for (final Object entry : ((CodeBlockImpl) block).entries) {
+                if (entry instanceof CodeBlock) {
+                    rows((CodeBlock) entry, prefix, rows);
+                } else if (entry instanceof Indented) {
+                    rows(((Indented) entry).block, prefix + tab(), rows);
+                } else if (entry instanceof Region) {
+                    final Region region = (Region) entry;
+                    rows.add(prefix + region.begin);
+                    rows(region.block, prefix, rows);
+                    rows.add(prefix + region.end);
+                } else {
+                    rows.add(prefixed(prefix, (String) entry));
+                }
+            }
+        } else {
+            for (final String row : block) {
+                rows.add(prefixed(prefix, row));
+            }
+        }
+    }
+    
+    /**
+     * Prefixes every line of the specified row. Line breaks in the row are 
+     * replaced by {@link Formatting#nl()}, just like when the row is written
+     * to an indented {@link RenderSink}.
+     * 
+     * @param prefix  the prefix
+     * @param row     the row
+     * @return        the prefixed row
+     */
+    private static String prefixed(String prefix, String row) {
+        if (prefix.isEmpty()) {
+            return row;
+        }
+        
+        final int first = row.indexOf('\n');
+        if (first < 0) {
+            return prefix + row;
+        }
+        
+        final StringBuilder str = new StringBuilder(row.length() + 4 * prefix.length());
+        str.append(prefix);
+        
+        int start = 0;
+        for (int i = first; i >= 0; i = row.indexOf('\n', start)) {
+            final int end = (i > start && row.charAt(i - 1) == '\r') ? i - 1 : i;
+            str.append(row, start, end).append(Formatting.nl()).append(prefix);
+            start = i + 1;
+        }
+        
+        return str.append(row, start, row.length()).toString();
+    }
+    
+    /**
+     * Writes the rows of the specified block to the sink. The new-line 
+     * before the first row is expected to have been written already, so
+     * if nested blocks have been entered since then, their tabs are written
+     * explicitly before the first row.
+     * 
+     * @param block    the block to write
+     * @param sink     the sink to write to
+     * @param first    <code>true</code> if no row has been written yet
+     * @param pending  the number of levels indented since the last new-line
+     * @return         <code>true</code> if still no row has been written
+     */
+    private static boolean render(List<String> block, RenderSink sink, boolean first, int pending) {
+        if (block instanceof CodeBlockImpl) {
+            for (final Object entry : ((CodeBlockImpl) block).entries) {
+                if (entry instanceof CodeBlock) {
+                    first = render((CodeBlock) entry, sink, first, pending);
+                } else if (entry instanceof Indented) {
+                    sink.indent();
+                    first = render(((Indented) entry).block, sink, first, pending + 1);
+                    sink.outdent();
+                } else if (entry instanceof Region) {
+                    first = region(sink, (Region) entry, first, pending);
+                } else {
+                    first = row(sink, (String) entry, first, pending);
+                }
+            }
+        } else {
+            for (final String row : block) {
+                first = row(sink, row, first, pending);
+            }
+        }
+        
+        return first;
+    }
+    
+    /**
+     * Writes the specified region to the sink. The rows of the region are 
+     * taken from the sink if it has been edited, otherwise the default rows
+     * are written.
+     * 
+     * @param sink     the sink to write to
+     * @param region   the region to write
+     * @param first    <code>true</code> if no row has been written yet
+     * @param pending  the number of levels indented since the last new-line
+     * @return         always <code>false</code> since the markers are rows
+     */
+    private static boolean region(RenderSink sink, Region region, boolean first, int pending) {
+        row(sink, region.begin, first, pending);
+        
+        final Optional<List<String>> edited = sink.takeRegion(region.name);
+        
+        if (edited.isPresent()) {
+            for (final String row : edited.get()) {
+                row(sink, row, false, pending);
+            }
+        } else {
+            render(region.block, sink, false, pending);
+        }
+        
+        return row(sink, region.end, false, pending);
+    }
+    
+    private static boolean row(RenderSink sink, String row, boolean first, int pending) {
+        if (first) {
+            for (int i = 0; i < pending; i++) {
+                sink.write(tab());
+            }
+        } else {
+            sink.nl();
+        }
+        
+        sink.write(row);
+        return false;
+    }
+    
+    /**
+     * A nested block that should be indented one level.
+     */
+    private final static class Indented {
+        
+        private final CodeBlock block;
+
+        private Indented(CodeBlock block) {
+            this.block = block;
+        }
+    }
+    
+    /**
+     * A protected region with the block to render if the region has not 
+     * been edited. The markers are created once when the region is added.
+     */
+    private final static class Region {
+        
+        private final String name, begin, end;
+        private final CodeBlock block;
+
+        private Region(String name, CodeBlock block) {
+            this.name  = name;
+            this.begin = ProtectedRegions.begin(name);
+            this.end   = ProtectedRegions.end(name);
+            this.block = block;
+        }
+    }
+}
@@ -17,6 +17,7 @@
 package com.speedment.fika.codegen.internal.model;
 
 import com.speedment.fika.codegen.model.AnnotationUsage;
+import com.speedment.fika.codegen.model.CodeBlock;
 import com.speedment.fika.codegen.model.Constructor;
 import com.speedment.fika.codegen.model.Field;
 import com.speedment.fika.codegen.model.Javadoc;
@@ -46,7 +47,7 @@ public final class ConstructorImpl implements Constructor {
     private Javadoc javadoc;
     private final List<AnnotationUsage> annotations;
     private final List<Field> params;
-    private final List<String> code;
+    private final CodeBlock code;
     private final Set<Modifier> modifiers;
     private final Set<Type> exceptions;
 
@@ -60,8 +61,8 @@ public final class ConstructorImpl implements Constructor {
         javadoc = null;
         annotations = new ArrayList<>();
         params = new ArrayList<>();
-        code = new ArrayList<>();
-        modifiers = new HashSet<>();
+        code = new CodeBlockImpl();
+        modifiers = EnumSet.noneOf(Modifier.class);
         exceptions = new HashSet<>();
     }
 
@@ -74,7 +75,7 @@ public final class ConstructorImpl implements Constructor {
         javadoc = requireNonNull(prototype).getJavadoc().map(Copier::copy).orElse(null);
         annotations = Copier.copy(prototype.getAnnotations());
         params = Copier.copy(prototype.getFields());
-        code = Copier.copy(prototype.getCode(), c -> c);
+        code = CodeBlockImpl.copyOf(prototype.getCode());
         modifiers = Copier.copy(prototype.getModifiers(), c -> c.copy(), EnumSet.noneOf(Modifier.class));
         exceptions = Copier.copy(prototype.getExceptions());
     }
@@ -91,7 +92,7 @@ public final class ConstructorImpl implements Constructor {
      * {@inheritDoc}
      */
     @Override
-    public List<String> getCode() {
+    public CodeBlock getCode() {
         return code;
     }
 
@@ -16,12 +16,11 @@
  */
 package com.speedment.fika.codegen.internal.model;
 
+import com.speedment.fika.codegen.model.CodeBlock;
 import com.speedment.fika.codegen.model.Initializer;
 import com.speedment.fika.codegen.model.modifier.Modifier;
 import com.speedment.fika.codegen.internal.util.Copier;
-import java.util.ArrayList;
 import java.util.EnumSet;
-import java.util.List;
 import java.util.Objects;
 import static java.util.Objects.requireNonNull;
 import java.util.Set;
@@ -37,7 +36,7 @@ import java.util.Set;
  */
 public final class InitializerImpl implements Initializer {
 
-    private final List<String> code;
+    private final CodeBlock code;
     private final Set<Modifier> modifiers;
     
     /**
@@ -47,7 +46,7 @@ public final class InitializerImpl implements Initializer {
      * the {@link Initializer#of()} method!
      */
     public InitializerImpl() {
-        code      = new ArrayList<>();
+        code      = new CodeBlockImpl();
         modifiers = EnumSet.noneOf(Modifier.class);
     }
     
@@ -58,15 +57,15 @@ public final class InitializerImpl implements Initializer {
      */
     protected InitializerImpl(Initializer prototype) {
         requireNonNull(prototype);
-        code      = Copier.copy(prototype.getCode(), c -> c);
-        modifiers = Copier.copy(prototype.getModifiers(), c -> c);
+        code      = CodeBlockImpl.copyOf(prototype.getCode());
+        modifiers = Copier.copy(prototype.getModifiers(), c -> c, EnumSet.noneOf(Modifier.class));
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public List<String> getCode() {
+    public CodeBlock getCode() {
         return code;
     }
 
@@ -0,0 +1,465 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.codegen.internal.model;
+
+import com.speedment.fika.codegen.model.AnnotationUsage;
+import com.speedment.fika.codegen.model.Generic;
+import com.speedment.fika.codegen.model.Type;
+import static com.speedment.fika.codegen.internal.util.Formatting.AE;
+import static com.speedment.fika.codegen.internal.util.Formatting.AS;
+import static com.speedment.fika.codegen.internal.util.Formatting.DOLLAR;
+import static com.speedment.fika.codegen.internal.util.Formatting.DOT;
+import static com.speedment.fika.codegen.internal.util.Formatting.EMPTY;
+import static com.speedment.fika.codegen.internal.util.Formatting.shortName;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import static java.util.Objects.requireNonNull;
+import java.util.Optional;
+import java.util.WeakHashMap;
+
+/**
+ * An immutable and canonical implementation of the {@link Type} interface. 
+ * Instances are created using {@link Type#intern(Type)} and structurally 
+ * equal types will always be represented by the same instance, so that a 
+ * type referenced many times in a model is only held in memory once.
+ * <p>
+ * The canonical instances are only weakly referenced. A type that is no 
+ * longer used by any model can therefore be garbage collected, together with
+ * the class loader of its {@link #getJavaImpl() implementation}. If the same
+ * type is interned again later, a new canonical instance is created.
+ * <p>
+ * If a modifying method is called on an interned type, the model will be 
+ * copied before performing the operation. The lists returned by 
+ * {@link #getGenerics()} and {@link #getAnnotations()} are unmodifiable.
+ * <p>
+ * The hash code and the rendered names of the type are computed once when 
+ * the type is interned.
+ * 
+ * @author Emil Forslund
+ * @since  2.4
+ */
+public final class InternedType implements Type {
+    
+    private final static Map<InternedType, WeakReference<InternedType>> INTERNED = 
+        new WeakHashMap<>();
+    
+    private final String name;
+    private final java.lang.Class<?> javaImpl;
+    private final int arrayDimension;
+    private final List<Generic> generics;
+    private final List<AnnotationUsage> annotations;
+    private final int hashCode;
+    
+    private final String longName;
+    private final String shortName;
+    private final String arraySuffix;
+    private final Optional<String> longCode;
+    private final Optional<String> shortCode;
+    
+    /**
+     * Returns the canonical instance for the specified type. If the type has
+     * annotations that are not constants, it can not be made immutable and is 
+     * returned as it is.
+     * 
+     * @param type  the type to intern
+     * @return      the interned type
+     */
+    public static Type of(Type type) {
+        final InternedType interned = intern(requireNonNull(type));
+        return interned == null ? type : interned;
+    }
+    
+    /**
+     * Returns the canonical instance for the specified type, or 
+     * <code>null</code> if the type or any of its generic types can not be
+     * interned.
+     * 
+     * @param type  the type to intern
+     * @return      the interned type or <code>null</code>
+     */
+    private static InternedType intern(Type type) {
+        if (type instanceof InternedType) {
+            return (InternedType) type;
+        }
+        
+        for (final AnnotationUsage annotation : type.getAnnotations()) {
+            if (!(annotation instanceof Enum)) {
+                return null;
+            }
+        }
+        
+        final List<Generic> generics = new ArrayList<>(type.getGenerics().size());
+        for (final Generic generic : type.getGenerics()) {
+            final List<Type> bounds = new ArrayList<>(generic.getUpperBounds().size());
+            
+            for (final Type bound : generic.getUpperBounds()) {
+                final InternedType internedBound = intern(bound);
+                if (internedBound == null) {
+                    return null;
+                }
+                
+                bounds.add(internedBound);
+            }
+            
+            generics.add(new InternedGeneric(
+                generic.getLowerBound().orElse(null),
+                generic.getBoundType(),
+                bounds
+            ));
+        }
+        
+        final InternedType candidate = new InternedType(
+            type.getName(), 
+            type.getJavaImpl().orElse(null),
+            type.getArrayDimension(),
+            generics,
+            new ArrayList<>(type.getAnnotations())
+        );
+        
+        synchronized (INTERNED) {
+            final WeakReference<InternedType> ref = INTERNED.get(candidate);
+            
+            if (ref != null) {
+                final InternedType existing = ref.get();
+                if (existing != null) {
+                    return existing;
+                }
+            }
+            
+            INTERNED.put(candidate, new WeakReference<>(candidate));
+            return candidate;
+        }
+    }
+    
+    private InternedType(String name, java.lang.Class<?> javaImpl, 
+        int arrayDimension, List<Generic> generics, 
+        List<AnnotationUsage> annotations) {
+        
+        this.name           = requireNonNull(name);
+        this.javaImpl       = javaImpl;
+        this.arrayDimension = arrayDimension;
+        this.generics       = Collections.unmodifiableList(generics);
+        this.annotations    = Collections.unmodifiableList(annotations);
+        
+        int hash = 7;
+        hash = 29 * hash + name.hashCode();
+        hash = 29 * hash + arrayDimension;
+        hash = 29 * hash + annotations.hashCode();
+        hash = 29 * hash + generics.hashCode();
+        hash = 29 * hash + Objects.hashCode(javaImpl);
+        this.hashCode = hash;
+        
+        this.longName  = name.replace(DOLLAR, DOT);
+        this.shortName = shortName(name);
+        
+        if (arrayDimension > 0) {
+            final StringBuilder str = new StringBuilder();
+            for (int i = 0; i < arrayDimension; i++) {
+                str.append(AS).append(AE);
+            }
+            this.arraySuffix = str.toString();
+        } else {
+            this.arraySuffix = EMPTY;
+        }
+        
+        if (generics.isEmpty()) {
+            this.longCode  = Optional.of(longName + arraySuffix);
+            this.shortCode = Optional.of(shortName + arraySuffix);
+        } else {
+            this.longCode  = Optional.empty();
+            this.shortCode = Optional.empty();
+        }
+    }
+    
+    /**
+     * Returns the full name of this type as it appears in code, without any 
+     * generics or array dimension.
+     * 
+     * @return  the full name
+     */
+    public String getLongName() {
+        return longName;
+    }
+    
+    /**
+     * Returns the name of this type without the package as it appears in 
+     * code, without any generics or array dimension.
+     * 
+     * @return  the short name
+     */
+    public String getShortName() {
+        return shortName;
+    }
+    
+    /**
+     * Returns the brackets to append to the name of this type to represent 
+     * its array dimension, or an empty string if it is not an array.
+     * 
+     * @return  the array brackets
+     */
+    public String getArraySuffix() {
+        return arraySuffix;
+    }
+
+    /**
+     * Returns the complete code for this type, including the array brackets,
+     * if it has no generics. The result is computed once when the type is 
+     * interned, so it can be returned by a view without allocating anything.
+     * If the type has generics, they must be rendered by the generator and 
+     * an empty result is returned.
+     * 
+     * @param useShortName  <code>true</code> to use the short name, 
+     *                      <code>false</code> to use the full name
+     * @return              the code, or empty if the type has generics
+     */
+    public Optional<String> getPrerendered(boolean useShortName) {
+        return useShortName ? shortCode : longCode;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Since this type is immutable, the model will first be copied and the
+     * operation will then be performed on the copy.
+     */
+    @Override
+    public Type setName(String name) {
+        return copy().setName(requireNonNull(name));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<java.lang.Class<?>> getJavaImpl() {
+        return Optional.ofNullable(javaImpl);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Since this type is immutable, the model will first be copied and the
+     * operation will then be performed on the copy.
+     */
+    @Override
+    public Type setJavaImpl(java.lang.Class<?> javaImpl) {
+        return copy().setJavaImpl(javaImpl);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getArrayDimension() {
+        return arrayDimension;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Since this type is immutable, the model will first be copied and the
+     * operation will then be performed on the copy.
+     */
+    @Override
+    public Type setArrayDimension(int arrayDimension) {
+        return copy().setArrayDimension(arrayDimension);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The returned list is unmodifiable.
+     */
+    @Override
+    public List<Generic> getGenerics() {
+        return generics;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Since this type is immutable, the model will first be copied and the
+     * operation will then be performed on the copy.
+     */
+    @Override
+    public Type add(Generic generic) {
+        return copy().add(requireNonNull(generic));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The returned list is unmodifiable.
+     */
+    @Override
+    public List<AnnotationUsage> getAnnotations() {
+        return annotations;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Since this type is immutable, the model will first be copied and the
+     * operation will then be performed on the copy.
+     */
+    @Override
+    public Type add(AnnotationUsage annotation) {
+        return copy().add(requireNonNull(annotation));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The copy is an ordinary mutable type.
+     */
+    @Override
+    public Type copy() {
+        return new TypeImpl(this);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof InternedType)) {
+            return false;
+        }
+        final InternedType other = (InternedType) obj;
+        if (this.hashCode != other.hashCode) {
+            return false;
+        }
+        if (this.arrayDimension != other.arrayDimension) {
+            return false;
+        }
+        if (!this.name.equals(other.name)) {
+            return false;
+        }
+        if (!Objects.equals(this.javaImpl, other.javaImpl)) {
+            return false;
+        }
+        if (!this.annotations.equals(other.annotations)) {
+            return false;
+        }
+        return this.generics.equals(other.generics);
+    }
+    
+    /**
+     * An immutable {@link Generic} used in interned types. All the upper 
+     * bounds are interned types as well.
+     */
+    private final static class InternedGeneric implements Generic {
+        
+        private final String lowerBound;
+        private final BoundType boundType;
+        private final List<Type> upperBounds;
+        private final int hashCode;
+
+        private InternedGeneric(String lowerBound, BoundType boundType, 
+            List<Type> upperBounds) {
+            
+            this.lowerBound  = lowerBound;
+            this.boundType   = requireNonNull(boundType);
+            this.upperBounds = Collections.unmodifiableList(upperBounds);
+            
+            int hash = 3;
+            hash = 89 * hash + Objects.hashCode(lowerBound);
+            hash = 89 * hash + upperBounds.hashCode();
+            hash = 89 * hash + boundType.hashCode();
+            this.hashCode = hash;
+        }
+
+        @Override
+        public Generic setLowerBound(String lowerBound) {
+            return copy().setLowerBound(lowerBound);
+        }
+
+        @Override
+        public Optional<String> getLowerBound() {
+            return Optional.ofNullable(lowerBound);
+        }
+
+        @Override
+        public Generic add(Type upperBound) {
+            return copy().add(requireNonNull(upperBound));
+        }
+
+        @Override
+        public List<Type> getUpperBounds() {
+            return upperBounds;
+        }
+
+        @Override
+        public Generic setBoundType(BoundType type) {
+            return copy().setBoundType(type);
+        }
+
+        @Override
+        public BoundType getBoundType() {
+            return boundType;
+        }
+
+        @Override
+        public Optional<Type> asType() {
+            return lowerBound == null 
+                ? Optional.empty() 
+                : Optional.of(new TypeImpl(lowerBound));
+        }
+
+        @Override
+        public Generic copy() {
+            return new GenericImpl(this);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof InternedGeneric)) {
+                return false;
+            }
+            final InternedGeneric other = (InternedGeneric) obj;
+            return this.hashCode == other.hashCode
+                && this.boundType == other.boundType
+                && Objects.equals(this.lowerBound, other.lowerBound)
+                && this.upperBounds.equals(other.upperBounds);
+        }
+    }
+}
@@ -17,6 +17,7 @@
 package com.speedment.fika.codegen.internal.model;
 
 import com.speedment.fika.codegen.model.AnnotationUsage;
+import com.speedment.fika.codegen.model.CodeBlock;
 import com.speedment.fika.codegen.model.Field;
 import com.speedment.fika.codegen.model.Generic;
 import com.speedment.fika.codegen.model.Javadoc;
@@ -50,7 +51,7 @@ public final class MethodImpl implements Method {
     private final List<AnnotationUsage> annotations;
     private final List<Generic> generics;
     private final List<Field> params;
-    private final List<String> code;
+    private final CodeBlock code;
     private final Set<Modifier> modifiers;
     private final Set<Type> exceptions;
 
@@ -70,7 +71,7 @@ public final class MethodImpl implements Method {
         this.annotations = new ArrayList<>();
         this.generics = new ArrayList<>();
         this.params = new ArrayList<>();
-        this.code = new ArrayList<>();
+        this.code = new CodeBlockImpl();
         this.modifiers = EnumSet.noneOf(Modifier.class);
         this.exceptions = new HashSet<>();
     }
@@ -87,7 +88,7 @@ public final class MethodImpl implements Method {
         annotations = Copier.copy(prototype.getAnnotations());
         generics = Copier.copy(prototype.getGenerics());
         params = Copier.copy(prototype.getFields());
-        code = Copier.copy(prototype.getCode(), s -> s);
+        code = CodeBlockImpl.copyOf(prototype.getCode());
         modifiers = Copier.copy(prototype.getModifiers(), c -> c.copy(), EnumSet.noneOf(Modifier.class));
         exceptions = Copier.copy(prototype.getExceptions());
     }
@@ -138,7 +139,7 @@ public final class MethodImpl implements Method {
      * {@inheritDoc}
      */
     @Override
-    public List<String> getCode() {
+    public CodeBlock getCode() {
         return code;
     }
 
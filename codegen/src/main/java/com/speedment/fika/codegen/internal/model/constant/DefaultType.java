@@ -40,6 +40,10 @@ import static java.util.Objects.requireNonNull;
  * reference standard java types. If a modifying method is called on any of
  * these objects, the model will be copied before performing the operation.
  * This makes sure the original state of the constant is never changed.
+ * <p>
+ * The types returned by the static methods of this class are mutable. For
+ * types that are immutable and can be shared between threads, see 
+ * {@link TypeCatalog}.
  * 
  * @author Emil Forslund
  */
@@ -0,0 +1,252 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.codegen.internal.model.constant;
+
+import com.speedment.fika.codegen.internal.model.GenericImpl;
+import com.speedment.fika.codegen.model.Type;
+import static com.speedment.fika.codegen.internal.util.NullUtil.requireNonNullElements;
+import static com.speedment.fika.codegen.internal.util.StaticClassUtil.instanceNotAllowed;
+import java.util.Collection;
+import static java.util.Collections.unmodifiableSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.Stack;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import static java.util.stream.Collectors.toSet;
+import java.util.stream.Stream;
+
+/**
+ * An immutable catalog of {@link Type#intern(Type) interned} types for the
+ * standard java types that are referenced most often in generated code. 
+ * This is an alternative to {@link DefaultType} for code that renders in 
+ * parallel or keeps references to the types it creates.
+ * <p>
+ * Every type in the catalog is deeply immutable and can be shared freely 
+ * between threads. The short and full names of the types are computed once,
+ * so a type without generics is rendered by the {@link 
+ * com.speedment.fika.codegen.internal.java.view.TypeView TypeView} without
+ * allocating anything. The parameterized types created by the methods in 
+ * this class are interned as well, so requesting the same type twice will 
+ * return the same instance. Whether a type has to be imported can be checked
+ * using {@link #isImplicitlyImported(Type)}.
+ * <p>
+ * If a modifying method is called on a type in the catalog, the type will be
+ * copied before the operation is performed, just like for 
+ * <code>DefaultType</code>.
+ * 
+ * @author Emil Forslund
+ * @since  2.4
+ */
+public final class TypeCatalog {
+    
+    public final static Type 
+        BYTE_PRIMITIVE    = intern(byte.class),
+        SHORT_PRIMITIVE   = intern(short.class),
+        INT_PRIMITIVE     = intern(int.class),
+        LONG_PRIMITIVE    = intern(long.class),
+        FLOAT_PRIMITIVE   = intern(float.class),
+        DOUBLE_PRIMITIVE  = intern(double.class),
+        BOOLEAN_PRIMITIVE = intern(boolean.class),
+        CHAR_PRIMITIVE    = intern(char.class),
+        BYTE              = intern(Byte.class),
+        SHORT             = intern(Short.class),
+        INT               = intern(Integer.class),
+        LONG              = intern(Long.class),
+        FLOAT             = intern(Float.class),
+        DOUBLE            = intern(Double.class),
+        BOOLEAN           = intern(Boolean.class),
+        CHARACTER         = intern(Character.class),
+        STRING            = intern(String.class),
+        OBJECT            = intern(Object.class),
+        VOID              = Type.intern(Type.of("void")),
+        WILDCARD          = Type.intern(Type.of("?")),
+        COLLECTION        = intern(Collection.class),
+        LIST              = intern(List.class),
+        SET               = intern(Set.class),
+        MAP               = intern(Map.class),
+        QUEUE             = intern(Queue.class),
+        STACK             = intern(Stack.class),
+        OPTIONAL          = intern(Optional.class),
+        ENTRY             = intern(HashMap.Entry.class),
+        FUNCTION          = intern(Function.class),
+        BI_FUNCTION       = intern(BiFunction.class),
+        UNARY_OPERATOR    = intern(UnaryOperator.class),
+        BINARY_OPERATOR   = intern(BinaryOperator.class),
+        PREDICATE         = intern(Predicate.class),
+        BI_PREDICATE      = intern(BiPredicate.class),
+        CONSUMER          = intern(Consumer.class),
+        BI_CONSUMER       = intern(BiConsumer.class),
+        SUPPLIER          = intern(Supplier.class);
+    
+    private final static String JAVA_LANG = "java.lang.";
+    private final static Set<String> PRIMITIVES = unmodifiableSet(Stream.of(
+        BYTE_PRIMITIVE, SHORT_PRIMITIVE, INT_PRIMITIVE, LONG_PRIMITIVE,
+        FLOAT_PRIMITIVE, DOUBLE_PRIMITIVE, BOOLEAN_PRIMITIVE, CHAR_PRIMITIVE,
+        VOID, WILDCARD
+    ).map(Type::getName).collect(toSet()));
+    
+    /**
+     * Returns a {@link List} type with the specified type variable.
+     * 
+     * @param innerType  the type variable
+     * @return           the interned type
+     */
+    public static Type list(Type innerType) {
+        return parameterized(LIST, innerType);
+    }
+    
+    /**
+     * Returns a {@link Set} type with the specified type variable.
+     * 
+     * @param innerType  the type variable
+     * @return           the interned type
+     */
+    public static Type set(Type innerType) {
+        return parameterized(SET, innerType);
+    }
+    
+    /**
+     * Returns a {@link Map} type with the specified type variables.
+     * 
+     * @param innerTypeA  the key type variable
+     * @param innerTypeB  the value type variable
+     * @return            the interned type
+     */
+    public static Type map(Type innerTypeA, Type innerTypeB) {
+        return parameterized(MAP, innerTypeA, innerTypeB);
+    }
+    
+    /**
+     * Returns an {@link Optional} type with the specified type variable.
+     * 
+     * @param innerType  the type variable
+     * @return           the interned type
+     */
+    public static Type optional(Type innerType) {
+        return parameterized(OPTIONAL, innerType);
+    }
+    
+    /**
+     * Returns a {@link Function} type with the specified type variables.
+     * 
+     * @param innerTypeA  the parameter type variable
+     * @param innerTypeB  the result type variable
+     * @return            the interned type
+     */
+    public static Type function(Type innerTypeA, Type innerTypeB) {
+        return parameterized(FUNCTION, innerTypeA, innerTypeB);
+    }
+    
+    /**
+     * Returns a {@link Predicate} type with the specified type variable.
+     * 
+     * @param innerType  the type variable
+     * @return           the interned type
+     */
+    public static Type predicate(Type innerType) {
+        return parameterized(PREDICATE, innerType);
+    }
+    
+    /**
+     * Returns a {@link Consumer} type with the specified type variable.
+     * 
+     * @param innerType  the type variable
+     * @return           the interned type
+     */
+    public static Type consumer(Type innerType) {
+        return parameterized(CONSUMER, innerType);
+    }
+    
+    /**
+     * Returns a {@link Supplier} type with the specified type variable.
+     * 
+     * @param innerType  the type variable
+     * @return           the interned type
+     */
+    public static Type supplier(Type innerType) {
+        return parameterized(SUPPLIER, innerType);
+    }
+    
+    /**
+     * Returns the specified raw type with the specified type variables. If 
+     * any of the types can not be interned since it has annotations that are
+     * not constants, a mutable type is returned instead.
+     * 
+     * @param rawType     the raw type
+     * @param innerTypes  the type variables
+     * @return            the interned type
+     */
+    public static Type parameterized(Type rawType, Type... innerTypes) {
+        requireNonNull(rawType);
+        requireNonNullElements(innerTypes);
+        
+        Type type = rawType.copy();
+        for (final Type innerType : innerTypes) {
+            type = type.add(new GenericImpl(innerType));
+        }
+        
+        return Type.intern(type);
+    }
+    
+    /**
+     * Returns <code>true</code> if the specified type never has to be 
+     * imported in java code, either since it is a primitive type or since it
+     * is a top level class in the <code>java.lang</code> package. Only the 
+     * name of the type is considered, not its generics.
+     * 
+     * @param type  the type
+     * @return      <code>true</code> if no import is required
+     */
+    public static boolean isImplicitlyImported(Type type) {
+        final String name = requireNonNull(type).getName();
+        
+        if (name.startsWith(JAVA_LANG)) {
+            for (int i = JAVA_LANG.length(); i < name.length(); i++) {
+                final char c = name.charAt(i);
+                if (c == '.' || c == '$') {
+                    return false;
+                }
+            }
+            
+            return true;
+        } else {
+            return PRIMITIVES.contains(name);
+        }
+    }
+    
+    private static Type intern(Class<?> javaImpl) {
+        return Type.intern(Type.of(javaImpl));
+    }
+    
+    /**
+     * Utility classes should not be instantiated.
+     */
+    private TypeCatalog() { instanceNotAllowed(getClass()); }
+}
@@ -0,0 +1,99 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.codegen.internal.util;
+
+/**
+ * An immutable snapshot of the counters of a cache. Instances are created by
+ * the caches used internally by the code generator so that the effectiveness
+ * of the cache can be monitored.
+ *
+ * @author Emil Forslund
+ */
+public final class CacheStats {
+
+    private final long hits;
+    private final long misses;
+    private final int size;
+
+    /**
+     * Creates a new snapshot.
+     *
+     * @param hits    the number of lookups that was served from the cache
+     * @param misses  the number of lookups that had to be computed
+     * @param size    the number of entries currently in the cache
+     */
+    public CacheStats(long hits, long misses, int size) {
+        this.hits   = hits;
+        this.misses = misses;
+        this.size   = size;
+    }
+
+    /**
+     * Returns the number of lookups that was served from the cache.
+     *
+     * @return  the number of hits
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of lookups that could not be served from the cache.
+     *
+     * @return  the number of misses
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the total number of lookups.
+     *
+     * @return  the number of requests
+     */
+    public long getRequests() {
+        return hits + misses;
+    }
+
+    /**
+     * Returns the number of entries in the cache when the snapshot was taken.
+     *
+     * @return  the size
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the ratio of lookups that was served from the cache. If no
+     * lookups has been made, {@code 1.0} is returned.
+     *
+     * @return  the hit rate between {@code 0.0} and {@code 1.0}
+     */
+    public double getHitRate() {
+        final long requests = getRequests();
+        return requests == 0 ? 1d : (double) hits / requests;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "CacheStats{hits=%d, misses=%d, size=%d, hitRate=%.3f}",
+            hits, misses, size, getHitRate()
+        );
+    }
+}
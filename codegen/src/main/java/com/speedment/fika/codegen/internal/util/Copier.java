@@ -16,6 +16,7 @@
  */
 package com.speedment.fika.codegen.internal.util;
 
+import com.speedment.fika.codegen.internal.model.InternedType;
 import static com.speedment.fika.codegen.internal.util.StaticClassUtil.instanceNotAllowed;
 import com.speedment.fika.codegen.model.trait.HasCopy;
 import java.util.ArrayList;
@@ -28,17 +29,36 @@ import java.util.Set;
 import java.util.function.Function;
 
 /**
+ * Utility methods for copying models.
+ * <p>
+ * Models that are enum constants (like the ones in 
+ * {@link com.speedment.fika.codegen.internal.model.constant.DefaultType}) are
+ * immutable and are therefore shared by the copies instead of being cloned.
  *
  * @author Emil Forslund
  */
 public final class Copier {
     
+    /**
+     * Copies the specified model. If the model is an immutable constant or an
+     * interned type, the same instance is returned.
+     * 
+     * @param <T>        the model type
+     * @param prototype  the model to copy or <code>null</code>
+     * @return           the copy or <code>null</code>
+     */
 	public static <T extends HasCopy<T>> T copy(T prototype) {
-        return prototype == null ? null : prototype.copy();
+        if (prototype == null 
+        ||  prototype instanceof Enum
+        ||  prototype instanceof InternedType) {
+            return prototype;
+        } else {
+            return prototype.copy();
+        }
     }
     
     public static <T extends HasCopy<T>> Optional<T> copy(Optional<T> prototype) {
-		return Copier.copy(prototype, c -> c.copy());
+		return Copier.copy(prototype, Copier::copy);
 	}
 	
 	public static <T> Optional<T> copy(Optional<T> prototype, Function<T, T> copier) {
@@ -52,7 +72,7 @@ public final class Copier {
 	}
 	
 	public static <T extends HasCopy<T>> List<T> copy(List<T> prototype) {
-		return Copier.copy(requireNonNull(prototype), c -> c.copy());
+		return Copier.copy(requireNonNull(prototype), Copier::copy);
 	}
 	
 	public static <T> List<T> copy(List<T> prototype, Function<T, T> copier) {
@@ -60,7 +80,7 @@ public final class Copier {
 	}
 	
 	public static <T extends HasCopy<T>> Set<T> copy(Set<T> prototype) {
-		return Copier.copy(requireNonNull(prototype), c -> c.copy());
+		return Copier.copy(requireNonNull(prototype), Copier::copy);
 	}
 
 	public static <T> Set<T> copy(Set<T> prototype, Function<T, T> copier) {
@@ -52,7 +52,15 @@ public final class Formatting {
      * @return The resulting text.
      */
     public static String lcfirst(String input) {
-        return withFirst(input, (first) -> String.valueOf(Character.toLowerCase(first)));
+        if (input == null) {
+            return null;
+        } else if (input.isEmpty()) {
+            return EMPTY;
+        } else {
+            final char first = input.charAt(0);
+            final char lower = Character.toLowerCase(first);
+            return first == lower ? input : withFirst(input, lower);
+        }
     }
 
     /**
@@ -62,7 +70,15 @@ public final class Formatting {
      * @return The resulting text.
      */
     public static String ucfirst(String input) {
-        return withFirst(input, (first) -> String.valueOf(Character.toUpperCase(first)));
+        if (input == null) {
+            return null;
+        } else if (input.isEmpty()) {
+            return EMPTY;
+        } else {
+            final char first = input.charAt(0);
+            final char upper = Character.toUpperCase(first);
+            return first == upper ? input : withFirst(input, upper);
+        }
     }
 
     /**
@@ -78,12 +94,23 @@ public final class Formatting {
         } else if (input.length() == 0) {
             return EMPTY;
         } else {
-            return String.join(EMPTY,
-                callback.apply(input.charAt(0)),
-                input.subSequence(1, input.length())
-            );
+            return callback.apply(input.charAt(0)).concat(input.substring(1));
         }
     }
+    
+    /**
+     * Returns a copy of the specified non-empty String with the first 
+     * character replaced.
+     * 
+     * @param input  the string
+     * @param first  the new first character
+     * @return       the new string
+     */
+    private static String withFirst(String input, char first) {
+        final char[] chars = input.toCharArray();
+        chars[0] = first;
+        return new String(chars);
+    }
 	
 	/**
 	 * Repeats the specified substring count times.
@@ -92,14 +119,37 @@ public final class Formatting {
 	 * @return The new String.
 	 */
 	public static String repeat(String str, int count) {
-		final StringBuilder result = new StringBuilder();
+        switch (count <= 0 ? 0 : str.length()) {
+            case 0  : return EMPTY;
+            case 1  : return repeat(str.charAt(0), count);
+            default : {
+                final StringBuilder result = new StringBuilder(str.length() * count);
 
-		for (int i = 0; i < count; i++) {
-			result.append(str);
-		}
-		
-		return result.toString();
+                for (int i = 0; i < count; i++) {
+                    result.append(str);
+                }
+
+                return result.toString();
+            }
+        }
 	}
+    
+    /**
+     * Repeats the specified character count times.
+     * 
+     * @param c      the character to repeat
+     * @param count  the number of times to repeat it
+     * @return       the new string
+     */
+    public static String repeat(char c, int count) {
+        if (count <= 0) {
+            return EMPTY;
+        } else {
+            final char[] chars = new char[count];
+            Arrays.fill(chars, c);
+            return new String(chars);
+        }
+    }
 
     /**
      * Indents the specified text, surrounds it with brackets and put the
@@ -147,7 +197,7 @@ public final class Formatting {
      * @return The indented text.
      */
     public static String indent(String text) {
-        return tab + text.replaceAll("\\r?\\n", nltab);
+        return indent(text, 1);
     }
     
     /**
@@ -159,7 +209,29 @@ public final class Formatting {
      * @return The indented text.
      */
     public static String indent(String... text) {
-        return tab + String.join(nl(), text).replaceAll("\\r?\\n", nltab);
+        requireNonNullElements(text);
+        
+        int length = tab.length();
+        for (final String row : text) {
+            length += row.length() + nltab.length();
+        }
+        
+        final StringBuilder str = new StringBuilder(length).append(tab);
+        for (int i = 0; i < text.length; i++) {
+            if (i > 0) {
+                // A carriage return that ends the previous text belongs to 
+                // the line break that separates it from this one.
+                if (nl.startsWith("\n") && text[i - 1].endsWith("\r")) {
+                    str.setLength(str.length() - 1);
+                }
+                
+                indentTo(str, nl, nltab);
+            }
+            
+            indentTo(str, text[i], nltab);
+        }
+        
+        return str.toString();
     }
     
     /**
@@ -171,11 +243,39 @@ public final class Formatting {
      * @return       the indented text
      */
     public static String indent(String text, int steps) {
-        switch (steps) {
-            case 0  : return text;
-            case 1  : return indent(text);
-            default : return indent(indent(text, steps - 1));
+        requireNonNull(text);
+        if (steps <= 0) {
+            return text;
+        }
+        
+        final String tabs = steps == 1 ? tab : repeat(tab, steps);
+        final String nltabs = steps == 1 ? nltab : nl + tabs;
+        
+        final StringBuilder str = new StringBuilder(
+            tabs.length() + text.length() + 8 * nltabs.length()
+        ).append(tabs);
+        
+        return indentTo(str, text, nltabs).toString();
+    }
+    
+    /**
+     * Appends the specified text to the builder, replacing every line break 
+     * (<code>\n</code> or <code>\r\n</code>) with the specified string.
+     * 
+     * @param str     the builder to append to
+     * @param text    the text to append
+     * @param nltabs  the replacement for every line break
+     * @return        the builder
+     */
+    private static StringBuilder indentTo(StringBuilder str, String text, String nltabs) {
+        int start = 0;
+        for (int i = text.indexOf('\n'); i >= 0; i = text.indexOf('\n', start)) {
+            final int end = (i > start && text.charAt(i - 1) == '\r') ? i - 1 : i;
+            str.append(text, start, end).append(nltabs);
+            start = i + 1;
         }
+        
+        return str.append(text, start, text.length());
     }
 	
 	/**
@@ -0,0 +1,277 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.codegen.internal.util;
+
+import static java.util.Objects.requireNonNull;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Wraps javadoc text so that it fits within a fixed width. Words are 
+ * separated by white spaces and are moved to the next line when the line
+ * would otherwise become too long. The text is formatted in a single pass
+ * over the characters, without splitting it into a list of words first.
+ * <p>
+ * The following constructs are kept intact:
+ * <ul>
+ *     <li>A <code>&lt;pre&gt;</code> block is put on lines of its own and 
+ *         the text up to and including the closing tag is kept as it is, 
+ *         including line breaks and indentation.
+ *     <li>Inline tags like <code>{&#64;code ...}</code> and 
+ *         <code>{&#64;link ...}</code> are never broken, even if they 
+ *         contain white spaces.
+ *     <li>A <code>&lt;p&gt;</code> is put on a line of its own.
+ * </ul>
+ * Since the same javadoc is often rendered many times, an instance keeps 
+ * the results in a cache. Every instance has a fixed width and line 
+ * separator, so the cache is keyed by the text only. The cache is thread 
+ * safe and is cleared when it becomes full.
+ *
+ * @author Emil Forslund
+ * @since  2.4
+ */
+public final class JavadocFormatter {
+    
+    /**
+     * The default width of formatted javadoc text.
+     */
+    public final static int DEFAULT_WIDTH = 74;
+    
+    private final static int DEFAULT_CACHE_SIZE = 4096;
+    private final static String 
+        PARAGRAPH = "<p>",
+        PRE_BEGIN = "<pre>",
+        PRE_END   = "</pre>",
+        NL        = "\n";
+    
+    private final int width;
+    private final String separator;
+    private final int maxCacheSize;
+    private final Map<String, String> cache;
+    private final LongAdder hits, misses;
+    
+    /**
+     * Creates a formatter that wraps text at the {@link #DEFAULT_WIDTH} and
+     * separates lines with a <code>\n</code> character.
+     */
+    public JavadocFormatter() {
+        this(DEFAULT_WIDTH, NL);
+    }
+    
+    /**
+     * Creates a formatter that wraps text at the specified width and 
+     * separates lines with the specified separator. The separator can 
+     * contain the prefix of every new line, for an example 
+     * <code>"\n * "</code>.
+     * 
+     * @param width      the maximum width of a line
+     * @param separator  the string to put between lines
+     */
+    public JavadocFormatter(int width, String separator) {
+        this(width, separator, DEFAULT_CACHE_SIZE);
+    }
+    
+    /**
+     * Creates a formatter that wraps text at the specified width and 
+     * separates lines with the specified separator. At most the specified
+     * number of results are cached.
+     * 
+     * @param width         the maximum width of a line
+     * @param separator     the string to put between lines
+     * @param maxCacheSize  the maximum number of cached results
+     */
+    public JavadocFormatter(int width, String separator, int maxCacheSize) {
+        this.width        = width;
+        this.separator    = requireNonNull(separator);
+        this.maxCacheSize = maxCacheSize;
+        this.cache        = new ConcurrentHashMap<>();
+        this.hits         = new LongAdder();
+        this.misses       = new LongAdder();
+    }
+    
+    /**
+     * Returns the specified text wrapped to the width of this formatter. If
+     * the same text has been formatted before, the cached result is 
+     * returned.
+     * 
+     * @param text  the text to format
+     * @return      the formatted text
+     */
+    public String format(String text) {
+        requireNonNull(text);
+        
+        final String cached = cache.get(text);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        
+        misses.increment();
+        final String result = format(text, width, separator);
+        
+        if (cache.size() >= maxCacheSize) {
+            cache.clear();
+        }
+        
+        cache.put(text, result);
+        return result;
+    }
+    
+    /**
+     * Returns a snapshot of the hits and misses of the cache.
+     * 
+     * @return  the statistics
+     */
+    public CacheStats getStats() {
+        return new CacheStats(hits.sum(), misses.sum(), cache.size());
+    }
+    
+    /**
+     * Returns the specified text wrapped to the specified width, with lines
+     * separated by the specified separator. The result is not cached.
+     * 
+     * @param text       the text to format
+     * @param width      the maximum width of a line
+     * @param separator  the string to put between lines
+     * @return           the formatted text
+     */
+    public static String format(String text, int width, String separator) {
+        requireNonNull(text);
+        requireNonNull(separator);
+        
+        final StringBuilder out = new StringBuilder(text.length() + 16);
+        final int length = text.length();
+        
+        int col = 0;
+        int i   = 0;
+        boolean breakBefore = false;
+        
+        while (i < length) {
+            while (i < length && isWhitespace(text.charAt(i))) {
+                i++;
+            }
+            
+            if (i == length) {
+                break;
+            }
+            
+            if (text.startsWith(PRE_BEGIN, i)) {
+                final int close = text.indexOf(PRE_END, i);
+                final int end   = close < 0 ? length : close + PRE_END.length();
+                
+                if (col > 0 || breakBefore) {
+                    out.append(separator);
+                }
+                
+                appendLines(out, text, i, end, separator);
+                breakBefore = true;
+                col = 0;
+                i = end;
+                continue;
+            }
+            
+            final int begin = i;
+            while (i < length && !isWhitespace(text.charAt(i))) {
+                if (text.charAt(i) == '{' && i + 1 < length && text.charAt(i + 1) == '@') {
+                    i = endOfInlineTag(text, i);
+                } else {
+                    i++;
+                }
+            }
+            
+            final int wordLen = i - begin;
+            
+            if (wordLen == PARAGRAPH.length() && text.startsWith(PARAGRAPH, begin)) {
+                out.append(separator).append(PARAGRAPH).append(separator);
+                breakBefore = false;
+                col = 0;
+            } else {
+                if (breakBefore) {
+                    out.append(separator);
+                    breakBefore = false;
+                }
+                
+                if (col + wordLen >= width) {
+                    out.append(separator);
+                    col = 0;
+                } else if (col > 0) {
+                    out.append(' ');
+                    col++;
+                }
+                
+                appendLines(out, text, begin, i, separator);
+                col += wordLen;
+            }
+        }
+        
+        return out.toString();
+    }
+    
+    /**
+     * Returns the index after the closing bracket of the inline tag that 
+     * begins at the specified index. Nested brackets are matched. If the tag
+     * is never closed, the length of the text is returned.
+     * 
+     * @param text   the text
+     * @param begin  the index of the opening bracket
+     * @return       the index after the tag
+     */
+    private static int endOfInlineTag(String text, int begin) {
+        int depth = 0;
+        for (int i = begin; i < text.length(); i++) {
+            switch (text.charAt(i)) {
+                case '{' : depth++; break;
+                case '}' : if (--depth == 0) return i + 1; break;
+                default  : break;
+            }
+        }
+        
+        return text.length();
+    }
+    
+    /**
+     * Appends the text between the specified indexes to the builder, 
+     * replacing every line break with the separator.
+     * 
+     * @param out        the builder to append to
+     * @param text       the text
+     * @param begin      the first index
+     * @param end        the index after the last character
+     * @param separator  the line separator
+     */
+    private static void appendLines(StringBuilder out, String text, int begin, int end, String separator) {
+        int start = begin;
+        for (int i = begin; i < end; i++) {
+            if (text.charAt(i) == '\n') {
+                final int lineEnd = (i > start && text.charAt(i - 1) == '\r') ? i - 1 : i;
+                out.append(text, start, lineEnd).append(separator);
+                start = i + 1;
+            }
+        }
+        
+        out.append(text, start, end);
+    }
+    
+    private static boolean isWhitespace(char c) {
+        switch (c) {
+            case ' '  : case '\t' : case '\n' : 
+            case '\u000B' : case '\f' : case '\r' : return true;
+            default : return false;
+        }
+    }
+}
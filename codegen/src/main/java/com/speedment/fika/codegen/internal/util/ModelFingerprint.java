@@ -0,0 +1,352 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.codegen.internal.util;
+
+import com.speedment.fika.codegen.RenderSink;
+import com.speedment.fika.codegen.model.CodeBlock;
+import static com.speedment.fika.codegen.internal.util.StaticClassUtil.instanceNotAllowed;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+import static java.util.stream.Collectors.collectingAndThen;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Computes a content fingerprint of a model graph. Two models that would
+ * produce the same code when rendered by the same generator get the same
+ * fingerprint, even if they are different instances.
+ * <p>
+ * The graph is traversed using the zero-argument getters of the model 
+ * interfaces and traits (for an example {@code HasName#getName()} and 
+ * {@code HasFields#getFields()}), so models that are added later are 
+ * covered automatically. The elements of sets are fingerprinted separately
+ * and sorted so that the result does not depend on the iteration order.
+ * <p>
+ * A {@link CodeBlock} is not fingerprinted as a list of rows since that view
+ * does not show how nested rows are indented. Instead, the block is rendered
+ * into a sink that records every row, new-line, change of indentation and
+ * protected region that is written.
+ *
+ * @author Emil Forslund
+ */
+public final class ModelFingerprint {
+    
+    private final static String ALGORITHM = "SHA-256",
+        CODEGEN_PACKAGE = "com.speedment.fika.codegen.",
+        MODEL_PACKAGE = CODEGEN_PACKAGE + "model";
+    
+    private final static char
+        NULL = 'N', TEXT = 'T', PRIMITIVE = 'P', ENUM = 'E', CLASS = 'C', 
+        OPTIONAL = 'O', ENTRY = 'K', LIST = 'L', SET = 'S', MODEL = 'M', 
+        BLOCK = 'B', OTHER = 'X';
+    
+    private final static ClassValue<List<Method>> GETTERS = 
+        new ClassValue<List<Method>>() {
+            @Override
+            protected List<Method> computeValue(Class<?> type) {
+                return findGetters(type);
+            }
+        };
+    
+    private final static ClassValue<String> NAMES = 
+        new ClassValue<String>() {
+            @Override
+            protected String computeValue(Class<?> type) {
+                final String name = type.getName();
+                return name.startsWith(CODEGEN_PACKAGE)
+                    ? name.substring(CODEGEN_PACKAGE.length())
+                    : name;
+            }
+        };
+    
+    /**
+     * Computes the fingerprint of the specified model and returns it as a
+     * hexadecimal string.
+     * 
+     * @param model  the model
+     * @return       the fingerprint
+     * 
+     * @throws IllegalArgumentException  if the model graph contains a cycle
+     */
+    public static String of(Object model) {
+        return toHex(digest(model));
+    }
+    
+    /**
+     * Computes the fingerprint of the specified model as a raw digest.
+     * 
+     * @param model  the model
+     * @return       the digest bytes
+     * 
+     * @throws IllegalArgumentException  if the model graph contains a cycle
+     */
+    public static byte[] digest(Object model) {
+        return newDigest().digest(
+            encode(model).getBytes(StandardCharsets.UTF_8)
+        );
+    }
+    
+    /**
+     * Converts the specified bytes to a lowercase hexadecimal string.
+     * 
+     * @param bytes  the bytes
+     * @return       the hexadecimal string
+     */
+    public static String toHex(byte[] bytes) {
+        final char[] hex = "0123456789abcdef".toCharArray();
+        final char[] result = new char[bytes.length * 2];
+        
+        for (int i = 0; i < bytes.length; i++) {
+            result[2 * i]     = hex[(bytes[i] >> 4) & 0xf];
+            result[2 * i + 1] = hex[bytes[i] & 0xf];
+        }
+        
+        return new String(result);
+    }
+    
+    /**
+     * Creates a new message digest of the algorithm used for fingerprints.
+     * 
+     * @return  the new digest
+     */
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(ALGORITHM);
+        } catch (final NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(
+                "Every java platform is required to support " + ALGORITHM + ".", ex
+            );
+        }
+    }
+    
+    /**
+     * Encodes the specified model graph into an unambiguous string. Every 
+     * value is prefixed by a tag and every text by its length so that 
+     * different graphs never result in the same string.
+     * 
+     * @param model  the model
+     * @return       the encoded graph
+     */
+    private static String encode(Object model) {
+        final StringBuilder out = new StringBuilder(256);
+        encode(out, requireNonNull(model), new IdentityHashMap<>());
+        return out.toString();
+    }
+    
+    private static void encode(StringBuilder out, Object value, Map<Object, Boolean> visiting) {
+        if (value == null) {
+            out.append(NULL);
+        } else if (value instanceof CharSequence) {
+            text(out.append(TEXT), value.toString());
+        } else if (value instanceof Number 
+               ||  value instanceof Boolean 
+               ||  value instanceof Character) {
+            text(text(out.append(PRIMITIVE), NAMES.get(value.getClass())), value.toString());
+        } else if (value instanceof Enum) {
+            final Enum<?> e = (Enum<?>) value;
+            text(text(out.append(ENUM), NAMES.get(e.getDeclaringClass())), e.name());
+        } else if (value instanceof Class) {
+            text(out.append(CLASS), ((Class<?>) value).getName());
+        } else if (value instanceof Optional) {
+            encode(out.append(OPTIONAL), ((Optional<?>) value).orElse(null), visiting);
+        } else if (value instanceof Map.Entry) {
+            final Map.Entry<?, ?> entry = (Map.Entry<?, ?>) value;
+            encode(out.append(ENTRY), entry.getKey(), visiting);
+            encode(out, entry.getValue(), visiting);
+        } else if (value instanceof Set) {
+            final Set<?> set = (Set<?>) value;
+            out.append(SET).append(set.size()).append(':');
+            
+            if (set.size() == 1) {
+                encode(out, set.iterator().next(), visiting);
+            } else if (set.size() > 1) {
+                final List<String> elements = new ArrayList<>(set.size());
+                for (final Object element : set) {
+                    final StringBuilder sb = new StringBuilder();
+                    encode(sb, element, visiting);
+                    elements.add(sb.toString());
+                }
+                
+                Collections.sort(elements);
+                elements.forEach(out::append);
+            }
+        } else if (value instanceof CodeBlock) {
+            out.append(BLOCK);
+            ((CodeBlock) value).render(new RecordingSink(out));
+            out.append(BLOCK);
+        } else if (value instanceof Collection) {
+            final Collection<?> list = (Collection<?>) value;
+            out.append(LIST).append(list.size()).append(':');
+            for (final Object element : list) {
+                encode(out, element, visiting);
+            }
+        } else if (isModel(value.getClass())) {
+            if (visiting.put(value, Boolean.TRUE) != null) {
+                throw new IllegalArgumentException(
+                    "The model graph contains a cycle at " + 
+                    value.getClass().getName() + "."
+                );
+            }
+            
+            text(out.append(MODEL), NAMES.get(value.getClass()));
+            
+            for (final Method getter : GETTERS.get(value.getClass())) {
+                encode(out, invoke(getter, value), visiting);
+            }
+            
+            visiting.remove(value);
+        } else {
+            text(text(out.append(OTHER), NAMES.get(value.getClass())), value.toString());
+        }
+    }
+    
+    private static StringBuilder text(StringBuilder out, String text) {
+        return out.append(text.length()).append(':').append(text);
+    }
+    
+    private static Object invoke(Method getter, Object model) {
+        try {
+            return getter.invoke(model);
+        } catch (final IllegalAccessException ex) {
+            throw new IllegalStateException(
+                "Could not access getter '" + getter + "'.", ex
+            );
+        } catch (final InvocationTargetException ex) {
+            throw new IllegalStateException(
+                "Getter '" + getter + "' failed.", ex.getCause()
+            );
+        }
+    }
+    
+    private static boolean isModel(Class<?> type) {
+        return !GETTERS.get(type).isEmpty();
+    }
+    
+    private static List<Method> findGetters(Class<?> type) {
+        return interfaces(type)
+            .filter(i -> i.getName().startsWith(MODEL_PACKAGE))
+            .flatMap(i -> Stream.of(i.getMethods()))
+            .filter(m -> m.getParameterCount() == 0)
+            .filter(m -> !Modifier.isStatic(m.getModifiers()))
+            .filter(m -> m.getReturnType() != void.class)
+            .filter(m -> m.getName().startsWith("get") || m.getName().startsWith("is"))
+            .collect(collectingAndThen(toList(), ModelFingerprint::distinct));
+    }
+    
+    private static List<Method> distinct(List<Method> methods) {
+        final List<Method> result = new ArrayList<>();
+        methods.stream()
+            .sorted(Comparator.comparing(Method::getName))
+            .forEachOrdered(m -> {
+                if (result.isEmpty() 
+                || !result.get(result.size() - 1).getName().equals(m.getName())) {
+                    m.setAccessible(true);
+                    result.add(m);
+                }
+            });
+        
+        return Collections.unmodifiableList(result);
+    }
+    
+    private static Stream<Class<?>> interfaces(Class<?> type) {
+        if (type == null) {
+            return Stream.empty();
+        }
+        
+        return Stream.concat(
+            Stream.of(type.getInterfaces()).flatMap(i -> 
+                Stream.concat(Stream.of(i), interfaces(i))
+            ),
+            interfaces(type.getSuperclass())
+        );
+    }
+    
+    /**
+     * A sink that encodes every call made to it instead of writing the text,
+     * so that blocks with the same rows but different structure are 
+     * encoded differently. Protected regions are never found, so the default
+     * rows of every region are encoded.
+     */
+    private final static class RecordingSink implements RenderSink {
+        
+        private final static char
+            WRITE = 'w', NEW_LINE = 'n', INDENT = '>', OUTDENT = '<', REGION = 'r';
+        
+        private final StringBuilder out;
+        private int level;
+
+        private RecordingSink(StringBuilder out) {
+            this.out = out;
+        }
+
+        @Override
+        public RenderSink write(CharSequence text) {
+            text(out.append(WRITE), text.toString());
+            return this;
+        }
+
+        @Override
+        public RenderSink nl() {
+            out.append(NEW_LINE);
+            return this;
+        }
+
+        @Override
+        public RenderSink indent() {
+            out.append(INDENT);
+            level++;
+            return this;
+        }
+
+        @Override
+        public RenderSink outdent() {
+            out.append(OUTDENT);
+            level--;
+            return this;
+        }
+
+        @Override
+        public int getIndentation() {
+            return level;
+        }
+
+        @Override
+        public Optional<List<String>> takeRegion(String name) {
+            text(out.append(REGION), name);
+            return Optional.empty();
+        }
+    }
+    
+    /**
+     * Utility classes should not be instantiated.
+     */
+    private ModelFingerprint() { instanceNotAllowed(getClass()); }
+}
@@ -0,0 +1,105 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.codegen.internal.util;
+
+import com.speedment.fika.codegen.model.modifier.Modifier;
+import static com.speedment.fika.codegen.internal.util.Formatting.EMPTY;
+import static com.speedment.fika.codegen.internal.util.Formatting.SPACE;
+import static com.speedment.fika.codegen.internal.util.StaticClassUtil.instanceNotAllowed;
+import java.util.Set;
+
+/**
+ * A table of the rendered code for every combination of {@link Modifier 
+ * modifiers}. Each combination is identified by a bit mask of the modifier 
+ * ordinals, so rendering the modifiers of a model is a single array lookup
+ * instead of one transform per modifier.
+ * <p>
+ * Modifiers are rendered in the order they are declared in the 
+ * <code>Modifier</code> enum, which is the same order as they are iterated 
+ * by an {@link java.util.EnumSet}. A combination is joined the first time it 
+ * is used.
+ * 
+ * @author Emil Forslund
+ * @since  2.4
+ */
+public final class ModifierTable {
+    
+    private final static Modifier[] MODIFIERS = Modifier.values();
+    private final static String[] RENDERED = new String[1 << MODIFIERS.length];
+    
+    static {
+        RENDERED[0] = EMPTY;
+    }
+    
+    /**
+     * Returns the specified modifiers as they should appear in code, 
+     * separated by spaces and with a trailing space. If the set is empty, an
+     * empty string is returned.
+     * 
+     * @param modifiers  the modifiers to render
+     * @return           the rendered modifiers
+     */
+    public static String render(Set<Modifier> modifiers) {
+        return render(maskOf(modifiers));
+    }
+    
+    /**
+     * Returns the modifiers in the specified bit mask as they should appear 
+     * in code, separated by spaces and with a trailing space.
+     * 
+     * @param mask  the bit mask of modifier ordinals
+     * @return      the rendered modifiers
+     */
+    public static String render(int mask) {
+        final String cached = RENDERED[mask];
+        
+        if (cached == null) {
+            // Strings are immutable, so it does not matter if two threads
+            // happen to join the same combination at the same time.
+            final StringBuilder str = new StringBuilder();
+            for (final Modifier modifier : MODIFIERS) {
+                if ((mask & (1 << modifier.ordinal())) != 0) {
+                    str.append(modifier.getName()).append(SPACE);
+                }
+            }
+            
+            return RENDERED[mask] = str.toString();
+        }
+        
+        return cached;
+    }
+    
+    /**
+     * Returns a bit mask with the bits of the ordinals of the specified 
+     * modifiers set.
+     * 
+     * @param modifiers  the modifiers
+     * @return           the bit mask
+     */
+    public static int maskOf(Set<Modifier> modifiers) {
+        int mask = 0;
+        for (final Modifier modifier : modifiers) {
+            mask |= 1 << modifier.ordinal();
+        }
+        return mask;
+    }
+    
+    /**
+     * Utility classes should not be instantiated.
+     */
+    private ModifierTable() { instanceNotAllowed(getClass()); }
+}
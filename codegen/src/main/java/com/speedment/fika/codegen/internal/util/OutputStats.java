@@ -0,0 +1,92 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.codegen.internal.util;
+
+/**
+ * An immutable snapshot of how many files and bytes that have been written
+ * by an output.
+ *
+ * @author Emil Forslund
+ * @since  2.4
+ */
+public final class OutputStats {
+
+    private final long filesWritten;
+    private final long filesSkipped;
+    private final long bytesWritten;
+
+    /**
+     * Creates a new snapshot.
+     *
+     * @param filesWritten  the number of files that were written
+     * @param filesSkipped  the number of files that were already up to date
+     * @param bytesWritten  the total number of bytes written
+     */
+    public OutputStats(long filesWritten, long filesSkipped, long bytesWritten) {
+        this.filesWritten = filesWritten;
+        this.filesSkipped = filesSkipped;
+        this.bytesWritten = bytesWritten;
+    }
+
+    /**
+     * Returns the number of files that were written since they did not exist
+     * or had changed.
+     *
+     * @return  the number of files written
+     */
+    public long getFilesWritten() {
+        return filesWritten;
+    }
+
+    /**
+     * Returns the number of files that were not written since the content on
+     * disk was already identical.
+     *
+     * @return  the number of files skipped
+     */
+    public long getFilesSkipped() {
+        return filesSkipped;
+    }
+
+    /**
+     * Returns the total number of files that were rendered, including the 
+     * ones that were skipped.
+     *
+     * @return  the number of files rendered
+     */
+    public long getFiles() {
+        return filesWritten + filesSkipped;
+    }
+
+    /**
+     * Returns the total number of bytes written to disk. Files that were 
+     * skipped are not included.
+     *
+     * @return  the number of bytes written
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "OutputStats{filesWritten=%d, filesSkipped=%d, bytesWritten=%d}",
+            filesWritten, filesSkipped, bytesWritten
+        );
+    }
+}
@@ -0,0 +1,130 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.codegen.internal.util;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An immutable snapshot of the generation cost that has been measured for
+ * one transform class or one model class by a profiling generator.
+ * <p>
+ * Times, allocations and output sizes are inclusive, meaning that the cost of
+ * rendering nested models is included in the cost of the model that 
+ * contains them. The self time excludes the time spent in nested transforms.
+ *
+ * @author Emil Forslund
+ * @since  2.4
+ */
+public final class ProfileStats {
+
+    private final Class<?> type;
+    private final long invocations;
+    private final long totalNanos;
+    private final long selfNanos;
+    private final long allocatedBytes;
+    private final long outputChars;
+
+    /**
+     * Creates a new snapshot.
+     *
+     * @param type            the transform or model class measured
+     * @param invocations     the number of invocations
+     * @param totalNanos      the cumulative wall time in nanoseconds
+     * @param selfNanos       the wall time excluding nested transforms
+     * @param allocatedBytes  the number of bytes allocated, or -1 if not 
+     *                        supported by the JVM
+     * @param outputChars     the number of characters produced
+     */
+    public ProfileStats(Class<?> type, long invocations, long totalNanos, 
+            long selfNanos, long allocatedBytes, long outputChars) {
+        
+        this.type           = requireNonNull(type);
+        this.invocations    = invocations;
+        this.totalNanos     = totalNanos;
+        this.selfNanos      = selfNanos;
+        this.allocatedBytes = allocatedBytes;
+        this.outputChars    = outputChars;
+    }
+
+    /**
+     * Returns the transform or model class that was measured.
+     *
+     * @return  the measured class
+     */
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * Returns the number of times a transform was invoked.
+     *
+     * @return  the number of invocations
+     */
+    public long getInvocations() {
+        return invocations;
+    }
+
+    /**
+     * Returns the cumulative wall time of all the invocations, including
+     * the time spent rendering nested models.
+     *
+     * @return  the total time in nanoseconds
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * Returns the cumulative wall time of all the invocations, excluding
+     * the time spent in nested transforms.
+     *
+     * @return  the self time in nanoseconds
+     */
+    public long getSelfNanos() {
+        return selfNanos;
+    }
+
+    /**
+     * Returns the number of bytes allocated by the rendering thread during 
+     * the invocations, or <code>-1</code> if the JVM does not support 
+     * measuring thread allocations.
+     *
+     * @return  the allocated bytes
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Returns the total number of characters produced by the invocations.
+     *
+     * @return  the output size
+     */
+    public long getOutputChars() {
+        return outputChars;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "ProfileStats{type=%s, invocations=%d, totalNanos=%d, " + 
+            "selfNanos=%d, allocatedBytes=%d, outputChars=%d}",
+            type.getName(), invocations, totalNanos, selfNanos, 
+            allocatedBytes, outputChars
+        );
+    }
+}
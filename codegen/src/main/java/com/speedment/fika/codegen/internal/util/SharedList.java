@@ -0,0 +1,192 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.codegen.internal.util;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import static java.util.Objects.requireNonNull;
+import java.util.RandomAccess;
+
+/**
+ * A mutable list that can be shared in constant time. Calling 
+ * {@link #share()} returns a new list that uses the same backing array as
+ * this one. The array is not copied until one of the lists is modified, so
+ * copying a model with large lists of immutable elements (like the rows of
+ * code in a method) only costs as much as the parts that are later changed.
+ * <p>
+ * The elements themselves are never copied, so this list should only be
+ * used for immutable elements such as strings.
+ * <p>
+ * This class is not thread safe.
+ *
+ * @param <E>  the element type
+ * @author     Emil Forslund
+ */
+public final class SharedList<E> extends AbstractList<E> implements RandomAccess {
+    
+    private final static Object[] EMPTY = {};
+    private final static int MIN_CAPACITY = 8;
+    
+    private Object[] elements;
+    private int size;
+    private boolean shared;
+    
+    /**
+     * Creates a new empty list.
+     */
+    public SharedList() {
+        this.elements = EMPTY;
+        this.size     = 0;
+        this.shared   = true;
+    }
+    
+    /**
+     * Creates a new list with the elements of the specified collection.
+     * 
+     * @param prototype  the elements to add
+     */
+    public SharedList(Collection<? extends E> prototype) {
+        this.elements = requireNonNull(prototype).toArray();
+        this.size     = elements.length;
+        this.shared   = false;
+    }
+    
+    /**
+     * Copy constructor used by {@link #share()}. 
+     * 
+     * @param prototype  the list to share array with
+     */
+    private SharedList(SharedList<E> prototype) {
+        this.elements = prototype.elements;
+        this.size     = prototype.size;
+        this.shared   = true;
+    }
+    
+    /**
+     * Returns a new list with the same elements as this one. The backing 
+     * array is shared until any of the lists is modified.
+     * 
+     * @return  the new list
+     */
+    public SharedList<E> share() {
+        shared = true;
+        return new SharedList<>(this);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        rangeCheck(index);
+        return (E) elements[index];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public E set(int index, E element) {
+        rangeCheck(index);
+        ensureOwned(size);
+        final E old = (E) elements[index];
+        elements[index] = element;
+        return old;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void add(int index, E element) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException(outOfBounds(index));
+        }
+        
+        ensureOwned(size + 1);
+        System.arraycopy(elements, index, elements, index + 1, size - index);
+        elements[index] = element;
+        size++;
+        modCount++;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public E remove(int index) {
+        rangeCheck(index);
+        ensureOwned(size);
+        final E old = (E) elements[index];
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+        elements[--size] = null;
+        modCount++;
+        return old;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear() {
+        elements = EMPTY;
+        size     = 0;
+        shared   = true;
+        modCount++;
+    }
+    
+    /**
+     * Makes sure that the backing array is not shared with any other list and
+     * that it can hold at least the specified number of elements.
+     * 
+     * @param capacity  the minimum capacity
+     */
+    private void ensureOwned(int capacity) {
+        if (shared) {
+            elements = Arrays.copyOf(elements, Math.max(
+                MIN_CAPACITY, Math.max(capacity, size + (size >> 1))
+            ));
+            shared = false;
+        } else if (capacity > elements.length) {
+            elements = Arrays.copyOf(elements, Math.max(
+                capacity, elements.length + (elements.length >> 1)
+            ));
+        }
+    }
+    
+    private void rangeCheck(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(outOfBounds(index));
+        }
+    }
+    
+    private String outOfBounds(int index) {
+        return "Index: " + index + ", Size: " + size;
+    }
+}
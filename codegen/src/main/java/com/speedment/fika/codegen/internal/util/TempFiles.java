@@ -0,0 +1,131 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.codegen.internal.util;
+
+import static com.speedment.fika.codegen.internal.util.StaticClassUtil.instanceNotAllowed;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import java.nio.file.attribute.PosixFileAttributeView;
+import static java.util.Objects.requireNonNull;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Utility methods for replacing a file by first writing a temporary file in
+ * the same directory and then moving it into place.
+ * <p>
+ * Unlike {@link Files#createTempFile(Path, String, String, 
+ * java.nio.file.attribute.FileAttribute...)}, which only lets the owner 
+ * read the file on POSIX systems, the temporary file is created with the 
+ * same permissions as the file it will replace, or with the default 
+ * permissions of new files if it does not exist yet. The permissions are 
+ * kept when the file is moved.
+ *
+ * @author Emil Forslund
+ * @since  2.4
+ */
+public final class TempFiles {
+    
+    private final static String SUFFIX = ".tmp";
+    
+    /**
+     * Creates an empty temporary file next to the specified target. 
+     * 
+     * @param target  the file that will be replaced
+     * @return        the temporary file
+     * 
+     * @throws IOException  if the file could not be created
+     */
+    public static Path createFor(Path target) throws IOException {
+        final Path absolute = requireNonNull(target).toAbsolutePath();
+        final Path folder   = absolute.getParent();
+        final String prefix = absolute.getFileName() + ".";
+        
+        while (true) {
+            final Path temp = folder.resolve(prefix + 
+                Long.toHexString(ThreadLocalRandom.current().nextLong()) + 
+                SUFFIX
+            );
+            
+            try {
+                Files.createFile(temp);
+            } catch (final FileAlreadyExistsException ex) {
+                continue;
+            }
+            
+            try {
+                copyPermissions(absolute, temp);
+            } catch (final IOException ex) {
+                Files.deleteIfExists(temp);
+                throw ex;
+            }
+            
+            return temp;
+        }
+    }
+    
+    /**
+     * Moves the specified temporary file into place, replacing the target 
+     * if it exists. The move is atomic if the file system supports it.
+     * 
+     * @param temp    the temporary file
+     * @param target  the file to replace
+     * 
+     * @throws IOException  if the file could not be moved
+     */
+    public static void moveInto(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, ATOMIC_MOVE);
+        } catch (final AtomicMoveNotSupportedException ex) {
+            Files.move(temp, target, REPLACE_EXISTING);
+        }
+    }
+    
+    /**
+     * Gives the copy the same POSIX permissions as the original, if the 
+     * original exists and the file system supports POSIX permissions.
+     * 
+     * @param original  the file to copy permissions from
+     * @param copy      the file to set permissions on
+     * 
+     * @throws IOException  if the permissions could not be copied
+     */
+    private static void copyPermissions(Path original, Path copy) 
+    throws IOException {
+        final PosixFileAttributeView view = 
+            Files.getFileAttributeView(copy, PosixFileAttributeView.class);
+        
+        if (view != null) {
+            try {
+                view.setPermissions(Files.getPosixFilePermissions(original));
+            } catch (final NoSuchFileException ex) {
+                // The target does not exist yet, so the default permissions 
+                // that the file was created with are kept.
+            }
+        }
+    }
+    
+    /**
+     * Utility classes should not be instantiated.
+     */
+    private TempFiles() { instanceNotAllowed(getClass()); }
+}
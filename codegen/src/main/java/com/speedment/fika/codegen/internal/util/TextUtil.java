@@ -20,13 +20,10 @@ import static com.speedment.fika.codegen.internal.util.NullUtil.requireNonNullEl
 import static com.speedment.fika.codegen.internal.util.NullUtil.requireNonNulls;
 import static com.speedment.fika.codegen.internal.util.StaticClassUtil.instanceNotAllowed;
 import java.util.Collections;
-import java.util.List;
+import java.util.Iterator;
 import static java.util.Objects.requireNonNull;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
-import static java.util.stream.Collectors.toList;
 import java.util.stream.Stream;
 
 /**
@@ -37,10 +34,7 @@ public final class TextUtil {
 
     //private static final Pattern WORDS = Pattern.compile("[\\.,\\s!;?:\"]+");
     private static final Pattern WORDS = Pattern.compile("[\\s]+");
-    private static final Pattern JAVADOC_WORDS = Pattern.compile("[\\s]+"); // Text within html tags "pre" are treated as one "word"
     private static final String NL = "\n";
-    private static final int JAVA_DOC_WIDTH = 74;
-    private static final Set<String> JAVA_DOC_SINGLE_LINE_WORDS = Collections.unmodifiableSet(Stream.of("<p>").collect(Collectors.toSet()));
 
     /**
      * Creates and returns a Stream of the words in the given text. Words are a
@@ -82,36 +76,115 @@ public final class TextUtil {
         requireNonNulls(text, splitter);
         requireNonNullElements(singleRowers);
 
-        final StringBuilder sb = new StringBuilder();
-        final AtomicInteger col = new AtomicInteger();
-        //final AtomicInteger wordCount = new AtomicInteger();
-        final List<String> words = splitter.splitAsStream(text).collect(toList());
-        for (final String w : words) {
-            final int wordLen = w.length();
-            if (singleRowers.contains(w)) {
-                sb.append(NL);
-                sb.append(w);
-                sb.append(NL);
-                col.set(0);
-            } else {
-                if (col.get() + wordLen >= width) {
-                    sb.append(NL);
-                    col.set(0);
-                } else if (col.get() > 0) {
-                    sb.append(" ");
-                    col.incrementAndGet();
+        final StringBuilder sb = new StringBuilder(text.length() + 16);
+        int col = 0;
+        
+        if (splitter == WORDS) {
+            // The pattern splits on white spaces, so the words can be found
+            // without going through the regex engine. Just like 
+            // Pattern.splitAsStream, a leading white space gives a leading 
+            // empty word unless there are no other words.
+            final int length = text.length();
+            if (length > 0 && isWhitespace(text.charAt(0)) && !isBlank(text)) {
+                col = appendWord(sb, text, 0, 0, col, width, singleRowers);
+            }
+            
+            int i = 0;
+            while (i < length) {
+                while (i < length && isWhitespace(text.charAt(i))) {
+                    i++;
+                }
+                
+                final int begin = i;
+                while (i < length && !isWhitespace(text.charAt(i))) {
+                    i++;
+                }
+                
+                if (i > begin) {
+                    col = appendWord(sb, text, begin, i, col, width, singleRowers);
                 }
-                sb.append(w);
-                col.getAndAdd(wordLen);
             }
-            //wordCount.incrementAndGet();
+        } else {
+            final Iterator<String> words = splitter.splitAsStream(text).iterator();
+            while (words.hasNext()) {
+                final String w = words.next();
+                col = appendWord(sb, w, 0, w.length(), col, width, singleRowers);
+            }
         }
+        
         return sb.toString();
     }
+    
+    /**
+     * Appends the word between the specified indexes of the text to the 
+     * builder, breaking the line first if the word would not fit within the
+     * width.
+     * 
+     * @param sb            the builder to append to
+     * @param text          the text that contains the word
+     * @param begin         the index of the first character of the word
+     * @param end           the index after the last character of the word
+     * @param col           the current column
+     * @param width         the width of the text box
+     * @param singleRowers  a Set of Strings that shall be on a separate row
+     * @return              the column after the word has been appended
+     */
+    private static int appendWord(StringBuilder sb, String text, int begin, int end, int col, int width, Set<String> singleRowers) {
+        final int wordLen = end - begin;
+        
+        if (!singleRowers.isEmpty() && singleRowers.contains(text.substring(begin, end))) {
+            sb.append(NL).append(text, begin, end).append(NL);
+            return 0;
+        } else {
+            if (col + wordLen >= width) {
+                sb.append(NL);
+                col = 0;
+            } else if (col > 0) {
+                sb.append(' ');
+                col++;
+            }
+            
+            sb.append(text, begin, end);
+            return col + wordLen;
+        }
+    }
+    
+    /**
+     * Returns {@code true} if the specified text only contains characters
+     * that are matched by the regex character class <code>\s</code>.
+     * 
+     * @param text  the text
+     * @return      {@code true} if it is blank, else {@code false}
+     */
+    private static boolean isBlank(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (!isWhitespace(text.charAt(i))) {
+                return false;
+            }
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Returns {@code true} if the specified character is matched by the 
+     * regex character class <code>\s</code>.
+     * 
+     * @param c  the character
+     * @return   {@code true} if it is a white space, else {@code false}
+     */
+    private static boolean isWhitespace(char c) {
+        switch (c) {
+            case ' '  : case '\t' : case '\n' : 
+            case '\u000B' : case '\f' : case '\r' : return true;
+            default : return false;
+        }
+    }
 
     /**
      * Creates and returns a String formatted so it will fit in a box suitable
-     * for a Java Doc header.
+     * for a Java Doc header. Text within <code>&lt;pre&gt;</code> blocks and 
+     * inline tags are kept intact, as described in {@link JavadocFormatter}.
      *
      * @param text the input text
      * @return a String formatted so it will fit in a box suitable for a Java
@@ -119,7 +192,7 @@ public final class TextUtil {
      */
     public static String formatJavaDocBox(String text) {
         requireNonNull(text);
-        return formatTextBox(text, JAVA_DOC_WIDTH, JAVADOC_WORDS, JAVA_DOC_SINGLE_LINE_WORDS);
+        return JavadocFormatter.format(text, JavadocFormatter.DEFAULT_WIDTH, NL);
     }
     
     /**
@@ -156,7 +229,11 @@ public final class TextUtil {
             final double padding = (totalWidth - substring.length()) / 2d;
             final int left  = (int) Math.floor(padding);
             final int right = (int) Math.ceil(padding);
-            return repeat("" + fill, left) + substring + repeat("" + fill, right);
+            return new StringBuilder(totalWidth)
+                .append(repeat(fill, left))
+                .append(substring)
+                .append(repeat(fill, right))
+                .toString();
         }
     }
 
@@ -189,7 +266,7 @@ public final class TextUtil {
         if (substring.length() > totalWidth) {
             return substring.substring(0, totalWidth);
         } else {
-            return substring + repeat("" + fill, totalWidth - substring.length());
+            return substring.concat(repeat(fill, totalWidth - substring.length()));
         }
     }
     
@@ -222,7 +299,7 @@ public final class TextUtil {
         if (substring.length() > totalWidth) {
             return substring.substring(0, totalWidth);
         } else {
-            return repeat("" + fill, totalWidth - substring.length()) + substring;
+            return repeat(fill, totalWidth - substring.length()).concat(substring);
         }
     }
 
@@ -234,13 +311,18 @@ public final class TextUtil {
      * @return       the new string
      */
     public static String repeat(String str, int count) {
-        final StringBuilder result = new StringBuilder(str.length() * count);
-
-        for (int i = 0; i < count; i++) {
-            result.append(str);
-        }
-
-        return result.toString();
+        return Formatting.repeat(str, count);
+    }
+    
+    /**
+     * Repeats the specified character a number of times.
+     *
+     * @param c      the character to repeat
+     * @param count  the number of times to repeat it
+     * @return       the new string
+     */
+    public static String repeat(char c, int count) {
+        return Formatting.repeat(c, count);
     }
     
     /**
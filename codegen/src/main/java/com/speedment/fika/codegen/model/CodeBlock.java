@@ -0,0 +1,140 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.codegen.model;
+
+import com.speedment.fika.codegen.RenderSink;
+import com.speedment.fika.codegen.internal.model.CodeBlockImpl;
+import com.speedment.fika.codegen.model.trait.HasCode;
+import com.speedment.fika.codegen.model.trait.HasCopy;
+import java.util.List;
+
+/**
+ * A model that represents a sequence of code rows. Rows can be added 
+ * directly or as nested blocks, and nested blocks that are 
+ * {@link #indent(CodeBlock) indented} are rendered one level deeper than 
+ * the rows around them.
+ * <p>
+ * The structure is kept until the block is rendered into a 
+ * {@link RenderSink}, where the indentation is applied by the sink as the
+ * rows are written. A code block is also a <code>List</code> of rows so 
+ * that it can be used as the code of any {@link HasCode} model. When it is 
+ * read as a list, nested rows are prefixed with one tab for every level of
+ * indentation.
+ * <p>
+ * A block can also contain {@link #protect(String, CodeBlock) protected 
+ * regions} where code can be written by hand. When a sink is created with the
+ * regions of a previously generated file, the hand-written rows are written 
+ * instead of the default rows of the region.
+ * 
+ * @author Emil Forslund
+ * @since  2.4
+ */
+public interface CodeBlock extends List<String>, HasCopy<CodeBlock> {
+    
+    /**
+     * Appends the specified rows to this block.
+     * 
+     * @param rows  the rows to append
+     * @return      a reference to this model
+     */
+    CodeBlock append(String... rows);
+    
+    /**
+     * Appends the rows of the specified block to this block on the same 
+     * level of indentation. The block is not copied, so changes made to it
+     * later will also be visible in this block.
+     * 
+     * @param block  the block to append
+     * @return       a reference to this model
+     */
+    CodeBlock append(CodeBlock block);
+    
+    /**
+     * Appends the specified rows to this block, indented one level.
+     * 
+     * @param rows  the rows to append
+     * @return      a reference to this model
+     */
+    CodeBlock indent(String... rows);
+    
+    /**
+     * Appends the rows of the specified block to this block, indented one 
+     * level. The block is not copied, so changes made to it later will also
+     * be visible in this block.
+     * 
+     * @param block  the block to append
+     * @return       a reference to this model
+     */
+    CodeBlock indent(CodeBlock block);
+    
+    /**
+     * Appends a protected region with the specified name and default rows. 
+     * The region is rendered surrounded by a begin and an end marker. If the
+     * sink that the block is rendered into has a region with the same name, 
+     * the rows of that region are written instead of the default rows.
+     * 
+     * @param name      the name of the region, unique within the file
+     * @param defaults  the rows to write if the region has not been edited
+     * @return          a reference to this model
+     * 
+     * @throws IllegalArgumentException  if the name is empty or contains 
+     *                                   whitespace
+     * 
+     * @see RenderSink#takeRegion(String)
+     */
+    CodeBlock protect(String name, String... defaults);
+    
+    /**
+     * Appends a protected region with the specified name and default rows. 
+     * The region is rendered surrounded by a begin and an end marker. If the
+     * sink that the block is rendered into has a region with the same name, 
+     * the rows of that region are written instead of the rows of the 
+     * specified block. The block is not copied, so changes made to it later 
+     * will also be visible in this block.
+     * 
+     * @param name      the name of the region, unique within the file
+     * @param defaults  the block to write if the region has not been edited
+     * @return          a reference to this model
+     * 
+     * @throws IllegalArgumentException  if the name is empty or contains 
+     *                                   whitespace
+     * 
+     * @see RenderSink#takeRegion(String)
+     */
+    CodeBlock protect(String name, CodeBlock defaults);
+    
+    /**
+     * Writes the rows of this block to the specified sink, separated by 
+     * new-line characters. Nested blocks are written using the indentation 
+     * of the sink. No new-line is written before the first row or after the
+     * last one.
+     * 
+     * @param sink  the sink to write to
+     */
+    void render(RenderSink sink);
+
+    /**
+     * Creates a new instance implementing this interface by using the default
+     * implementation.
+     * 
+     * @param rows  the initial rows
+     * @return      the new instance
+     */
+    static CodeBlock of(String... rows) {
+        return new CodeBlockImpl().append(rows);
+    }
+}
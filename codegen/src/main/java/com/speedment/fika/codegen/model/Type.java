@@ -16,7 +16,9 @@
  */
 package com.speedment.fika.codegen.model;
 
+import com.speedment.fika.codegen.internal.model.InternedType;
 import com.speedment.fika.codegen.internal.model.TypeImpl;
+import com.speedment.fika.codegen.internal.model.constant.DefaultType;
 import com.speedment.fika.codegen.model.trait.HasAnnotationUsage;
 import com.speedment.fika.codegen.model.trait.HasCopy;
 import com.speedment.fika.codegen.model.trait.HasGenerics;
@@ -97,4 +99,23 @@ public interface Type extends HasCopy<Type>, HasName<Type>, HasGenerics<Type>,
     static Type of(java.lang.Class<?> clazz) {
         return of(clazz.getName()).setJavaImpl(clazz);
     }
-}
\ No newline at end of file
+    
+    /**
+     * Returns a canonical, immutable instance that is structurally equal to 
+     * the specified type. Interning the same type twice will return the same
+     * instance, which means that types that are referenced many times in a 
+     * model only need to be held in memory once.
+     * <p>
+     * If a modifying method is called on the returned instance, the type 
+     * will be copied before performing the operation, just like with the
+     * constants in {@link DefaultType}. Types with annotations that are not
+     * constants can not be made immutable and are returned as they are.
+     * 
+     * @param type  the type to intern
+     * @return      the canonical instance
+     * @since       2.4
+     */
+    static Type intern(Type type) {
+        return InternedType.of(type);
+    }
+}
@@ -16,10 +16,12 @@
  */
 package com.speedment.fika.codegen.model.trait;
 
+import com.speedment.fika.codegen.model.CodeBlock;
 import static com.speedment.fika.codegen.internal.util.Formatting.nl;
 import static com.speedment.fika.codegen.internal.util.NullUtil.requireNonNullElements;
 import java.util.Collections;
 import java.util.List;
+import static java.util.Objects.requireNonNull;
 
 /**
  * A trait for models that contains code.
@@ -60,6 +62,31 @@ public interface HasCode<T extends HasCode<T>> {
         return (T) this;
     }
     
+    /**
+     * Adds the specified block of code to this model. If the code of this
+     * model is a {@link CodeBlock}, the block is appended without being 
+     * rendered so that nested blocks are indented first when the model is
+     * rendered. Otherwise the rows of the block are added.
+     * 
+     * @param block  the block
+     * @return       a reference to this
+     * 
+     * @since  2.4
+     */
+    @SuppressWarnings("unchecked")
+    default T add(CodeBlock block) {
+        requireNonNull(block);
+        final List<String> code = getCode();
+        
+        if (code instanceof CodeBlock) {
+            ((CodeBlock) code).append(block);
+        } else {
+            code.addAll(block);
+        }
+        
+        return (T) this;
+    }
+    
     /**
      * Returns a list of the code rows of this model.
      * <p>
@@ -26,7 +26,12 @@ package com.speedment.fika.codegen.model.trait;
 public interface HasCopy<T extends HasCopy<T>> {
     
     /**
-     * Create a deep copy of this model.
+     * Create a deep copy of this model. Modifying the copy will never affect
+     * the original model or the other way around.
+     * <p>
+     * Immutable parts of the model, like predefined constants and rows of
+     * code, may be shared between the original and the copy until one of
+     * them is modified.
      * 
      * @return  the copy
      */
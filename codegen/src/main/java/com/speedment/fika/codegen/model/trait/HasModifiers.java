@@ -31,7 +31,9 @@ public interface HasModifiers<T extends HasModifiers<T>> {
     /**
      * Returns a <code>Set</code> with all modifiers of this model.
      * <p>
-     * The set returned must be mutable for changes!
+     * The set returned must be mutable for changes! The default 
+     * implementations return an {@link java.util.EnumSet} so that the 
+     * modifiers are always iterated in the order they are declared in.
      * 
      * @return  the modifiers
      */
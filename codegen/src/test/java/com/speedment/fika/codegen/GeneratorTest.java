@@ -0,0 +1,112 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.codegen;
+
+import com.speedment.fika.codegen.internal.DefaultGenerator;
+import com.speedment.fika.codegen.internal.java.JavaGenerator;
+import com.speedment.fika.codegen.internal.java.JavaTransformFactory;
+import com.speedment.fika.codegen.model.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests that {@link Generator#onAll(java.util.Collection, java.util.concurrent.Executor)}
+ * renders models in parallel with the same result as rendering them one at
+ * a time.
+ * 
+ * @author Emil Forslund
+ */
+public class GeneratorTest {
+    
+    private final static int FILES = 64, THREADS = 8;
+    
+    private ExecutorService executor;
+    
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+    
+    @After
+    public void tearDown() throws InterruptedException {
+        executor.shutdownNow();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+    
+    @Test
+    public void testOnAllMatchesSequentialInInputOrder() throws Exception {
+        final List<File> files = new ArrayList<>(FILES);
+        for (int i = 0; i < FILES; i++) {
+            files.add(new SyntheticFile()
+                .classes(1 + i % 4)
+                .fields(i % 7)
+                .methods(i % 3)
+                .generics(i % 2)
+                .build()
+            );
+        }
+        
+        final Generator generator = new JavaGenerator();
+        final List<Optional<String>> sequential = new ArrayList<>(FILES);
+        for (final File file : files) {
+            sequential.add(generator.on(file));
+        }
+        
+        final List<Optional<String>> parallel = generator.onAll(files, executor)
+            .get(30, TimeUnit.SECONDS);
+        
+        assertTrue(sequential.stream().allMatch(Optional::isPresent));
+        assertEquals(sequential, parallel);
+    }
+    
+    @Test
+    public void testOnAllCompletesExceptionallyIfModelFails() throws Exception {
+        final JavaTransformFactory factory = new JavaTransformFactory();
+        factory.install(Failing.class, (gen, model) -> {
+            throw new IllegalStateException("Failed to render.");
+        });
+        
+        final Generator generator = new DefaultGenerator(factory);
+        final CompletableFuture<List<Optional<String>>> future = generator.onAll(
+            Arrays.asList(new SyntheticFile().build(), new Failing()), executor
+        );
+        
+        try {
+            future.get(30, TimeUnit.SECONDS);
+            fail("Expected the future to complete exceptionally.");
+        } catch (final ExecutionException ex) {
+            assertTrue(future.isCompletedExceptionally());
+            assertTrue(ex.getCause() instanceof IllegalStateException);
+        }
+    }
+    
+    /**
+     * A model with a transform that always throws an exception.
+     */
+    private final static class Failing {}
+}
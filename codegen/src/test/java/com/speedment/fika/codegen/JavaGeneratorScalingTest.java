@@ -0,0 +1,236 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.codegen;
+
+import com.speedment.fika.codegen.internal.java.JavaGenerator;
+import com.speedment.fika.codegen.model.ClassOrInterface;
+import com.speedment.fika.codegen.model.Constructor;
+import com.speedment.fika.codegen.model.Field;
+import com.speedment.fika.codegen.model.File;
+import com.speedment.fika.codegen.model.Method;
+import com.speedment.fika.codegen.model.Type;
+import java.lang.management.ManagementFactory;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Regression tests that make sure that the time and memory it takes to 
+ * render a model grows linearly with the size of the model. Each test 
+ * renders a small and a large {@link SyntheticFile} and compares the cost
+ * per node, where a node is any model visited by the {@link ModelVisitor}.
+ * If some part of the generator would become quadratic, the cost per node
+ * of the large file would grow with the size of the file.
+ * <p>
+ * Allocations are measured using the <code>ThreadMXBean</code> of the JVM,
+ * and the tests that use it are skipped if it is not supported. The time 
+ * test depends on the load of the machine, so it is only run if the system
+ * property <code>fika.timingTests</code> is set to <code>true</code>, for an
+ * example with <code>mvn test -Dfika.timingTests=true</code>.
+ * 
+ * @author Emil Forslund
+ */
+public class JavaGeneratorScalingTest {
+    
+    private final static int WARMUP = 5, RUNS = 5;
+    private final static String TIMING_TESTS = "fika.timingTests";
+    
+    private final static com.sun.management.ThreadMXBean THREADS = threads();
+    
+    private Generator generator;
+    
+    @Before
+    public void setUp() {
+        generator = new JavaGenerator();
+    }
+    
+    @Test
+    public void testSyntheticFileRenders() {
+        final File file = new SyntheticFile()
+            .classes(3).fields(5).methods(2).generics(2).depth(3)
+            .build();
+        
+        final String code = generator.on(file).get();
+        
+        assertEquals(9, occurrences(code, " class Synthetic"));
+        assertEquals(3, occurrences(code, "InnerInner<T0, T1>"));
+        assertTrue(code.contains("private java.util.List<Item2> field2;"));
+        assertTrue(code.contains("\t\t\t\t\t\t\tresult += 2;"));
+        assertFalse(code.contains("result += 3;"));
+    }
+    
+    @Test
+    public void testRenderTimeIsLinearInClasses() {
+        assumeTrue(Boolean.getBoolean(TIMING_TESTS));
+        
+        final File small = new SyntheticFile().classes(4).fields(8).methods(4).build();
+        final File large = new SyntheticFile().classes(32).fields(8).methods(4).build();
+        
+        final double ratio = nanosPerNode(large) / nanosPerNode(small);
+        assertTrue("Render time per node grew " + ratio + " times.", ratio < 4);
+    }
+    
+    @Test
+    public void testAllocationIsLinearInClasses() {
+        assertLinearAllocation(
+            new SyntheticFile().classes(4).fields(8).methods(4),
+            new SyntheticFile().classes(32).fields(8).methods(4)
+        );
+    }
+    
+    @Test
+    public void testAllocationIsLinearInFields() {
+        assertLinearAllocation(
+            new SyntheticFile().classes(2).fields(8),
+            new SyntheticFile().classes(2).fields(64)
+        );
+    }
+    
+    @Test
+    public void testAllocationIsLinearInMethods() {
+        assertLinearAllocation(
+            new SyntheticFile().classes(2).methods(8),
+            new SyntheticFile().classes(2).methods(64)
+        );
+    }
+    
+    @Test
+    public void testAllocationIsLinearInGenerics() {
+        assertLinearAllocation(
+            new SyntheticFile().classes(2).fields(4).generics(2),
+            new SyntheticFile().classes(2).fields(4).generics(16)
+        );
+    }
+    
+    @Test
+    public void testAllocationIsLinearInDepth() {
+        assumeTrue(THREADS != null);
+        
+        // The indentation makes the output grow faster than the number of
+        // nodes when classes are nested, so the allocations are compared
+        // with the size of the output instead.
+        final File small = new SyntheticFile().depth(4).build();
+        final File large = new SyntheticFile().depth(32).build();
+        
+        final double smallBytes = bytesPerRender(small) / length(small);
+        final double largeBytes = bytesPerRender(large) / length(large);
+        final double ratio      = largeBytes / smallBytes;
+        
+        assertTrue("Allocations per character grew " + ratio + " times.", ratio < 2);
+    }
+    
+    private void assertLinearAllocation(SyntheticFile smaller, SyntheticFile larger) {
+        assumeTrue(THREADS != null);
+        
+        final File small = smaller.build();
+        final File large = larger.build();
+        
+        final double smallBytes = bytesPerRender(small) / nodes(small);
+        final double largeBytes = bytesPerRender(large) / nodes(large);
+        final double ratio      = largeBytes / smallBytes;
+        
+        assertTrue("Allocations per node grew " + ratio + " times.", ratio < 2);
+    }
+    
+    private double nanosPerNode(File file) {
+        for (int i = 0; i < WARMUP; i++) {
+            generator.on(file);
+        }
+        
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < RUNS; i++) {
+            final long start = System.nanoTime();
+            generator.on(file);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        
+        return (double) best / nodes(file);
+    }
+    
+    private double bytesPerRender(File file) {
+        for (int i = 0; i < WARMUP; i++) {
+            generator.on(file);
+        }
+        
+        final long thread = Thread.currentThread().getId();
+        
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < RUNS; i++) {
+            final long before = THREADS.getThreadAllocatedBytes(thread);
+            generator.on(file);
+            best = Math.min(best, THREADS.getThreadAllocatedBytes(thread) - before);
+        }
+        
+        return best;
+    }
+    
+    private double length(File file) {
+        return generator.on(file).get().length();
+    }
+    
+    private static double nodes(File file) {
+        final int[] count = {0};
+        
+        ModelVisitor.walk(file, new ModelVisitor() {
+            @Override
+            public void visitFile(File file) { count[0]++; }
+            
+            @Override
+            public void visitClass(ClassOrInterface<?> model) { count[0]++; }
+            
+            @Override
+            public void visitConstructor(Constructor constructor) { count[0]++; }
+            
+            @Override
+            public void visitMethod(Method method) { count[0]++; }
+            
+            @Override
+            public void visitField(Field field) { count[0]++; }
+            
+            @Override
+            public void visitType(Type type) { count[0]++; }
+        });
+        
+        return count[0];
+    }
+    
+    private static int occurrences(String text, String substring) {
+        int count = 0;
+        for (int i = text.indexOf(substring); i >= 0; i = text.indexOf(substring, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+    
+    private static com.sun.management.ThreadMXBean threads() {
+        final java.lang.management.ThreadMXBean bean = 
+            ManagementFactory.getThreadMXBean();
+        
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            final com.sun.management.ThreadMXBean threads = 
+                (com.sun.management.ThreadMXBean) bean;
+            
+            if (threads.isThreadAllocatedMemorySupported() 
+            &&  threads.isThreadAllocatedMemoryEnabled()) {
+                return threads;
+            }
+        }
+        
+        return null;
+    }
+}
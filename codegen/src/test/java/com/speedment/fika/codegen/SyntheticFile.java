@@ -0,0 +1,214 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.codegen;
+
+import static com.speedment.fika.codegen.internal.model.constant.DefaultAnnotationUsage.OVERRIDE;
+import static com.speedment.fika.codegen.internal.model.constant.DefaultType.INT_PRIMITIVE;
+import static com.speedment.fika.codegen.internal.model.constant.DefaultType.STRING;
+import static com.speedment.fika.codegen.internal.model.constant.DefaultType.VOID;
+import static com.speedment.fika.codegen.internal.model.constant.DefaultType.list;
+import static com.speedment.fika.codegen.internal.model.constant.DefaultType.map;
+import static com.speedment.fika.codegen.internal.model.constant.DefaultType.optional;
+import com.speedment.fika.codegen.model.Class;
+import com.speedment.fika.codegen.model.CodeBlock;
+import com.speedment.fika.codegen.model.Constructor;
+import com.speedment.fika.codegen.model.Field;
+import com.speedment.fika.codegen.model.File;
+import com.speedment.fika.codegen.model.Generic;
+import com.speedment.fika.codegen.model.Javadoc;
+import com.speedment.fika.codegen.model.Method;
+import com.speedment.fika.codegen.model.Type;
+
+/**
+ * Builds synthetic {@link File} models of a configurable size. The models 
+ * are used to test how the generator scales when the number of classes, 
+ * methods, fields, generics or the nesting depth grows.
+ * <p>
+ * Every class gets the configured number of generic type parameters, fields
+ * and methods. Every field also gets a getter and a setter and a parameter 
+ * in the constructor. If the depth is more than one, every top level class 
+ * contains a chain of nested classes of that depth, each with the same 
+ * members. The code of every method contains a block that is nested as 
+ * deep as the class.
+ * <p>
+ * This class is also packaged in the test jar of this module, so that the
+ * benchmarks can render the same models.
+ * 
+ * @author Emil Forslund
+ */
+public final class SyntheticFile {
+    
+    private final static String PACKAGE = "com.example.synthetic";
+    
+    private int classes  = 1;
+    private int methods  = 1;
+    private int fields   = 1;
+    private int generics = 0;
+    private int depth    = 1;
+    
+    /**
+     * Sets the number of top level classes in the file.
+     * 
+     * @param classes  the number of classes
+     * @return         a reference to this
+     */
+    public SyntheticFile classes(int classes) {
+        this.classes = classes;
+        return this;
+    }
+    
+    /**
+     * Sets the number of methods in every class, in addition to the getters
+     * and setters.
+     * 
+     * @param methods  the number of methods
+     * @return         a reference to this
+     */
+    public SyntheticFile methods(int methods) {
+        this.methods = methods;
+        return this;
+    }
+    
+    /**
+     * Sets the number of fields in every class.
+     * 
+     * @param fields  the number of fields
+     * @return        a reference to this
+     */
+    public SyntheticFile fields(int fields) {
+        this.fields = fields;
+        return this;
+    }
+    
+    /**
+     * Sets the number of generic type parameters of every class.
+     * 
+     * @param generics  the number of generics
+     * @return          a reference to this
+     */
+    public SyntheticFile generics(int generics) {
+        this.generics = generics;
+        return this;
+    }
+    
+    /**
+     * Sets the nesting depth of classes. A depth of one means that there 
+     * are no nested classes.
+     * 
+     * @param depth  the depth
+     * @return       a reference to this
+     */
+    public SyntheticFile depth(int depth) {
+        this.depth = depth;
+        return this;
+    }
+    
+    /**
+     * Builds a new file with the configured size.
+     * 
+     * @return  the file
+     */
+    public File build() {
+        final File file = File.of(PACKAGE.replace('.', '/') + "/Synthetic.java");
+        
+        for (int c = 0; c < classes; c++) {
+            file.add(createClass("Synthetic" + c, depth));
+        }
+        
+        return file;
+    }
+    
+    private Class createClass(String name, int level) {
+        final Class clazz = Class.of(name).public_()
+            .set(Javadoc.of("A synthetic class named " + name + 
+                " that is used to test how the code generator scales."
+            ));
+        
+        if (level < depth) {
+            clazz.static_();
+        }
+        
+        for (int g = 0; g < generics; g++) {
+            clazz.add(Generic.of("T" + g));
+        }
+        
+        clazz.add(Type.of(Comparable.class).add(Generic.of(Type.of(name))));
+        
+        final Constructor constr = Constructor.of().public_();
+        for (int f = 0; f < fields; f++) {
+            final String field = "field" + f;
+            final Type type    = typeOf(f);
+            
+            clazz.add(Field.of(field, type).private_());
+            constr.add(Field.of(field, type)).add("this." + field + " = " + field + ";");
+            
+            clazz.add(Method.of("get" + f, type).public_()
+                .set(Javadoc.of("Returns the value of field " + f + "."))
+                .add("return " + field + ";")
+            );
+            
+            clazz.add(Method.of("set" + f, VOID).public_()
+                .add(Field.of(field, type))
+                .add("this." + field + " = " + field + ";")
+            );
+        }
+        
+        clazz.add(constr);
+        
+        for (int m = 0; m < methods; m++) {
+            clazz.add(Method.of("compute" + m, INT_PRIMITIVE).public_()
+                .add(Field.of("value", INT_PRIMITIVE))
+                .add(nestedCode(depth - level + 1))
+            );
+        }
+        
+        clazz.add(Method.of("compareTo", INT_PRIMITIVE).public_()
+            .add(OVERRIDE)
+            .add(Field.of("other", Type.of(name)))
+            .add("return 0;")
+        );
+        
+        if (level > 1) {
+            clazz.add(createClass(name + "Inner", level - 1));
+        }
+        
+        return clazz;
+    }
+    
+    private static Type typeOf(int field) {
+        switch (field % 5) {
+            case 0  : return STRING;
+            case 1  : return INT_PRIMITIVE;
+            case 2  : return list(Type.of(PACKAGE + ".other.Item" + field));
+            case 3  : return map(STRING, Type.of(PACKAGE + ".other.Value" + field));
+            default : return optional(Type.of(PACKAGE + ".other.Entry" + field));
+        }
+    }
+    
+    private static CodeBlock nestedCode(int levels) {
+        final CodeBlock outer = CodeBlock.of("int result = value;");
+        CodeBlock current = outer;
+        
+        for (int i = 0; i < levels; i++) {
+            final CodeBlock inner = CodeBlock.of("result += " + i + ";");
+            current.append("if (result > " + i + ") {").indent(inner).append("}");
+            current = inner;
+        }
+        
+        return outer.append("return result;");
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.codegen;
+
+import static com.speedment.fika.codegen.internal.util.StaticClassUtil.instanceNotAllowed;
+import com.speedment.fika.codegen.model.Class;
+import com.speedment.fika.codegen.model.CodeBlock;
+import com.speedment.fika.codegen.model.Field;
+import com.speedment.fika.codegen.model.File;
+import com.speedment.fika.codegen.model.Method;
+import com.speedment.fika.codegen.model.Type;
+
+/**
+ * Builds small {@link File} models with a single public class that are 
+ * shared by the tests. Use {@link SyntheticFile} for larger models.
+ * 
+ * @author Emil Forslund
+ */
+public final class TestFiles {
+    
+    /**
+     * The name of the file of the class <code>com.example.Foo</code>.
+     */
+    public final static String NAME = "com/example/Foo.java";
+    
+    private final static String CLASS_NAME = "com.example.Foo";
+    
+    /**
+     * Returns a file with the class <code>com.example.Foo</code> that has a 
+     * public method named <code>bar</code> with the specified return type
+     * and code.
+     * 
+     * @param type  the return type of the method
+     * @param code  the code of the method
+     * @return      the file
+     */
+    public static File withMethod(Type type, CodeBlock code) {
+        return withMethod(CLASS_NAME, type, code);
+    }
+    
+    /**
+     * Returns a file with a class of the specified name that has a public 
+     * method named <code>bar</code> with the specified return type and code.
+     * 
+     * @param className  the full name of the class
+     * @param type       the return type of the method
+     * @param code       the code of the method
+     * @return           the file
+     */
+    public static File withMethod(String className, Type type, CodeBlock code) {
+        return fileOf(className).add(classOf(className)
+            .add(Method.of("bar", type).public_().add(code))
+        );
+    }
+    
+    /**
+     * Returns a file with the class <code>com.example.Foo</code> that has a
+     * field of the specified name and type.
+     * 
+     * @param name  the name of the field
+     * @param type  the type of the field
+     * @return      the file
+     */
+    public static File withField(String name, Type type) {
+        return fileOf(CLASS_NAME).add(classOf(CLASS_NAME)
+            .add(Field.of(name, type))
+        );
+    }
+    
+    private static File fileOf(String className) {
+        return File.of(className.replace('.', '/') + ".java");
+    }
+    
+    private static Class classOf(String className) {
+        return Class.of(className.substring(className.lastIndexOf('.') + 1))
+            .public_();
+    }
+    
+    /**
+     * Utility classes should not be instantiated.
+     */
+    private TestFiles() { instanceNotAllowed(getClass()); }
+}
@@ -0,0 +1,112 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.codegen.controller;
+
+import com.speedment.fika.codegen.Generator;
+import com.speedment.fika.codegen.internal.java.JavaGenerator;
+import com.speedment.fika.codegen.model.Class;
+import com.speedment.fika.codegen.model.Field;
+import com.speedment.fika.codegen.model.File;
+import com.speedment.fika.codegen.model.Generic;
+import com.speedment.fika.codegen.model.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import static java.util.stream.Collectors.toList;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests that the {@link ControllerPipeline} gives the same result as applying
+ * the same controls one after another.
+ * 
+ * @author Emil Forslund
+ */
+public class ControllerPipelineTest {
+    
+    @Test
+    public void testSameResultAsSequentialControls() {
+        final Generator gen = new JavaGenerator();
+        
+        final File sequential = createFile();
+        for (final Class cls : classesOf(sequential)) {
+            new SetGetAdd().accept(cls);
+        }
+        
+        for (final Class cls : classesOf(sequential)) {
+            new AutoEquals<Class>(sequential).accept(cls);
+        }
+        
+        new AutoJavadoc<File>().accept(sequential);
+        new AutoImports(gen.getDependencyMgr()).accept(sequential);
+        
+        final File pipelined = createFile();
+        new ControllerPipeline()
+            .on(Class.class, new SetGetAdd())
+            .on(Class.class, new AutoEquals<Class>(pipelined))
+            .add(new AutoJavadoc<File>())
+            .add(new AutoImports(gen.getDependencyMgr()))
+            .accept(pipelined);
+        
+        final String expected = gen.on(sequential).get();
+        
+        assertTrue(expected.contains("public int hashCode()"));
+        assertTrue(expected.contains("public String getName()"));
+        assertTrue(expected.contains("import java.util.Optional;"));
+        assertTrue(expected.contains("Write some documentation here."));
+        assertEquals(expected, gen.on(pipelined).get());
+    }
+    
+    @Test
+    public void testControlsAreInvokedInOrder() {
+        final File file = createFile();
+        final StringBuilder calls = new StringBuilder();
+        
+        new ControllerPipeline()
+            .on(Class.class, c -> calls.append("a:").append(c.getName()).append(' '))
+            .on(Field.class, f -> calls.append("f:").append(f.getName()).append(' '))
+            .on(Class.class, c -> calls.append("b:").append(c.getName()).append(' '))
+            .accept(file);
+        
+        assertEquals(
+            "a:Person b:Person f:name f:age f:tags " + 
+            "a:Address b:Address f:street f:zip ",
+            calls.toString()
+        );
+    }
+    
+    private static File createFile() {
+        return File.of("com/example/Person.java")
+            .add(Class.of("Person").public_()
+                .add(Field.of("name", Type.of(String.class)))
+                .add(Field.of("age", Type.of(int.class)))
+                .add(Field.of("tags", Type.of(List.class)
+                    .add(Generic.of(Type.of(String.class)))
+                ))
+            )
+            .add(Class.of("Address")
+                .add(Field.of("street", Type.of(Optional.class)))
+                .add(Field.of("zip", Type.of(Map.class)))
+            );
+    }
+    
+    private static List<Class> classesOf(File file) {
+        return file.getClasses().stream()
+            .map(Class.class::cast)
+            .collect(toList());
+    }
+}
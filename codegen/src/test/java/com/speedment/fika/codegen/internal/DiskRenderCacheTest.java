@@ -0,0 +1,157 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.codegen.internal;
+
+import com.speedment.fika.codegen.Generator;
+import com.speedment.fika.codegen.internal.java.JavaGenerator;
+import com.speedment.fika.codegen.internal.java.JavaTransformFactory;
+import com.speedment.fika.codegen.model.CodeBlock;
+import com.speedment.fika.codegen.model.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static com.speedment.fika.codegen.TestFiles.withField;
+import static com.speedment.fika.codegen.TestFiles.withMethod;
+import static com.speedment.fika.codegen.internal.model.constant.DefaultType.INT_PRIMITIVE;
+import static com.speedment.fika.codegen.internal.model.constant.DefaultType.STRING;
+import static com.speedment.fika.codegen.internal.util.CacheStatsAssert.assertStats;
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Tests that the {@link DiskRenderCache} only returns code that was rendered
+ * from an equivalent model by an equivalent generator.
+ * 
+ * @author Emil Forslund
+ */
+public class DiskRenderCacheTest {
+    
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    private DiskRenderCache cache;
+    private Generator generator;
+    
+    @Before
+    public void setUp() throws Exception {
+        cache     = new DiskRenderCache(folder.newFolder("cache").toPath());
+        generator = new JavaGenerator();
+    }
+    
+    @Test
+    public void testHit() {
+        final String first = cache.on(generator, withMethod(INT_PRIMITIVE, CodeBlock.of("return 1;"))).get();
+        final String second = cache.on(new JavaGenerator(), withMethod(INT_PRIMITIVE, CodeBlock.of("return 1;"))).get();
+        
+        assertEquals(first, second);
+        assertEquals(generator.on(withMethod(INT_PRIMITIVE, CodeBlock.of("return 1;"))).get(), second);
+        assertStats(cache.getStats(), 1, 1, 1);
+    }
+    
+    @Test
+    public void testMiss() {
+        final String first = cache.on(generator, withMethod(INT_PRIMITIVE, CodeBlock.of("return 1;"))).get();
+        final String second = cache.on(generator, withMethod(INT_PRIMITIVE, CodeBlock.of("return 2;"))).get();
+        
+        assertNotEquals(first, second);
+        assertTrue(second.contains("return 2;"));
+        assertStats(cache.getStats(), 0, 2, 2);
+    }
+    
+    @Test
+    public void testIndentedMultiLineRowDoesNotCollide() {
+        final File indented = withMethod(INT_PRIMITIVE, 
+            CodeBlock.of().indent(CodeBlock.of("if (a) {\nb();\n}"))
+        );
+        
+        final File prefixed = withMethod(INT_PRIMITIVE, 
+            CodeBlock.of("\tif (a) {\nb();\n}")
+        );
+        
+        final String first  = cache.on(generator, indented).get();
+        final String second = cache.on(generator, prefixed).get();
+        
+        assertEquals(generator.on(indented).get(), first);
+        assertEquals(generator.on(prefixed).get(), second);
+        assertNotEquals(first, second);
+        assertStats(cache.getStats(), 0, 2, 2);
+    }
+    
+    @Test
+    public void testIgnoredPatternsArePartOfKey() {
+        final File file = withField("name", STRING);
+        
+        final Generator ignoring = new DefaultGenerator(
+            new DefaultDependencyManager(Pattern.compile("^java\\.lang\\.")),
+            new JavaTransformFactory()
+        );
+        
+        final Generator plain = new DefaultGenerator(
+            new DefaultDependencyManager(),
+            new JavaTransformFactory()
+        );
+        
+        final String first  = cache.on(ignoring, file).get();
+        final String second = cache.on(plain, file).get();
+        
+        assertEquals(ignoring.on(file).get(), first);
+        assertEquals(plain.on(file).get(), second);
+        assertNotEquals(first, second);
+        assertStats(cache.getStats(), 0, 2, 2);
+    }
+    
+    @Test
+    public void testEntriesHaveDefaultPermissions() throws Exception {
+        final Path directory = folder.getRoot().toPath().resolve("cache");
+        assumeTrue(Files.getFileAttributeView(
+            directory, PosixFileAttributeView.class) != null
+        );
+        
+        cache.on(generator, withMethod(INT_PRIMITIVE, CodeBlock.of("return 1;")));
+        
+        final Path reference = folder.newFile("reference").toPath();
+        try (final Stream<Path> entries = Files.list(directory)) {
+            entries.forEach(entry -> {
+                try {
+                    assertEquals(
+                        Files.getPosixFilePermissions(reference),
+                        Files.getPosixFilePermissions(entry)
+                    );
+                } catch (final IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        }
+    }
+    
+    @Test
+    public void testClear() {
+        cache.on(generator, withMethod(INT_PRIMITIVE, CodeBlock.of("return 1;")));
+        cache.clear();
+        cache.on(generator, withMethod(INT_PRIMITIVE, CodeBlock.of("return 1;")));
+        
+        assertStats(cache.getStats(), 0, 2, 1);
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.codegen.internal;
+
+import com.speedment.fika.codegen.Generator;
+import com.speedment.fika.codegen.Transform;
+import com.speedment.fika.codegen.TransformFactory;
+import com.speedment.fika.codegen.internal.java.JavaGenerator;
+import com.speedment.fika.codegen.internal.java.JavaTransformFactory;
+import com.speedment.fika.codegen.internal.model.constant.DefaultType;
+import com.speedment.fika.codegen.model.Class;
+import com.speedment.fika.codegen.model.Enum;
+import com.speedment.fika.codegen.model.Field;
+import com.speedment.fika.codegen.model.File;
+import com.speedment.fika.codegen.model.Interface;
+import com.speedment.fika.codegen.model.Method;
+import com.speedment.fika.codegen.model.Type;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests that a {@link FrozenTransformFactory} behaves like the 
+ * {@link DefaultTransformFactory} it was created from, except that no more
+ * transforms can be installed.
+ * 
+ * @author Emil Forslund
+ */
+public class FrozenTransformFactoryTest {
+    
+    private final static Object[] MODELS = {
+        File.of("Foo.java"),
+        Class.of("Foo"),
+        Interface.of("Foo"),
+        Enum.of("Foo"),
+        Field.of("foo", Type.of(int.class)),
+        Method.of("foo", Type.of(int.class)),
+        Type.of(String.class),
+        Type.intern(Type.of(String.class)),
+        DefaultType.STRING,
+        "not a model"
+    };
+    
+    @Test
+    public void testAllFromHasSameOrder() {
+        final DefaultTransformFactory factory = new JavaTransformFactory();
+        factory.install(Field.class, String.class, (gen, model) -> Optional.of("extra"));
+        
+        final FrozenTransformFactory frozen = factory.freeze();
+        assertEquals(factory.getName(), frozen.getName());
+        
+        for (final Object model : MODELS) {
+            assertEquals(
+                "Transforms of " + model.getClass().getSimpleName(), 
+                entriesFrom(factory, model), 
+                entriesFrom(frozen, model)
+            );
+        }
+    }
+    
+    @Test(expected = UnsupportedOperationException.class)
+    public void testInstallInstanceThrows() {
+        new JavaTransformFactory().freeze()
+            .install(Field.class, String.class, (gen, model) -> Optional.of(""));
+    }
+    
+    @Test(expected = UnsupportedOperationException.class)
+    public void testInstallClassThrows() {
+        new JavaTransformFactory().freeze()
+            .install(Field.class, String.class, EmptyTransform.class);
+    }
+    
+    @Test
+    public void testLaterInstallsAreNotVisible() {
+        final DefaultTransformFactory factory = new JavaTransformFactory();
+        final FrozenTransformFactory frozen = factory.freeze();
+        final int before = entriesFrom(frozen, Field.of("a", Type.of(int.class))).size();
+        
+        factory.install(Field.class, String.class, (gen, model) -> Optional.of("extra"));
+        
+        assertEquals(before, entriesFrom(frozen, Field.of("a", Type.of(int.class))).size());
+        assertEquals(before + 1, entriesFrom(factory, Field.of("a", Type.of(int.class))).size());
+    }
+    
+    @Test
+    public void testRendersSameCode() {
+        final File file = File.of("com/example/Foo.java")
+            .add(Class.of("Foo").public_()
+                .add(Field.of("name", Type.of(String.class)))
+                .add(Method.of("getName", Type.of(String.class)).public_()
+                    .add("return name;")
+                )
+            );
+        
+        final Generator frozen = new JavaGenerator(new JavaTransformFactory().freeze());
+        assertEquals(new JavaGenerator().on(file).get(), frozen.on(file).get());
+    }
+    
+    private static List<Map.Entry<java.lang.Class<?>, Transform<?, ?>>> entriesFrom(
+            TransformFactory factory, Object model) {
+        
+        final List<Map.Entry<java.lang.Class<?>, Transform<?, ?>>> result = new ArrayList<>();
+        for (final Map.Entry<java.lang.Class<?>, Transform<Object, ?>> entry : 
+            factory.<Object, Transform<Object, ?>>allFrom(type(model))) {
+            
+            result.add(new SimpleEntry<>(entry.getKey(), entry.getValue()));
+        }
+        
+        return result;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static java.lang.Class<Object> type(Object model) {
+        return (java.lang.Class<Object>) model.getClass();
+    }
+    
+    /**
+     * A transform that never produces any code.
+     */
+    public final static class EmptyTransform implements Transform<Field, String> {
+        @Override
+        public Optional<String> transform(Generator gen, Field model) {
+            return Optional.empty();
+        }
+    }
+}
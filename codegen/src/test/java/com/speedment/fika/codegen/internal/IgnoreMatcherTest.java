@@ -0,0 +1,127 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.codegen.internal;
+
+import java.util.regex.Pattern;
+import static java.util.regex.Pattern.CASE_INSENSITIVE;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests that the {@link IgnoreMatcher} gives the same result as testing every
+ * pattern separately, also when the patterns can not be merged.
+ * 
+ * @author Emil Forslund
+ */
+public class IgnoreMatcherTest {
+    
+    @Test
+    public void testPlainPatternsAreMerged() {
+        final Pattern lang = Pattern.compile("^java\\.lang\\.");
+        final IgnoreMatcher matcher = new IgnoreMatcher(
+            lang, Pattern.compile("^int$"), lang
+        );
+        
+        assertEquals(0, matcher.getSeparateCount());
+        assertEquals(2, matcher.getPatterns().size());
+        assertTrue(matcher.test("java.lang.String"));
+        assertTrue(matcher.test("int"));
+        assertFalse(matcher.test("integer"));
+        assertFalse(matcher.test("java.util.List"));
+    }
+    
+    @Test
+    public void testFlaggedPatternsAreKeptSeparate() {
+        final IgnoreMatcher matcher = new IgnoreMatcher(
+            Pattern.compile("^com\\.example\\.", CASE_INSENSITIVE),
+            Pattern.compile("^java\\.util\\."),
+            Pattern.compile("^int$")
+        );
+        
+        assertEquals(1, matcher.getSeparateCount());
+        assertTrue(matcher.test("com.example.Foo"));
+        assertTrue(matcher.test("COM.EXAMPLE.Foo"));
+        assertTrue(matcher.test("java.util.List"));
+        assertFalse(matcher.test("JAVA.UTIL.List"));
+        assertFalse(matcher.test("INT"));
+    }
+    
+    @Test
+    public void testBackReferencesAreKeptSeparate() {
+        final IgnoreMatcher matcher = new IgnoreMatcher(
+            Pattern.compile("^(x)y"),
+            Pattern.compile("^(a)\\1$"),
+            Pattern.compile("^(?<b>b)\\k<b>$"),
+            Pattern.compile("^z$")
+        );
+        
+        assertEquals(2, matcher.getSeparateCount());
+        assertTrue(matcher.test("xy"));
+        assertTrue(matcher.test("aa"));
+        assertTrue(matcher.test("bb"));
+        assertTrue(matcher.test("z"));
+        assertFalse(matcher.test("ax"));
+        assertFalse(matcher.test("ab"));
+    }
+    
+    @Test
+    public void testInvalidMergedPatternFallsBackToSeparatePatterns() {
+        // A quote without an end is valid on its own but swallows the rest
+        // of the alternation if it is merged.
+        final IgnoreMatcher matcher = new IgnoreMatcher(
+            Pattern.compile("\\Qfoo"),
+            Pattern.compile("^bar$")
+        );
+        
+        assertEquals(2, matcher.getSeparateCount());
+        assertTrue(matcher.test("a.foo"));
+        assertTrue(matcher.test("bar"));
+        assertFalse(matcher.test("baz"));
+    }
+    
+    @Test
+    public void testCacheIsClearedWhenFull() {
+        final IgnoreMatcher matcher = new IgnoreMatcher(Pattern.compile("7$"));
+        
+        for (int i = 0; i < IgnoreMatcher.MAX_CACHE_SIZE; i++) {
+            assertEquals(i % 10 == 7, matcher.test("Name" + i));
+        }
+        
+        assertEquals(IgnoreMatcher.MAX_CACHE_SIZE, matcher.getCacheSize());
+        
+        assertTrue(matcher.test("Other7"));
+        assertEquals(1, matcher.getCacheSize());
+        
+        assertTrue(matcher.test("Name7"));
+        assertFalse(matcher.test("Name8"));
+        assertEquals(3, matcher.getCacheSize());
+    }
+    
+    @Test
+    public void testManagerUsesMatcher() {
+        final DefaultDependencyManager mgr = new DefaultDependencyManager(
+            Pattern.compile("^java\\.lang\\."),
+            Pattern.compile("^com\\.example\\.", CASE_INSENSITIVE)
+        );
+        
+        assertTrue(mgr.isIgnored("java.lang.String"));
+        assertTrue(mgr.isIgnored("Com.Example.Foo"));
+        assertFalse(mgr.isIgnored("java.util.List"));
+        assertTrue(mgr.fork().isIgnored("java.lang.String"));
+        assertEquals(2, mgr.getIgnoredPatterns().size());
+    }
+}
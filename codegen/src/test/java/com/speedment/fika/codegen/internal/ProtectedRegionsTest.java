@@ -0,0 +1,211 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.codegen.internal;
+
+import com.speedment.fika.codegen.Generator;
+import com.speedment.fika.codegen.RenderSink;
+import com.speedment.fika.codegen.internal.java.JavaGenerator;
+import com.speedment.fika.codegen.model.CodeBlock;
+import com.speedment.fika.codegen.model.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import static com.speedment.fika.codegen.TestFiles.withMethod;
+import static com.speedment.fika.codegen.internal.model.constant.DefaultType.INT_PRIMITIVE;
+import static org.junit.Assert.*;
+
+/**
+ * Tests that {@link ProtectedRegions} are read from generated code and 
+ * that hand-written rows survive when the file is generated again, also
+ * when the region is removed from the model and later added back.
+ * 
+ * @author Emil Forslund
+ */
+public class ProtectedRegionsTest {
+    
+    private Generator generator;
+    
+    @Before
+    public void setUp() {
+        generator = new JavaGenerator();
+    }
+    
+    @Test
+    public void testReadRemovesIndentationOfBeginMarker() {
+        final ProtectedRegions regions = read(
+            "class Foo {\n" +
+            "    // PROTECTED REGION BEGIN body\n" +
+            "    int a = 1;\n" +
+            "        if (a > 0) {}\n" +
+            "\n" +
+            "    // PROTECTED REGION END body\n" +
+            "}\n"
+        );
+        
+        assertEquals(Collections.singleton("body"), regions.getNames());
+        assertEquals(
+            Arrays.asList("int a = 1;", "    if (a > 0) {}", ""), 
+            regions.get("body").get()
+        );
+        assertFalse(regions.get("other").isPresent());
+    }
+    
+    @Test
+    public void testReadWithoutRegions() {
+        assertSame(ProtectedRegions.empty(), read("class Foo {}\n"));
+        assertTrue(read("").isEmpty());
+    }
+    
+    @Test
+    public void testReadCrLf() {
+        final ProtectedRegions regions = read(
+            "\t// PROTECTED REGION BEGIN body\r\n" +
+            "\treturn 1;\r\n" +
+            "\t// PROTECTED REGION END body\r\n"
+        );
+        
+        assertEquals(
+            Collections.singletonList("return 1;"), 
+            regions.get("body").get()
+        );
+    }
+    
+    @Test
+    public void testMergeKeepsEditedRows() {
+        final String generated = render(withMethod(INT_PRIMITIVE, CodeBlock.of().protect("body", "return 1;")), ProtectedRegions.empty());
+        assertTrue(generated.contains("return 1;"));
+        
+        final String edited = generated.replace("return 1;", "return 2;");
+        final String merged = render(withMethod(INT_PRIMITIVE, CodeBlock.of().protect("body", "return 1;")), read(edited));
+        
+        assertEquals(edited, merged);
+    }
+    
+    @Test
+    public void testDefaultRowsWithoutEdits() {
+        final String generated = render(withMethod(INT_PRIMITIVE, CodeBlock.of().protect("body", "return 1;")), ProtectedRegions.empty());
+        assertEquals(generated, render(withMethod(INT_PRIMITIVE, CodeBlock.of().protect("body", "return 1;")), read(generated)));
+    }
+    
+    @Test
+    public void testOrphanedRegionIsKeptAndMovedBack() {
+        final String edited = render(withMethod(INT_PRIMITIVE, CodeBlock.of().protect("body", "return 1;")), ProtectedRegions.empty())
+            .replace("return 1;", "return 2; /* edited */");
+        
+        final String orphaned = render(withMethod(INT_PRIMITIVE, CodeBlock.of("return 0;")), read(edited));
+        assertTrue(orphaned.contains("// return 2; /* edited */"));
+        assertOrphanedAreLineComments(orphaned);
+        
+        final ProtectedRegions again = read(orphaned);
+        assertEquals(
+            Collections.singletonList("return 2; /* edited */"),
+            again.get("body").get()
+        );
+        
+        assertEquals(edited, render(withMethod(INT_PRIMITIVE, CodeBlock.of().protect("body", "return 1;")), again));
+    }
+    
+    @Test
+    public void testOrphanedRowWithCommentEnd() {
+        final List<String> rows = Arrays.asList(
+            "int a = 1; */ int b = 2;", 
+            "", 
+            "    // nested comment",
+            "/* block */"
+        );
+        
+        final String previous = 
+            "// PROTECTED REGION BEGIN body\n" + 
+            String.join("\n", rows) + "\n" +
+            "// PROTECTED REGION END body\n";
+        
+        final String orphaned = render(withMethod(INT_PRIMITIVE, CodeBlock.of("return 0;")), read(previous));
+        assertOrphanedAreLineComments(orphaned);
+        assertEquals(rows, read(orphaned).get("body").get());
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testBeginTwice() {
+        read(
+            "// PROTECTED REGION BEGIN a\n" +
+            "// PROTECTED REGION END a\n" +
+            "// PROTECTED REGION BEGIN a\n" +
+            "// PROTECTED REGION END a\n"
+        );
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testBeginInsideRegion() {
+        read(
+            "// PROTECTED REGION BEGIN a\n" +
+            "// PROTECTED REGION BEGIN b\n" +
+            "// PROTECTED REGION END b\n" +
+            "// PROTECTED REGION END a\n"
+        );
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testEndWithoutBegin() {
+        read("// PROTECTED REGION END a\n");
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testEndOfOtherRegion() {
+        read(
+            "// PROTECTED REGION BEGIN a\n" +
+            "// PROTECTED REGION END b\n"
+        );
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testNeverEnded() {
+        read("// PROTECTED REGION BEGIN a\nreturn 1;");
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testNameWithWhitespace() {
+        ProtectedRegions.begin("a b");
+    }
+    
+    private String render(File file, ProtectedRegions regions) {
+        final StringBuilder str = new StringBuilder();
+        assertTrue(generator.render(file, RenderSink.of(str, regions)));
+        return str.toString();
+    }
+    
+    private static void assertOrphanedAreLineComments(String code) {
+        final int begin = code.indexOf("// The following protected regions");
+        assertTrue(begin >= 0);
+        
+        for (final String row : code.substring(begin).split("\n")) {
+            assertTrue(row, row.startsWith("//"));
+        }
+    }
+    
+    private static ProtectedRegions read(String text) {
+        try {
+            return ProtectedRegions.read(new StringReader(text));
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
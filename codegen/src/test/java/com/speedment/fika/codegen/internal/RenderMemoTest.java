@@ -0,0 +1,152 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.codegen.internal;
+
+import com.speedment.fika.codegen.DependencyManager;
+import com.speedment.fika.codegen.controller.AutoImports;
+import com.speedment.fika.codegen.internal.java.JavaTransformFactory;
+import com.speedment.fika.codegen.model.File;
+import com.speedment.fika.codegen.model.Type;
+import java.util.Optional;
+import org.junit.Test;
+import static com.speedment.fika.codegen.TestFiles.withField;
+import static org.junit.Assert.*;
+
+/**
+ * Tests that the memo of a {@link DefaultGenerator} never returns a result 
+ * that was rendered for another state of the {@link DependencyManager}.
+ * 
+ * @author Emil Forslund
+ */
+public class RenderMemoTest {
+    
+    private final static String NAME = "com.example.other.Item";
+    private final static Type TYPE = Type.intern(Type.of(NAME));
+    
+    @Test
+    public void testHitWhileManagerIsUnchanged() {
+        final DefaultGenerator generator = generator(new DefaultDependencyManager());
+        
+        assertEquals(NAME, generator.on(TYPE).get());
+        assertEquals(NAME, generator.on(TYPE).get());
+        assertHits(generator, 1);
+    }
+    
+    @Test
+    public void testLoadInvalidates() {
+        final DefaultGenerator generator = generator(new DefaultDependencyManager());
+        
+        assertEquals(NAME, generator.on(TYPE).get());
+        generator.getDependencyMgr().load(NAME);
+        assertEquals("Item", generator.on(TYPE).get());
+        assertHits(generator, 0);
+    }
+    
+    @Test
+    public void testCurrentPackageInvalidates() {
+        final DefaultGenerator generator = generator(new DefaultDependencyManager());
+        
+        assertEquals(NAME, generator.on(TYPE).get());
+        
+        generator.getDependencyMgr().setCurrentPackage("com.example.other");
+        assertEquals("Item", generator.on(TYPE).get());
+        
+        generator.getDependencyMgr().unsetCurrentPackage("com.example.other");
+        assertEquals(NAME, generator.on(TYPE).get());
+        assertHits(generator, 0);
+    }
+    
+    @Test
+    public void testAutoImportsInvalidates() {
+        final DefaultGenerator generator = generator(new DefaultDependencyManager());
+        assertEquals(NAME, generator.on(TYPE).get());
+        
+        final File file = withField("item", TYPE);
+        
+        new AutoImports(generator.getDependencyMgr()).accept(file);
+        final String code = generator.on(file).get();
+        
+        assertTrue(code, code.contains("import " + NAME + ";"));
+        assertTrue(code, code.contains("Item item;"));
+        assertFalse(code, code.contains(NAME + " item;"));
+    }
+    
+    @Test
+    public void testUntrackedManagerNeverHits() {
+        final DependencyManager mgr = new UntrackedDependencyManager();
+        final DefaultGenerator generator = generator(mgr);
+        
+        assertEquals(NAME, generator.on(TYPE).get());
+        assertEquals(NAME, generator.on(TYPE).get());
+        
+        mgr.load(NAME);
+        assertEquals("Item", generator.on(TYPE).get());
+        assertHits(generator, 0);
+    }
+    
+    private static DefaultGenerator generator(DependencyManager mgr) {
+        return new DefaultGenerator(mgr, new JavaTransformFactory())
+            .setMemoEnabled(true);
+    }
+    
+    private static void assertHits(DefaultGenerator generator, long hits) {
+        assertEquals("hits", hits, generator.getMemoStats().getHits());
+    }
+    
+    /**
+     * A dependency manager that does not report its modification count.
+     */
+    private final static class UntrackedDependencyManager implements DependencyManager {
+        
+        private final DependencyManager inner = new DefaultDependencyManager();
+
+        @Override
+        public boolean load(String fullname) {
+            return inner.load(fullname);
+        }
+
+        @Override
+        public boolean isLoaded(String fullname) {
+            return inner.isLoaded(fullname);
+        }
+
+        @Override
+        public boolean isIgnored(String fullname) {
+            return inner.isIgnored(fullname);
+        }
+
+        @Override
+        public void clearDependencies() {
+            inner.clearDependencies();
+        }
+
+        @Override
+        public boolean setCurrentPackage(String pack) {
+            return inner.setCurrentPackage(pack);
+        }
+
+        @Override
+        public boolean unsetCurrentPackage(String pack) {
+            return inner.unsetCurrentPackage(pack);
+        }
+
+        @Override
+        public Optional<String> getCurrentPackage() {
+            return inner.getCurrentPackage();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.codegen.internal;
+
+import com.speedment.fika.codegen.Transform;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import org.junit.Before;
+import org.junit.Test;
+import static com.speedment.fika.codegen.internal.util.CacheStatsAssert.assertStats;
+import static org.junit.Assert.*;
+
+/**
+ * Tests that the {@link RouteCache} never returns a route that was resolved
+ * before the cache was invalidated.
+ * 
+ * @author Emil Forslund
+ */
+public class RouteCacheTest {
+    
+    private RouteCache cache;
+    
+    @Before
+    public void setUp() {
+        cache = new RouteCache();
+    }
+    
+    @Test
+    public void testHit() {
+        final List<Transform<?, ?>> first = cache.get(
+            Integer.class, String.class, RouteCacheTest::route
+        );
+        
+        final List<Transform<?, ?>> second = cache.get(
+            Integer.class, String.class, () -> { throw new AssertionError(); }
+        );
+        
+        assertSame(first, second);
+        assertStats(cache.getStats(), 1, 1, 1);
+    }
+    
+    @Test
+    public void testInvalidate() {
+        final List<Transform<?, ?>> first = cache.get(
+            Integer.class, String.class, RouteCacheTest::route
+        );
+        
+        cache.invalidate();
+        assertStats(cache.getStats(), 0, 1, 0);
+        
+        final List<Transform<?, ?>> second = cache.get(
+            Integer.class, String.class, RouteCacheTest::route
+        );
+        
+        assertNotSame(first, second);
+        assertStats(cache.getStats(), 0, 2, 1);
+    }
+    
+    @Test
+    public void testInvalidateWhileResolvingIsNotCached() {
+        final List<Transform<?, ?>> stale = cache.get(
+            Integer.class, String.class, () -> {
+                cache.invalidate();
+                return route();
+            }
+        );
+        
+        assertStats(cache.getStats(), 0, 1, 0);
+        
+        final List<Transform<?, ?>> fresh = cache.get(
+            Integer.class, String.class, RouteCacheTest::route
+        );
+        
+        assertNotSame(stale, fresh);
+        assertSame(fresh, cache.get(
+            Integer.class, String.class, RouteCacheTest::route
+        ));
+    }
+    
+    private static List<Transform<?, ?>> route() {
+        final Transform<Object, Object> transform = (gen, model) -> Optional.empty();
+        return Collections.singletonList(transform);
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.codegen.internal;
+
+import com.speedment.fika.codegen.Generator;
+import com.speedment.fika.codegen.internal.java.JavaGenerator;
+import com.speedment.fika.codegen.internal.util.OutputStats;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.stream.Stream;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static com.speedment.fika.codegen.TestFiles.NAME;
+import static com.speedment.fika.codegen.TestFiles.withField;
+import static com.speedment.fika.codegen.internal.model.constant.DefaultType.STRING;
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Tests that the {@link SourceTreeWriter} writes files into the right place
+ * with the right permissions and skips files that are already up to date.
+ * 
+ * @author Emil Forslund
+ */
+public class SourceTreeWriterTest {
+    
+    private final static FileTime OLD = FileTime.fromMillis(1_000_000_000_000L);
+    
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    private Path root;
+    private SourceTreeWriter writer;
+    private Generator generator;
+    
+    @Before
+    public void setUp() throws IOException {
+        root      = folder.newFolder("src").toPath();
+        writer    = new SourceTreeWriter(root);
+        generator = new JavaGenerator();
+    }
+    
+    @Test
+    public void testWrite() throws IOException {
+        assertTrue(writer.write(generator, withField("a", STRING)));
+        
+        final Path target = root.resolve(NAME);
+        assertEquals(generator.on(withField("a", STRING)).get(), read(target));
+        assertNoTemporaryFiles();
+    }
+    
+    @Test
+    public void testSkipWhenIdentical() throws IOException {
+        writer.write(generator, withField("a", STRING));
+        
+        final Path target = root.resolve(NAME);
+        Files.setLastModifiedTime(target, OLD);
+        
+        assertFalse(writer.write(generator, withField("a", STRING)));
+        assertEquals(OLD, Files.getLastModifiedTime(target));
+        
+        assertTrue(writer.write(generator, withField("b", STRING)));
+        assertNotEquals(OLD, Files.getLastModifiedTime(target));
+        assertEquals(generator.on(withField("b", STRING)).get(), read(target));
+        assertNoTemporaryFiles();
+    }
+    
+    @Test
+    public void testStats() throws IOException {
+        writer.write(generator, withField("a", STRING));
+        writer.write(generator, withField("a", STRING));
+        writer.write(generator, withField("b", STRING));
+        
+        final long bytes = 
+            generator.on(withField("a", STRING)).get().getBytes(StandardCharsets.UTF_8).length +
+            generator.on(withField("b", STRING)).get().getBytes(StandardCharsets.UTF_8).length;
+        
+        final OutputStats stats = writer.getStats();
+        assertEquals(2, stats.getFilesWritten());
+        assertEquals(1, stats.getFilesSkipped());
+        assertEquals(3, stats.getFiles());
+        assertEquals(bytes, stats.getBytesWritten());
+    }
+    
+    @Test
+    public void testNewFileHasDefaultPermissions() throws IOException {
+        assumePosix();
+        
+        final Path reference = folder.newFile("reference").toPath();
+        writer.write(generator, withField("a", STRING));
+        
+        assertEquals(
+            Files.getPosixFilePermissions(reference),
+            Files.getPosixFilePermissions(root.resolve(NAME))
+        );
+    }
+    
+    @Test
+    public void testReplacedFileKeepsPermissions() throws IOException {
+        assumePosix();
+        
+        writer.write(generator, withField("a", STRING));
+        
+        final Path target = root.resolve(NAME);
+        Files.setPosixFilePermissions(target, 
+            PosixFilePermissions.fromString("rw-r-----")
+        );
+        
+        assertTrue(writer.write(generator, withField("b", STRING)));
+        assertEquals("rw-r-----", PosixFilePermissions.toString(
+            Files.getPosixFilePermissions(target)
+        ));
+    }
+    
+    private void assertNoTemporaryFiles() throws IOException {
+        try (final Stream<Path> files = Files.walk(root)) {
+            assertEquals(0, files
+                .filter(p -> p.getFileName().toString().endsWith(".tmp"))
+                .count()
+            );
+        }
+    }
+    
+    private void assumePosix() {
+        assumeTrue(Files.getFileAttributeView(
+            root, PosixFileAttributeView.class) != null
+        );
+    }
+    
+    private static String read(Path path) throws IOException {
+        return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,138 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.codegen.internal.java;
+
+import com.speedment.fika.codegen.model.CodeBlock;
+import javax.tools.ToolProvider;
+import org.junit.Before;
+import org.junit.Test;
+import static com.speedment.fika.codegen.TestFiles.withMethod;
+import static com.speedment.fika.codegen.internal.model.constant.DefaultType.STRING;
+import static com.speedment.fika.codegen.internal.util.CacheStatsAssert.assertStats;
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Tests that the {@link InMemoryCompiler} compiles, loads and caches the
+ * classes of generated files.
+ * 
+ * @author Emil Forslund
+ */
+public class InMemoryCompilerTest {
+    
+    private InMemoryCompiler compiler;
+    
+    @Before
+    public void setUp() {
+        assumeTrue(ToolProvider.getSystemJavaCompiler() != null);
+        compiler = new InMemoryCompiler();
+    }
+    
+    @Test
+    public void testCompileLoadAndInvoke() throws Exception {
+        final java.lang.Class<?> compiled = compiler.compile(
+            withMethod("com.example.Foo", STRING, CodeBlock.of("return \"Hello\";")),
+            "com.example.Foo"
+        );
+        
+        assertEquals("com.example.Foo", compiled.getName());
+        assertEquals("Hello", invoke(compiled));
+    }
+    
+    @Test
+    public void testCompiledClassShadowsParent() throws Exception {
+        final String name = Shadowed.class.getName();
+        final java.lang.Class<?> compiled = compiler.compile(
+            withMethod(name, STRING, CodeBlock.of("return \"compiled\";")), 
+            name
+        );
+        
+        assertNotSame(Shadowed.class, compiled);
+        assertEquals(name, compiled.getName());
+        assertSame(compiled, compiled.getClassLoader().loadClass(name));
+        assertEquals("compiled", invoke(compiled));
+        assertEquals("parent", new Shadowed().bar());
+    }
+    
+    @Test
+    public void testCacheHit() {
+        final java.lang.Class<?> first = compiler.compile(
+            withMethod("com.example.Foo", STRING, CodeBlock.of("return \"Hello\";")),
+            "com.example.Foo"
+        );
+        
+        final java.lang.Class<?> second = compiler.compile(
+            withMethod("com.example.Foo", STRING, CodeBlock.of("return \"Hello\";")),
+            "com.example.Foo"
+        );
+        
+        assertSame(first, second);
+        assertStats(compiler.getStats(), 1, 1, 1);
+    }
+    
+    @Test
+    public void testIndentedMultiLineRowDoesNotCollide() {
+        final java.lang.Class<?> indented = compiler.compile(withMethod(
+            "com.example.Foo", STRING, 
+            CodeBlock.of().indent(CodeBlock.of("if (true) {\nreturn \"a\";\n}"))
+                .append("return \"b\";")
+        ), "com.example.Foo");
+        
+        final java.lang.Class<?> prefixed = compiler.compile(withMethod(
+            "com.example.Foo", STRING, 
+            CodeBlock.of("\tif (true) {\nreturn \"a\";\n}")
+                .append("return \"b\";")
+        ), "com.example.Foo");
+        
+        assertNotSame(indented, prefixed);
+        assertStats(compiler.getStats(), 0, 2, 2);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testCompileErrorThrows() {
+        compiler.compile(
+            withMethod("com.example.Foo", STRING, CodeBlock.of("return 1;")),
+            "com.example.Foo"
+        );
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingClassThrows() {
+        compiler.compile(
+            withMethod("com.example.Foo", STRING, CodeBlock.of("return \"Hello\";")),
+            "com.example.Bar"
+        );
+    }
+    
+    private static Object invoke(java.lang.Class<?> compiled) throws Exception {
+        return compiled.getMethod("bar")
+            .invoke(compiled.getConstructor().newInstance());
+    }
+}
+
+/**
+ * A class on the class path of the test with the same name as a class that 
+ * is compiled by the test.
+ * 
+ * @author Emil Forslund
+ */
+final class Shadowed {
+    
+    String bar() {
+        return "parent";
+    }
+}
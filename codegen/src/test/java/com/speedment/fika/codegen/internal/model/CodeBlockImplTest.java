@@ -0,0 +1,153 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.codegen.internal.model;
+
+import com.speedment.fika.codegen.RenderSink;
+import com.speedment.fika.codegen.internal.util.Formatting;
+import com.speedment.fika.codegen.model.CodeBlock;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests that the <code>List</code> view of a {@link CodeBlockImpl} always 
+ * matches what is rendered, also after it has been modified.
+ * 
+ * @author Emil Forslund
+ */
+public class CodeBlockImplTest {
+    
+    @Test
+    public void testListViewMatchesRender() {
+        final CodeBlock[] blocks = {
+            CodeBlock.of("a;", "b;"),
+            CodeBlock.of("if (a) {").indent("b();").append("}"),
+            CodeBlock.of().indent(CodeBlock.of("if (a) {\nb();\n}")),
+            CodeBlock.of("x;").indent(CodeBlock.of("y;\r\nz;")).append("w;"),
+            CodeBlock.of("a;").indent(CodeBlock.of("b;").indent("c;\nd;")),
+            CodeBlock.of("a;").append(CodeBlock.of("b;")).indent("c;"),
+            CodeBlock.of("a;").indent(CodeBlock.of().protect("r", "b;\nc;"))
+        };
+        
+        for (final CodeBlock block : blocks) {
+            assertEquals(render(block), join(block));
+        }
+    }
+    
+    @Test
+    public void testIndentedMultiLineRowIsPrefixedOnEveryLine() {
+        final CodeBlock block = CodeBlock.of()
+            .indent(CodeBlock.of("if (a) {\nb();\n}"));
+        
+        assertEquals(
+            Arrays.asList("\tif (a) {" + Formatting.nl() + "\tb();" + 
+                Formatting.nl() + "\t}"),
+            block
+        );
+    }
+    
+    @Test
+    public void testSetKeepsIndentation() {
+        final CodeBlock block = CodeBlock.of("int x;")
+            .indent(CodeBlock.of("if (a) {\nb();\n}"))
+            .append("return x;");
+        
+        final String before = render(block);
+        block.set(0, "int x;");
+        
+        assertEquals(before, render(block));
+        
+        block.remove(2);
+        assertEquals(
+            "int x;" + Formatting.nl() + 
+            "\tif (a) {" + Formatting.nl() + "\tb();" + Formatting.nl() + "\t}",
+            render(block)
+        );
+    }
+    
+    @Test
+    public void testModifyingNestedBlockIsVisible() {
+        final CodeBlock nested = CodeBlock.of("b;");
+        final CodeBlock block  = CodeBlock.of("a;").indent(nested);
+        
+        assertEquals(Arrays.asList("a;", "\tb;"), block);
+        
+        nested.append("c;");
+        assertEquals(Arrays.asList("a;", "\tb;", "\tc;"), block);
+        assertEquals(3, block.size());
+        
+        nested.set(0, "d;");
+        assertEquals("\td;", block.get(1));
+        
+        nested.clear();
+        assertEquals(Arrays.asList("a;"), block);
+    }
+    
+    @Test
+    public void testAddAppendsToEnd() {
+        final CodeBlock block = CodeBlock.of("a;").indent("b;");
+        
+        block.add("c;");
+        block.add(block.size(), "d;");
+        block.add(0, "start;");
+        
+        assertEquals(Arrays.asList("start;", "a;", "\tb;", "c;", "d;"), block);
+        assertEquals(render(block), join(block));
+    }
+    
+    @Test
+    public void testCopyIsIndependent() {
+        final CodeBlock nested = CodeBlock.of("b;");
+        final CodeBlock block  = CodeBlock.of("a;").indent(nested);
+        final CodeBlock copy   = block.copy();
+        
+        nested.append("c;");
+        copy.add("d;");
+        
+        assertEquals(Arrays.asList("a;", "\tb;", "\tc;"), block);
+        assertEquals(Arrays.asList("a;", "\tb;", "d;"), copy);
+    }
+    
+    @Test(timeout = 10_000)
+    public void testIndexedAccessIsNotQuadratic() {
+        final CodeBlock block = CodeBlock.of().indent("nested;");
+        final int rows = 100_000;
+        
+        for (int i = 0; i < rows; i++) {
+            block.add("row" + i + ";");
+        }
+        
+        int length = 0;
+        for (int i = 0; i < block.size(); i++) {
+            length += block.get(i).length();
+        }
+        
+        assertEquals(rows + 1, block.size());
+        assertTrue(length > rows);
+    }
+    
+    private static String render(CodeBlock block) {
+        final StringBuilder str = new StringBuilder();
+        block.render(RenderSink.of(str));
+        return str.toString();
+    }
+    
+    private static String join(List<String> rows) {
+        return String.join(Formatting.nl(), rows);
+    }
+}
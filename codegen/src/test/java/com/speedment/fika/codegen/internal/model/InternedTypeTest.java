@@ -0,0 +1,141 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.codegen.internal.model;
+
+import com.speedment.fika.codegen.Generator;
+import com.speedment.fika.codegen.internal.java.JavaGenerator;
+import com.speedment.fika.codegen.model.Generic;
+import com.speedment.fika.codegen.model.Type;
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests that types created using {@link Type#intern(Type)} are canonical and
+ * immutable, render like ordinary types and do not keep classes loaded.
+ * 
+ * @author Emil Forslund
+ */
+public class InternedTypeTest {
+    
+    @Test
+    public void testInternReturnsSameInstance() {
+        final Type first  = Type.intern(Type.of(String.class));
+        final Type second = Type.intern(Type.of(String.class));
+        
+        assertSame(first, second);
+        assertSame(first, Type.intern(first));
+        assertSame(
+            Type.intern(mapOfStringToList()),
+            Type.intern(mapOfStringToList())
+        );
+        assertNotSame(
+            Type.intern(Type.of(String.class)),
+            Type.intern(Type.of(String.class).setArrayDimension(1))
+        );
+    }
+    
+    @Test
+    public void testModifyingReturnsCopy() {
+        final Type interned = Type.intern(Type.of(List.class));
+        final Type modified = interned.add(Generic.of(Type.of(String.class)));
+        
+        assertNotSame(interned, modified);
+        assertFalse(modified instanceof InternedType);
+        assertTrue(interned.getGenerics().isEmpty());
+        assertEquals(1, modified.getGenerics().size());
+        
+        final Type renamed = interned.setName("java.util.Collection");
+        assertEquals("java.util.List", interned.getName());
+        assertEquals("java.util.Collection", renamed.getName());
+        
+        final Type array = interned.setArrayDimension(2);
+        assertEquals(0, interned.getArrayDimension());
+        assertEquals(2, array.getArrayDimension());
+    }
+    
+    @Test(expected = UnsupportedOperationException.class)
+    public void testGenericsAreUnmodifiable() {
+        Type.intern(mapOfStringToList()).getGenerics().clear();
+    }
+    
+    @Test
+    public void testRendersLikePlainType() {
+        final Generator gen = new JavaGenerator();
+        
+        final Type[] types = {
+            Type.of(String.class),
+            Type.of(int.class),
+            Type.of(String.class).setArrayDimension(2),
+            Type.of(Entry.class),
+            Type.of("com.example.Outer$Inner"),
+            mapOfStringToList(),
+            mapOfStringToList().setArrayDimension(1)
+        };
+        
+        for (final Type type : types) {
+            final String plain = gen.on(type).get();
+            assertEquals(plain, gen.on(Type.intern(type)).get());
+        }
+    }
+    
+    @Test
+    public void testClassLoaderCanBeCollected() throws Exception {
+        final WeakReference<ClassLoader> loader = internFromOwnLoader();
+        
+        for (int i = 0; i < 100 && loader.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        
+        assertNull("The class loader is still reachable.", loader.get());
+    }
+    
+    private static WeakReference<ClassLoader> internFromOwnLoader() 
+    throws Exception {
+        final URL location = Loaded.class.getProtectionDomain()
+            .getCodeSource().getLocation();
+        
+        final URLClassLoader loader = new URLClassLoader(new URL[] {location}, null);
+        final java.lang.Class<?> loaded = loader.loadClass(Loaded.class.getName());
+        assertNotSame(Loaded.class, loaded);
+        
+        final Type interned = Type.intern(Type.of(loaded));
+        assertSame(interned, Type.intern(Type.of(loaded)));
+        
+        loader.close();
+        return new WeakReference<>(loader);
+    }
+    
+    private static Type mapOfStringToList() {
+        return Type.of(Map.class)
+            .add(Generic.of(Type.of(String.class)))
+            .add(Generic.of(Type.of(List.class)
+                .add(Generic.of(Type.of(Integer.class)))
+            ));
+    }
+    
+    /**
+     * A class that is loaded by a separate class loader.
+     */
+    public final static class Loaded {}
+}
@@ -0,0 +1,48 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.codegen.internal.util;
+
+import static com.speedment.fika.codegen.internal.util.StaticClassUtil.instanceNotAllowed;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Assertions on the {@link CacheStats} of the caches in the code generator.
+ * 
+ * @author Emil Forslund
+ */
+public final class CacheStatsAssert {
+    
+    /**
+     * Asserts that the specified statistics have the expected number of 
+     * hits and misses and the expected size.
+     * 
+     * @param stats   the statistics
+     * @param hits    the expected number of hits
+     * @param misses  the expected number of misses
+     * @param size    the expected size
+     */
+    public static void assertStats(CacheStats stats, long hits, long misses, int size) {
+        assertEquals("hits",   hits,   stats.getHits());
+        assertEquals("misses", misses, stats.getMisses());
+        assertEquals("size",   size,   stats.getSize());
+    }
+    
+    /**
+     * Utility classes should not be instantiated.
+     */
+    private CacheStatsAssert() { instanceNotAllowed(getClass()); }
+}
@@ -0,0 +1,288 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.codegen.internal.util;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import static java.util.stream.Collectors.toList;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests the text primitives in {@link Formatting} and {@link TextUtil} 
+ * against copies of the implementations they replaced. The inputs are 
+ * random but generated from a fixed seed, so a failure can be reproduced.
+ * 
+ * @author Emil Forslund
+ */
+public class FormattingTest {
+    
+    private final static long SEED = 4711;
+    private final static int INPUTS = 5000;
+    private final static char[] ALPHABET = {
+        'a', 'B', '1', '.', '{', '\u00e5', ' ', ' ', '\t', '\n', '\n', '\r', '\f', '\u000B'
+    };
+    
+    @Test
+    public void testIndentMatchesLegacy() {
+        final Random random = new Random(SEED);
+        
+        for (int i = 0; i < INPUTS; i++) {
+            final String text = randomText(random);
+            assertEquals(escape(text), Legacy.indent(text), Formatting.indent(text));
+            
+            for (int steps = 0; steps < 4; steps++) {
+                if (steps > 1 && text.contains("\r\r\n")) {
+                    continue; // See testIndentKeepsRunOfCarriageReturns
+                }
+                
+                assertEquals(escape(text) + " in " + steps + " steps",
+                    Legacy.indent(text, steps), 
+                    Formatting.indent(text, steps)
+                );
+            }
+        }
+    }
+    
+    @Test
+    public void testIndentRowsMatchesLegacy() {
+        final Random random = new Random(SEED);
+        
+        for (int i = 0; i < INPUTS; i++) {
+            final String[] rows = new String[random.nextInt(4)];
+            for (int j = 0; j < rows.length; j++) {
+                rows[j] = randomText(random);
+            }
+            
+            assertEquals(
+                Legacy.indent(rows), 
+                Formatting.indent(rows)
+            );
+        }
+    }
+    
+    @Test
+    public void testIndentKeepsRunOfCarriageReturns() {
+        // The legacy implementation indented one step at a time, so every 
+        // step removed another carriage return in front of a line break. 
+        // Only the one that belongs to the line break is removed now.
+        assertEquals("\t\ta\r\n\t\tb", Formatting.indent("a\r\r\nb", 2));
+        assertEquals("\t\ta\n\t\tb", Legacy.indent("a\r\r\nb", 2));
+        
+        assertEquals("\t\t\ta\r\r\n\t\t\tb", Formatting.indent("a\r\r\r\nb", 3));
+    }
+    
+    @Test
+    public void testFirstCharacterMatchesLegacy() {
+        final Random random = new Random(SEED);
+        
+        for (int i = 0; i < INPUTS; i++) {
+            final String text = randomText(random);
+            assertEquals(Legacy.ucfirst(text), Formatting.ucfirst(text));
+            assertEquals(Legacy.lcfirst(text), Formatting.lcfirst(text));
+        }
+        
+        assertNull(Formatting.ucfirst(null));
+        assertNull(Formatting.lcfirst(null));
+    }
+    
+    @Test
+    public void testRepeatMatchesLegacy() {
+        for (final String str : new String[] {"", "a", "ab", "\t"}) {
+            for (int count = -1; count < 5; count++) {
+                assertEquals(Legacy.repeat(str, count), Formatting.repeat(str, count));
+            }
+        }
+        
+        for (int count = -1; count < 5; count++) {
+            assertEquals(Legacy.repeat("x", count), Formatting.repeat('x', count));
+        }
+    }
+    
+    @Test
+    public void testFormatTextBoxMatchesLegacy() {
+        final Random random = new Random(SEED);
+        final Pattern words = Pattern.compile("[\\s]+");
+        final Pattern punctuation = Pattern.compile("[\\.,\\s]+");
+        final Set<String> singleRowers = Collections.singleton("{");
+        
+        for (int i = 0; i < INPUTS; i++) {
+            final String text = randomText(random);
+            final int width = 1 + random.nextInt(12);
+            
+            assertEquals(escape(text),
+                Legacy.formatTextBox(text, width, words, Collections.emptySet()),
+                TextUtil.formatTextBox(text, width)
+            );
+            
+            assertEquals(escape(text),
+                Legacy.formatTextBox(text, width, punctuation, singleRowers),
+                TextUtil.formatTextBox(text, width, punctuation, singleRowers)
+            );
+        }
+    }
+    
+    @Test
+    public void testAlignMatchesLegacy() {
+        final Random random = new Random(SEED);
+        
+        for (int i = 0; i < INPUTS; i++) {
+            final String text = randomText(random);
+            final int width = random.nextInt(20);
+            
+            assertEquals(
+                Legacy.alignCenter(text, width, '*'), 
+                TextUtil.alignCenter(text, width, '*')
+            );
+            
+            assertEquals(
+                Legacy.alignLeft(text, width, '*'), 
+                TextUtil.alignLeft(text, width, '*')
+            );
+            
+            assertEquals(
+                Legacy.alignRight(text, width, '*'), 
+                TextUtil.alignRight(text, width, '*')
+            );
+        }
+    }
+    
+    private static String randomText(Random random) {
+        final char[] chars = new char[random.nextInt(24)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = ALPHABET[random.nextInt(ALPHABET.length)];
+        }
+        
+        return new String(chars);
+    }
+    
+    private static String escape(String text) {
+        return "'" + text.replace("\r", "\\r").replace("\n", "\\n") + "'";
+    }
+    
+    /**
+     * The implementations that were used before the text primitives were
+     * rewritten.
+     */
+    private final static class Legacy {
+        
+        static String ucfirst(String input) {
+            return withFirst(input, (first) -> String.valueOf(Character.toUpperCase(first)));
+        }
+        
+        static String lcfirst(String input) {
+            return withFirst(input, (first) -> String.valueOf(Character.toLowerCase(first)));
+        }
+        
+        static String withFirst(String input, Function<Character, String> callback) {
+            if (input == null) {
+                return null;
+            } else if (input.length() == 0) {
+                return "";
+            } else {
+                return String.join("",
+                    callback.apply(input.charAt(0)),
+                    input.subSequence(1, input.length())
+                );
+            }
+        }
+        
+        static String repeat(String str, int count) {
+            final StringBuilder result = new StringBuilder();
+            
+            for (int i = 0; i < count; i++) {
+                result.append(str);
+            }
+            
+            return result.toString();
+        }
+        
+        static String indent(String text) {
+            return "\t" + text.replaceAll("\\r?\\n", "\n\t");
+        }
+        
+        static String indent(String... text) {
+            return "\t" + String.join("\n", text).replaceAll("\\r?\\n", "\n\t");
+        }
+        
+        static String indent(String text, int steps) {
+            switch (steps) {
+                case 0  : return text;
+                case 1  : return indent(text);
+                default : return indent(indent(text, steps - 1));
+            }
+        }
+        
+        static String formatTextBox(String text, int width, Pattern splitter, Set<String> singleRowers) {
+            final StringBuilder sb = new StringBuilder();
+            final AtomicInteger col = new AtomicInteger();
+            final List<String> words = splitter.splitAsStream(text).collect(toList());
+            for (final String w : words) {
+                final int wordLen = w.length();
+                if (singleRowers.contains(w)) {
+                    sb.append("\n");
+                    sb.append(w);
+                    sb.append("\n");
+                    col.set(0);
+                } else {
+                    if (col.get() + wordLen >= width) {
+                        sb.append("\n");
+                        col.set(0);
+                    } else if (col.get() > 0) {
+                        sb.append(" ");
+                        col.incrementAndGet();
+                    }
+                    sb.append(w);
+                    col.getAndAdd(wordLen);
+                }
+            }
+            return sb.toString();
+        }
+        
+        static String alignCenter(String substring, int totalWidth, char fill) {
+            if (substring.length() > totalWidth) {
+                return substring.substring(0, totalWidth);
+            } else {
+                final double padding = (totalWidth - substring.length()) / 2d;
+                final int left  = (int) Math.floor(padding);
+                final int right = (int) Math.ceil(padding);
+                return repeat("" + fill, left) + substring + repeat("" + fill, right);
+            }
+        }
+        
+        static String alignLeft(String substring, int totalWidth, char fill) {
+            if (substring.length() > totalWidth) {
+                return substring.substring(0, totalWidth);
+            } else {
+                return substring + repeat("" + fill, totalWidth - substring.length());
+            }
+        }
+        
+        static String alignRight(String substring, int totalWidth, char fill) {
+            if (substring.length() > totalWidth) {
+                return substring.substring(0, totalWidth);
+            } else {
+                return repeat("" + fill, totalWidth - substring.length()) + substring;
+            }
+        }
+    }
+}
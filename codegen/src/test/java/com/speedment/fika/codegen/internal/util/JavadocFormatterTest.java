@@ -0,0 +1,119 @@
+/**
+ *
+ * Copyright (c) 2006-2016, Speedment, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.speedment.fika.codegen.internal.util;
+
+import org.junit.Test;
+import static com.speedment.fika.codegen.internal.util.CacheStatsAssert.assertStats;
+import static org.junit.Assert.*;
+
+/**
+ * Tests that the {@link JavadocFormatter} wraps text without breaking
+ * <code>&lt;pre&gt;</code> blocks, inline tags or paragraphs.
+ * 
+ * @author Emil Forslund
+ */
+public class JavadocFormatterTest {
+    
+    private final static String SEPARATOR = "\n * ";
+    
+    @Test
+    public void testWrapsWords() {
+        assertEquals(
+            "aaaa bbbb cccc" + SEPARATOR + "dddddd",
+            format("aaaa  bbbb\ncccc\tdddddd")
+        );
+    }
+    
+    @Test
+    public void testPreBlockIsKeptVerbatim() {
+        assertEquals(
+            "Hello" + SEPARATOR + 
+            "<pre>" + SEPARATOR + 
+            "  int a;" + SEPARATOR + 
+            "    b(a,   c);" + SEPARATOR + 
+            "</pre>" + SEPARATOR + 
+            "after",
+            format("Hello <pre>\n  int a;\r\n    b(a,   c);\n</pre> after")
+        );
+    }
+    
+    @Test
+    public void testUnclosedPreBlockRunsToEnd() {
+        assertEquals(
+            "word" + SEPARATOR + "<pre>" + SEPARATOR + "  never   closed",
+            format("word <pre>\n  never   closed")
+        );
+    }
+    
+    @Test
+    public void testInlineTagIsNeverSplit() {
+        assertEquals(
+            "aaaa bbbb" + SEPARATOR + 
+            "{@link java.util.Map some long label}" + SEPARATOR + 
+            "cccc dddd",
+            format("aaaa bbbb {@link java.util.Map some long label} cccc dddd")
+        );
+    }
+    
+    @Test
+    public void testNestedBracketsInInlineTag() {
+        assertEquals(
+            "{@code a {b} c} x",
+            format("{@code a {b} c} x")
+        );
+    }
+    
+    @Test
+    public void testUnclosedInlineTagRunsToEnd() {
+        assertEquals(
+            "word" + SEPARATOR + "{@code unclosed tag continues here",
+            format("word {@code unclosed tag continues here")
+        );
+    }
+    
+    @Test
+    public void testParagraphIsOnLineOfItsOwn() {
+        assertEquals(
+            "First." + SEPARATOR + "<p>" + SEPARATOR + "Second.",
+            format("First. <p> Second.")
+        );
+    }
+    
+    @Test
+    public void testWordContainingParagraphIsNotBroken() {
+        assertEquals(
+            "a <p>b c",
+            format("a <p>b c")
+        );
+    }
+    
+    @Test
+    public void testCache() {
+        final JavadocFormatter formatter = new JavadocFormatter(20, SEPARATOR, 2);
+        
+        assertEquals(format("First. <p> Second."), formatter.format("First. <p> Second."));
+        assertEquals(format("First. <p> Second."), formatter.format("First. <p> Second."));
+        formatter.format("a");
+        formatter.format("b");
+        
+        assertStats(formatter.getStats(), 1, 3, 1);
+    }
+    
+    private static String format(String text) {
+        return JavadocFormatter.format(text, 20, SEPARATOR);
+    }
+}